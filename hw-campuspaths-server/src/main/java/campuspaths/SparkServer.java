@@ -12,51 +12,354 @@
 package campuspaths;
 
 import campuspaths.utils.CORSFilter;
+import campuspaths.utils.DataDirectoryWatcher;
+import campuspaths.utils.JsonBody;
+import campuspaths.utils.ServingModel;
+import campuspaths.utils.ServingState;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import pathfinder.DijkstraAlg;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 import spark.Spark;
 import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.RoutingEngine;
+import pathfinder.parser.CampusPathsParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import pathfinder.datastructures.*;
 
 public class SparkServer {
 
-    public static void main(String[] args) {
+    /**
+     * The most routes the campus map keeps cached between requests.
+     */
+    private static final int ROUTE_CACHE_CAPACITY = 1024;
+
+    /**
+     * The most encoded /findPath responses kept between requests.
+     */
+    private static final int RESPONSE_CACHE_CAPACITY = 1024;
+
+    /**
+     * Gson instances are thread-safe, so every request shares this one.
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * The most pairs one /findPaths request may ask for.
+     */
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    /**
+     * The most costs one /distances request may ask for.
+     */
+    private static final long MAX_MATRIX_CELLS = 250000;
+
+    /**
+     * The environment variable holding the token that /closures requests must send in the
+     * X-Admin-Token header. If it is not set, /closures is not served.
+     */
+    private static final String ADMIN_TOKEN_VARIABLE = "CAMPUSPATHS_ADMIN_TOKEN";
+
+    /**
+     * The environment variable naming a campus graph file compiled by CampusGraphCompiler.
+     * If it is set, the map is loaded from that file instead of from the CSV files.
+     */
+    private static final String GRAPH_FILE_VARIABLE = "CAMPUSPATHS_GRAPH_FILE";
+
+    /**
+     * The environment variable naming a directory holding campus_buildings.csv and
+     * campus_paths.csv. If it is set, the map is loaded from those files instead of from the
+     * ones built into the server, and is rebuilt and swapped in whenever they change.
+     */
+    private static final String DATA_DIRECTORY_VARIABLE = "CAMPUSPATHS_DATA_DIR";
+
+    /**
+     * How long, in milliseconds, the data files must go unchanged before they are reloaded,
+     * so that a file still being written is not read.
+     */
+    private static final long RELOAD_QUIET_MILLIS = 500;
+
+    /**
+     * The number of threads a reload parses and preprocesses on: a quarter of the cores, so
+     * that the rest keep answering requests at full speed while a new map is built.
+     */
+    private static final int RELOAD_THREADS =
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+    public static void main(String[] args) throws IOException {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
-        CampusMap map = new CampusMap();
+        Logger logger = LoggerFactory.getLogger("CampusPaths Server");
+        String dataDirectory = System.getenv(DATA_DIRECTORY_VARIABLE);
+        String graphFile = System.getenv(GRAPH_FILE_VARIABLE);
+        long loadStart = System.nanoTime();
+        CampusMap initialMap;
+        String source;
+        if (dataDirectory != null && !dataDirectory.isEmpty()) {
+            // No requests are served yet, so the first load may use every core.
+            initialMap = loadMap(Paths.get(dataDirectory), ForkJoinPool.commonPool());
+            source = dataDirectory;
+        } else if (graphFile != null && !graphFile.isEmpty()) {
+            initialMap = new CampusMap(RoutingEngine.ROUTE_TABLE, ROUTE_CACHE_CAPACITY,
+                    Paths.get(graphFile));
+            source = graphFile;
+        } else {
+            initialMap = new CampusMap(RoutingEngine.ROUTE_TABLE, ROUTE_CACHE_CAPACITY);
+            source = "CSV files";
+        }
+        logger.info(String.format("Loaded campus map from %s in %.1f ms. %s", source,
+                (System.nanoTime() - loadStart) / 1e6, initialMap.loadSummary()));
+
+        ServingState serving = new ServingState(initialMap, RESPONSE_CACHE_CAPACITY);
+        if (dataDirectory != null && !dataDirectory.isEmpty()) {
+            java.nio.file.Path directory = Paths.get(dataDirectory);
+            ForkJoinPool reloadPool = newReloadPool();
+            new DataDirectoryWatcher(directory,
+                    Set.of(CampusMap.BUILDINGS_FILE, CampusMap.PATHS_FILE), RELOAD_QUIET_MILLIS,
+                    () -> serving.reload(directory.toString(),
+                            () -> loadMap(directory, reloadPool)));
+            logger.info("Watching " + directory + " for changes to the campus data files.");
+        }
 
         // Returns JSON string of a mapping of the building names and their abbreviated forms.
         Spark.get("/buildings", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
-                Map<String, String> buildingNames = map.buildingNames();
-                Gson gson = new Gson();
-                return gson.toJson(buildingNames);
+                return serving.current().buildingsBody().send(request, response);
             }
         });
 
         // Returns a JSON string of the Path object that represents the shortest
-        // distance between two buildings.
+        // distance between two buildings, or 404 if no path connects them.
         Spark.get("/findPath", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
+                ServingModel model = serving.current();
+                CampusMap map = model.map();
                 String start = request.queryParams("start");
                 String end = request.queryParams("end");
                 // Check for incorrect input
                 if (!map.shortNameExists(start) || !map.shortNameExists(end)) {
                     Spark.halt(400);
-                } else {
-                    Path<Point> shortestPath = map.findShortestPath(start, end);
-                    Gson gson = new Gson();
-                    return gson.toJson(shortestPath);
                 }
-                return null;
+                JsonBody body = model.pathBody(start, end);
+                if (body == null) {
+                    Spark.halt(404, "No path connects " + start + " and " + end + ".");
+                }
+                return body.send(request, response);
+            }
+        });
+
+        // Streams a JSON array of the shortest paths between each of the pairs of buildings in
+        // the request body, which is a JSON array of {"start": ..., "end": ...} objects. The
+        // paths are in the same order as the pairs, and null for pairs with no path.
+        Spark.post("/findPaths", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                ServingModel model = serving.current();
+                CampusMap map = model.map();
+                RouteQuery[] queries = null;
+                try {
+                    queries = GSON.fromJson(request.body(), RouteQuery[].class);
+                } catch (JsonParseException e) {
+                    Spark.halt(400, "The body must be a JSON array of {start, end} objects.");
+                }
+                if (queries == null) {
+                    Spark.halt(400, "The body must be a JSON array of {start, end} objects.");
+                }
+                if (queries.length > MAX_BATCH_SIZE) {
+                    Spark.halt(413, "At most " + MAX_BATCH_SIZE + " pairs per request.");
+                }
+                List<Map.Entry<String, String>> pairs = new ArrayList<>(queries.length);
+                for (RouteQuery query : queries) {
+                    if (query == null || !map.shortNameExists(query.start)
+                            || !map.shortNameExists(query.end)) {
+                        Spark.halt(400);
+                    }
+                    pairs.add(Map.entry(query.start, query.end));
+                }
+                response.type("application/json; charset=utf-8");
+                OutputStream out = new BufferedOutputStream(response.raw().getOutputStream());
+                model.writePaths(pairs, out);
+                out.flush();
+                return "";
+            }
+        });
+
+        // Returns the walking distance from each of the "from" buildings to each of the "to"
+        // buildings in the request body, {"from": [...], "to": [...]}, as a JSON array with one
+        // array of distances per "from" building. Pairs with no path have a null distance.
+        Spark.post("/distances", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                CampusMap map = serving.current().map();
+                DistanceQuery query = null;
+                try {
+                    query = GSON.fromJson(request.body(), DistanceQuery.class);
+                } catch (JsonParseException e) {
+                    Spark.halt(400, "The body must be a JSON object with from and to arrays.");
+                }
+                if (query == null || query.from == null || query.to == null) {
+                    Spark.halt(400, "The body must be a JSON object with from and to arrays.");
+                }
+                if ((long) query.from.size() * query.to.size() > MAX_MATRIX_CELLS) {
+                    Spark.halt(413, "At most " + MAX_MATRIX_CELLS + " distances per request.");
+                }
+                for (String name : query.from) {
+                    if (!map.shortNameExists(name)) {
+                        Spark.halt(400);
+                    }
+                }
+                for (String name : query.to) {
+                    if (!map.shortNameExists(name)) {
+                        Spark.halt(400);
+                    }
+                }
+                double[][] costs = map.findShortestDistances(query.from, query.to);
+                response.type("application/json; charset=utf-8");
+                return matrixJson(costs);
+            }
+        });
+
+        // Closes walkways, given as a JSON array of {"x1", "y1", "x2", "y2"} segments between
+        // two points of the campus graph, in both directions. Only the cached routes and
+        // responses that walk a closed segment are dropped. Closures are applied again to every
+        // map reloaded from the data files. Returns the new graph version and the number of
+        // edges closed.
+        String adminToken = System.getenv(ADMIN_TOKEN_VARIABLE);
+        if (adminToken != null && !adminToken.isEmpty()) {
+            byte[] expectedToken = adminToken.getBytes(StandardCharsets.UTF_8);
+            Spark.post("/closures", new Route() {
+                @Override
+                public Object handle(Request request, Response response) throws Exception {
+                    String token = request.headers("X-Admin-Token");
+                    if (token == null || !MessageDigest.isEqual(expectedToken,
+                            token.getBytes(StandardCharsets.UTF_8))) {
+                        Spark.halt(401);
+                    }
+                    ServingState.Closure[] closures = null;
+                    try {
+                        closures = GSON.fromJson(request.body(), ServingState.Closure[].class);
+                    } catch (JsonParseException e) {
+                        Spark.halt(400, "The body must be a JSON array of {x1, y1, x2, y2} "
+                                + "objects.");
+                    }
+                    if (closures == null) {
+                        Spark.halt(400, "The body must be a JSON array of {x1, y1, x2, y2} "
+                                + "objects.");
+                    }
+                    if (closures.length > MAX_BATCH_SIZE) {
+                        Spark.halt(413, "At most " + MAX_BATCH_SIZE + " closures per request.");
+                    }
+                    ServingState.ClosureResult result = null;
+                    try {
+                        result = serving.close(Arrays.asList(closures));
+                    } catch (IllegalArgumentException e) {
+                        Spark.halt(400, e.getMessage());
+                    }
+                    response.type("application/json; charset=utf-8");
+                    return GSON.toJson(result);
+                }
+            });
+        }
+
+        // Returns a JSON string of the size and hit, miss and eviction counters of the route
+        // cache and of the encoded /findPath response cache.
+        Spark.get("/cacheStats", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                ServingModel model = serving.current();
+                Map<String, RouteCache.Stats> stats = new LinkedHashMap<>();
+                stats.put("routes", model.map().routeCacheStats());
+                stats.put("responses", model.responseCacheStats());
+                return GSON.toJson(stats);
             }
         });
     }
 
+    /**
+     * Loads the campus map from the data files in a directory, doing the parallel work on
+     * pool. Every route starts at a building, so the map precomputes a shortest-path tree for
+     * each one before it is returned, and serves its first queries as fast as its later ones.
+     *
+     * @throws CampusPathsParser.ParserException if a data file cannot be read or parsed.
+     */
+    private static CampusMap loadMap(java.nio.file.Path directory, ForkJoinPool pool) {
+        return new CampusMap(RoutingEngine.ROUTE_TABLE, ROUTE_CACHE_CAPACITY,
+                directory.resolve(CampusMap.BUILDINGS_FILE),
+                directory.resolve(CampusMap.PATHS_FILE), pool);
+    }
+
+    /**
+     * Makes the pool reloads run on: RELOAD_THREADS daemon threads of the lowest priority,
+     * kept apart from the common pool that request threads use.
+     */
+    private static ForkJoinPool newReloadPool() {
+        return new ForkJoinPool(RELOAD_THREADS, pool -> {
+            ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("campus-map-reload-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Writes a matrix as nested JSON arrays of numbers, with null for infinite elements. Gson
+     * would reject the infinities, and writing the numbers directly keeps the body compact.
+     */
+    private static String matrixJson(double[][] matrix) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[');
+        for (int i = 0; i < matrix.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('[');
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (j > 0) {
+                    sb.append(',');
+                }
+                double value = matrix[i][j];
+                if (Double.isInfinite(value)) {
+                    sb.append("null");
+                } else {
+                    sb.append(value);
+                }
+            }
+            sb.append(']');
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * The body of a /distances request.
+     */
+    private static final class DistanceQuery {
+        private List<String> from;
+        private List<String> to;
+    }
+
+    /**
+     * One (start, end) pair of a /findPaths request body.
+     */
+    private static final class RouteQuery {
+        private String start;
+        private String end;
+    }
+
 }
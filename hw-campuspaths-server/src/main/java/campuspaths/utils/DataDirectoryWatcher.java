@@ -0,0 +1,150 @@
+package campuspaths.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a directory for changes to a set of files and runs a task on a background thread
+ * once they have stopped changing. Editors and copy tools often write a file in several steps,
+ * or replace several files one after another, so a change only triggers the task after the
+ * directory has been quiet for a while, and a burst of changes triggers it once. Changes made
+ * while the task runs are queued and trigger it again when it finishes, so the task never runs
+ * twice at once. If the task fails, the failure is logged and the directory is still watched,
+ * so the next change runs the task again.
+ */
+public final class DataDirectoryWatcher implements AutoCloseable {
+
+    // AF(this) = the directory watched => directory
+    //            the names of the files whose changes matter => fileNames
+    //            what to run after they change => onChange
+    //
+    // RI: directory != null && fileNames != null && onChange != null && quietMillis > 0
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataDirectoryWatcher.class);
+
+    private final Path directory;
+    private final Set<String> fileNames;
+    private final Runnable onChange;
+    private final long quietMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Starts watching a directory.
+     *
+     * @param directory   The directory to watch. Files in its subdirectories are not watched.
+     * @param fileNames   The simple names of the files in directory whose creation,
+     *                    modification or deletion triggers onChange.
+     * @param quietMillis How long, in milliseconds, the files must go unchanged before
+     *                    onChange runs.
+     * @param onChange    The task to run after the files change. It runs on the watcher's
+     *                    thread; anything it throws is logged and otherwise ignored.
+     * @throws IOException              if the directory cannot be watched.
+     * @throws IllegalArgumentException if quietMillis is not positive.
+     * @spec.requires no argument is null
+     */
+    public DataDirectoryWatcher(Path directory, Set<String> fileNames, long quietMillis,
+                                Runnable onChange) throws IOException {
+        if (quietMillis <= 0) {
+            throw new IllegalArgumentException("quietMillis must be positive.");
+        }
+        this.directory = directory;
+        this.fileNames = Set.copyOf(fileNames);
+        this.quietMillis = quietMillis;
+        this.onChange = onChange;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::run, "data-directory-watcher");
+        thread.setDaemon(true);
+        // The task competes with request threads; let them go first.
+        thread.setPriority(Thread.MIN_PRIORITY);
+        checkRep();
+        thread.start();
+    }
+
+    /**
+     * @return The directory being watched.
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Stops watching. A task that is already running is allowed to finish.
+     *
+     * @spec.modifies this
+     * @spec.effects no more changes are watched for
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+                // Wait until a whole quiet period passes without another relevant change.
+                WatchKey key;
+                while ((key = watchService.poll(quietMillis, TimeUnit.MILLISECONDS)) != null) {
+                    drain(key);
+                }
+                runTask();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close was called.
+        }
+    }
+
+    /**
+     * Runs onChange, logging rather than propagating any failure, since a failure that
+     * escaped would end the watcher's thread and nothing would be watched any more.
+     */
+    private void runTask() {
+        try {
+            onChange.run();
+        } catch (RuntimeException | Error e) {
+            // Even running out of memory for a large rebuild should not stop later ones.
+            LOGGER.error("Handling a change to " + directory + " failed; still watching.", e);
+        }
+    }
+
+    /**
+     * Consumes the events of key and resets it.
+     *
+     * @return true iff one of the events was about one of the watched files.
+     */
+    private boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, so the watched files may have changed.
+                relevant = true;
+            } else if (fileNames.contains(((Path) event.context()).getFileName().toString())) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void checkRep() {
+        assert directory != null && fileNames != null && onChange != null && quietMillis > 0;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2022 Kevin Zatloukal.  All rights reserved.  Permission is
+ * hereby granted to students registered for University of Washington
+ * CSE 331 for use solely during Spring Quarter 2022 for purposes of
+ * the course.  No other use, copying, distribution, or modification
+ * is permitted without prior written consent. Copyrights for
+ * third-party components of this work must be honored.  Instructors
+ * interested in reusing these course materials should contact the
+ * author.
+ */
+
+package campuspaths.utils;
+
+import spark.Request;
+import spark.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A JSON response body that has already been encoded to UTF-8, together with a strong ETag
+ * derived from its bytes. Encoding once and keeping the bytes lets identical responses be
+ * sent again without running Gson, and the ETag lets clients that already hold the body
+ * revalidate it with a 304 Not Modified instead of downloading it again.
+ */
+public final class JsonBody {
+
+    private final byte[] bytes;
+    private final String etag;
+
+    /**
+     * Encodes json as UTF-8 and computes its ETag.
+     *
+     * @param json The JSON text of the body.
+     */
+    public JsonBody(String json) {
+        this.bytes = json.getBytes(StandardCharsets.UTF_8);
+        this.etag = etagOf(bytes);
+    }
+
+    /**
+     * @return The strong ETag of this body, including its surrounding quotes.
+     */
+    public String etag() {
+        return etag;
+    }
+
+    /**
+     * @return The number of bytes in this body.
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Writes this body's encoded bytes to out, for responses that combine several bodies.
+     *
+     * @param out The stream to write to.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    /**
+     * Answers a request with this body. If the request's If-None-Match header already names
+     * this body's ETag, the response is a 304 Not Modified with no body instead.
+     *
+     * @param request  The request being answered.
+     * @param response The response to fill in.
+     * @return The value for the Spark route to return: the encoded body, or an empty body for
+     * a 304.
+     */
+    public Object send(Request request, Response response) {
+        response.header("ETag", etag);
+        if (matches(request.headers("If-None-Match"))) {
+            response.status(304);
+            return "";
+        }
+        response.type("application/json; charset=utf-8");
+        return bytes;
+    }
+
+    /**
+     * @return {@literal true} iff header lists this body's ETag or is "*". Like every
+     * If-None-Match comparison, this ignores the weak "W/" prefix.
+     */
+    private boolean matches(String header) {
+        if (header == null) {
+            return false;
+        }
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String etagOf(byte[] bytes) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        // The first 128 bits are plenty to tell bodies apart.
+        for (int i = 0; i < 16; i++) {
+            sb.append(String.format("%02x", digest[i]));
+        }
+        return sb.append('"').toString();
+    }
+}
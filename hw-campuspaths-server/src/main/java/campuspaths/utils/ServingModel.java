@@ -0,0 +1,182 @@
+package campuspaths.utils;
+
+import com.google.gson.Gson;
+import graph.GraphSnapshot;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A campus map together with the responses encoded from it. A reload replaces the whole
+ * model at once, so the building list and the cached routes a request sees always come
+ * from the same map.
+ */
+public final class ServingModel {
+
+    // AF(this) = the map requests are answered from => map
+    //            its building names, encoded => buildingsBody
+    //            the encoded routes between recently requested pairs of buildings
+    //                => pathBodies
+    //
+    // RI: map != null && buildingsBody != null && pathBodies != null, and pathBodies only
+    //     holds bodies of routes that exist. A pair with no route is never cached, so that
+    //     /findPath always finds out it has none and answers 404.
+
+    /**
+     * Gson instances are thread-safe, so every model shares this one.
+     */
+    private static final Gson GSON = new Gson();
+
+    /**
+     * The JSON for a pair with no route.
+     */
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final CampusMap map;
+
+    /**
+     * The building list never changes for a given map, so it is encoded only once.
+     */
+    private final JsonBody buildingsBody;
+
+    private final RouteCache<JsonBody> pathBodies;
+
+    /**
+     * Makes a model for answering requests from a map.
+     *
+     * @param map                   The map to answer from.
+     * @param responseCacheCapacity The most encoded routes to keep between requests.
+     * @throws IllegalArgumentException if responseCacheCapacity is not positive.
+     * @spec.requires map != null
+     */
+    public ServingModel(CampusMap map, int responseCacheCapacity) {
+        this.map = map;
+        this.buildingsBody = new JsonBody(GSON.toJson(map.buildingNames()));
+        this.pathBodies = new RouteCache<>(responseCacheCapacity);
+        checkRep();
+    }
+
+    /**
+     * @return The map requests are answered from.
+     */
+    public CampusMap map() {
+        return map;
+    }
+
+    /**
+     * @return The building names of the map, from short to long, as a JSON object.
+     */
+    public JsonBody buildingsBody() {
+        return buildingsBody;
+    }
+
+    /**
+     * Finds the encoded shortest route between two buildings, reusing the one encoded for an
+     * earlier request if the route is still cached.
+     *
+     * @param start The short name of the building to start at.
+     * @param end   The short name of the building to end at.
+     * @return The shortest route from start to end as a JSON Path, or null if there is none.
+     * @spec.requires start and end are short names of buildings of the map
+     */
+    public JsonBody pathBody(String start, String end) {
+        JsonBody body = pathBodies.get(start, end);
+        if (body == null) {
+            GraphSnapshot<Point> version = map.currentGraph();
+            Path<Point> path = map.findShortestPath(start, end);
+            if (path == null) {
+                // Not cached: the map rules out most such pairs without searching.
+                return null;
+            }
+            body = new JsonBody(GSON.toJson(path));
+            cache(version, start, end, path, body);
+        }
+        return body;
+    }
+
+    /**
+     * Writes the shortest routes between each of the pairs of buildings, in order, as a JSON
+     * array of Paths, with null for pairs that have no route. Routes already encoded for
+     * earlier requests are reused, and the rest are cached for later ones.
+     *
+     * @param pairs The (start, end) short names of the buildings of each route.
+     * @param out   The stream to write the array to.
+     * @throws IOException if writing fails.
+     * @spec.requires every name in pairs is a short name of a building of the map
+     */
+    public void writePaths(List<Map.Entry<String, String>> pairs, OutputStream out)
+            throws IOException {
+        Iterator<Map.Entry<String, String>> order = pairs.iterator();
+        out.write('[');
+        GraphSnapshot<Point> version = map.currentGraph();
+        try {
+            map.findShortestPaths(pairs, path -> {
+                Map.Entry<String, String> pair = order.next();
+                try {
+                    if (path == null) {
+                        out.write(NULL);
+                    } else {
+                        JsonBody body = pathBodies.get(pair.getKey(), pair.getValue());
+                        if (body == null) {
+                            body = new JsonBody(GSON.toJson(path));
+                            cache(version, pair.getKey(), pair.getValue(), path, body);
+                        }
+                        body.writeTo(out);
+                    }
+                    if (order.hasNext()) {
+                        out.write(',');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.write(']');
+    }
+
+    /**
+     * Drops the encoded routes that walk an edge changed since an earlier version of the
+     * map's graph.
+     *
+     * @param version The version the changes were made in.
+     * @return The number of routes dropped.
+     * @spec.requires version is a version of the map's graph
+     */
+    public int invalidate(GraphSnapshot<Point> version) {
+        return pathBodies.invalidate(version);
+    }
+
+    /**
+     * @return The size and counters of the cache of encoded routes.
+     */
+    public RouteCache.Stats responseCacheStats() {
+        return pathBodies.stats();
+    }
+
+    /**
+     * Caches the encoded response for a route under the edges it walks, so that closing one of
+     * them drops it. If the campus graph was edited after version, the route may have been
+     * found on the old graph after the responses were invalidated, so it is dropped again.
+     */
+    private void cache(GraphSnapshot<Point> version, String start, String end, Path<Point> path,
+                       JsonBody body) {
+        pathBodies.put(start, end, body, RouteCache.edgesOf(path));
+        if (map.currentGraph() != version) {
+            pathBodies.remove(start, end);
+        }
+    }
+
+    private void checkRep() {
+        assert map != null && buildingsBody != null && pathBodies != null;
+    }
+}
@@ -0,0 +1,237 @@
+package campuspaths.utils;
+
+import graph.GraphSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * What the server answers requests from: the current ServingModel, which a reload of the
+ * campus data replaces as a whole, and every walkway closed so far, which each reloaded map
+ * gets too. A closure made while a reload runs is applied to the reloaded map as well as the
+ * current one, so no closure is lost, whatever the order the two finish in.
+ */
+public final class ServingState {
+
+    // AF(this) = the model requests are answered from => serving.get()
+    //            the walkways closed so far, in the order they were closed => activeClosures
+    //
+    // RI: serving.get() != null && activeClosures != null && responseCacheCapacity > 0 &&
+    //     no element of activeClosures is null, and each of them is closed, in both
+    //     directions, on serving.get().map()
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServingState.class);
+
+    private final int responseCacheCapacity;
+
+    /**
+     * Every request reads the model once, so a reload never fails or mixes up a request that
+     * is already running: it finishes on the model it started with.
+     */
+    private final AtomicReference<ServingModel> serving;
+
+    /**
+     * Holding the lock of this list while changing or swapping the model keeps a closure from
+     * landing on a model that a reload has already replaced.
+     */
+    private final List<Closure> activeClosures = new ArrayList<>();
+
+    /**
+     * Starts serving a map, with no walkways closed.
+     *
+     * @param map                   The map to answer requests from.
+     * @param responseCacheCapacity The most encoded routes each model keeps between requests.
+     * @throws IllegalArgumentException if responseCacheCapacity is not positive.
+     * @spec.requires map != null
+     */
+    public ServingState(CampusMap map, int responseCacheCapacity) {
+        this.responseCacheCapacity = responseCacheCapacity;
+        this.serving = new AtomicReference<>(new ServingModel(map, responseCacheCapacity));
+        checkRep();
+    }
+
+    /**
+     * @return The model to answer the next request from.
+     */
+    public ServingModel current() {
+        return serving.get();
+    }
+
+    /**
+     * Closes walkways of the current map, in both directions, and keeps them closed on every
+     * map reloaded later. Only the cached routes and responses that walk a closed segment are
+     * dropped.
+     *
+     * @param segments The walkways to close.
+     * @return The new version of the current map's graph and the number of edges closed.
+     * @throws IllegalArgumentException if a segment is null or is not an edge of the current
+     *                                  map in either direction. No walkway is closed then.
+     * @spec.requires segments != null
+     * @spec.modifies this
+     * @spec.effects every segment is closed on the current map and on later reloaded ones
+     */
+    public ClosureResult close(List<Closure> segments) {
+        int[] closed = new int[1];
+        ServingModel model;
+        GraphSnapshot<Point> version;
+        synchronized (activeClosures) {
+            model = serving.get();
+            GraphSnapshot<Point> before = model.map().currentGraph();
+            for (Closure closure : segments) {
+                if (closure == null || (!before.isEdge(closure.from(), closure.to())
+                        && !before.isEdge(closure.to(), closure.from()))) {
+                    throw new IllegalArgumentException("Every closure must be a segment of the "
+                            + "map.");
+                }
+            }
+            version = close(model.map(), segments, closed);
+            activeClosures.addAll(segments);
+        }
+        int dropped = model.invalidate(version);
+        LOGGER.info("Closed " + closed[0] + " edges; graph is now version " + version.version()
+                + ", dropped " + dropped + " responses.");
+        return new ClosureResult(version.version(), closed[0]);
+    }
+
+    /**
+     * Loads a new map, closes every walkway closed so far on it, and swaps it in. Requests
+     * keep being served by the current map while the new one is loaded. If it cannot be
+     * loaded, for example because a data file is only half written, the failure is logged
+     * and the current map is kept.
+     *
+     * @param source Names where the map is loaded from, for the log.
+     * @param loader Loads the new map.
+     * @return true iff the new map was swapped in.
+     * @spec.requires source != null && loader != null
+     * @spec.modifies this
+     * @spec.effects the current model answers from the loaded map, with every walkway closed
+     * so far closed on it, unless loading it failed
+     */
+    public boolean reload(String source, Supplier<CampusMap> loader) {
+        long start = System.nanoTime();
+        CampusMap map;
+        int[] closed = new int[1];
+        int reapplied;
+        try {
+            map = loader.get();
+            // Apply the closures made so far without holding the lock, since each application
+            // repairs the route table; only those made meanwhile are applied under it.
+            List<Closure> earlier;
+            synchronized (activeClosures) {
+                earlier = new ArrayList<>(activeClosures);
+            }
+            close(map, earlier, closed);
+            synchronized (activeClosures) {
+                close(map, activeClosures.subList(earlier.size(), activeClosures.size()),
+                        closed);
+                reapplied = activeClosures.size();
+                serving.set(new ServingModel(map, responseCacheCapacity));
+                checkRep();
+            }
+        } catch (CampusPathsParser.ParserException e) {
+            LOGGER.warn("Kept the current campus map: reloading " + source + " failed: "
+                    + e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            LOGGER.error("Kept the current campus map: reloading " + source + " failed.", e);
+            return false;
+        }
+        LOGGER.info(String.format("Reloaded campus map from %s in %.1f ms, reapplying %d "
+                        + "closures that closed %d edges. %s", source,
+                (System.nanoTime() - start) / 1e6, reapplied, closed[0], map.loadSummary()));
+        return true;
+    }
+
+    /**
+     * Closes each segment of a map in both directions, in one update of its graph.
+     *
+     * @param closed Incremented by the number of edges removed.
+     * @return The new version of the map's graph, or the current one if segments is empty.
+     */
+    private static GraphSnapshot<Point> close(CampusMap map, List<Closure> segments,
+                                              int[] closed) {
+        if (segments.isEmpty()) {
+            return map.currentGraph();
+        }
+        return map.updateGraph(editor -> {
+            for (Closure closure : segments) {
+                closed[0] += editor.removeEdges(closure.from(), closure.to());
+                closed[0] += editor.removeEdges(closure.to(), closure.from());
+            }
+        });
+    }
+
+    private void checkRep() {
+        assert serving.get() != null && responseCacheCapacity > 0;
+        assert !activeClosures.contains(null);
+    }
+
+    /**
+     * A walkway to close: the segment between two points of the campus graph. This is also
+     * one element of a /closures request body.
+     */
+    public static final class Closure {
+        private double x1;
+        private double y1;
+        private double x2;
+        private double y2;
+
+        /**
+         * Creates the segment between (x1, y1) and (x2, y2).
+         */
+        public Closure(double x1, double y1, double x2, double y2) {
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+        }
+
+        /**
+         * @return One end of the segment.
+         */
+        public Point from() {
+            return new Point(x1, y1);
+        }
+
+        /**
+         * @return The other end of the segment.
+         */
+        public Point to() {
+            return new Point(x2, y2);
+        }
+    }
+
+    /**
+     * What closing walkways did, in the form /closures returns it.
+     */
+    public static final class ClosureResult {
+        private final long version;
+        private final int closedEdges;
+
+        private ClosureResult(long version, int closedEdges) {
+            this.version = version;
+            this.closedEdges = closedEdges;
+        }
+
+        /**
+         * @return The version of the map's graph after the closures.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * @return The number of edges the closures removed, counting each direction.
+         */
+        public int getClosedEdges() {
+            return closedEdges;
+        }
+    }
+}
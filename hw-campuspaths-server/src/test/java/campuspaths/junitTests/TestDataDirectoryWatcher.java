@@ -0,0 +1,189 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.DataDirectoryWatcher;
+import campuspaths.utils.ServingModel;
+import campuspaths.utils.ServingState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RoutingEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that a DataDirectoryWatcher runs its task once per burst of changes, after the files
+ * go quiet, never twice at once, and keeps watching after the task fails.
+ */
+public class TestDataDirectoryWatcher {
+
+    private static final long QUIET_MILLIS = 200;
+
+    /**
+     * How long to wait for a task to run before failing. File change notification can take
+     * a while on some platforms, so this is generous.
+     */
+    private static final long TIMEOUT_MILLIS = 15000;
+
+    private Path directory;
+    private DataDirectoryWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("watched_data");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private void write(String name, String contents) throws IOException {
+        Files.write(directory.resolve(name), contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Waits until count reaches at least expected, failing after TIMEOUT_MILLIS.
+     */
+    private static void awaitAtLeast(AtomicInteger count, int expected)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (count.get() < expected) {
+            assertTrue("Timed out waiting for " + expected + " runs, saw " + count.get(),
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void testBurstRunsOnceAfterQuietPeriod() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        List<Long> runTimes = new ArrayList<>();
+        watcher = new DataDirectoryWatcher(directory, Set.of("a.csv"), QUIET_MILLIS, () -> {
+            synchronized (runTimes) {
+                runTimes.add(System.nanoTime());
+            }
+            runs.incrementAndGet();
+        });
+        long lastWrite = 0;
+        for (int i = 0; i < 5; i++) {
+            // Read the clock first: the watcher may see the change before write returns.
+            lastWrite = System.nanoTime();
+            write("a.csv", "version " + i);
+            Thread.sleep(QUIET_MILLIS / 4);
+        }
+        awaitAtLeast(runs, 1);
+        Thread.sleep(3 * QUIET_MILLIS);
+        assertEquals(1, runs.get());
+        synchronized (runTimes) {
+            assertTrue((runTimes.get(0) - lastWrite) / 1000000 >= QUIET_MILLIS);
+        }
+    }
+
+    @Test
+    public void testIgnoresOtherFiles() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        watcher = new DataDirectoryWatcher(directory, Set.of("a.csv"), QUIET_MILLIS,
+                runs::incrementAndGet);
+        write("other.txt", "x");
+        Thread.sleep(5 * QUIET_MILLIS);
+        assertEquals(0, runs.get());
+        write("a.csv", "x");
+        awaitAtLeast(runs, 1);
+    }
+
+    @Test
+    public void testRunsNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        watcher = new DataDirectoryWatcher(directory, Set.of("a.csv"), QUIET_MILLIS, () -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(4 * QUIET_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            runs.incrementAndGet();
+        });
+        write("a.csv", "first");
+        // Change the file again while the first run is still going.
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (running.get() == 0 && runs.get() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        write("a.csv", "second");
+        awaitAtLeast(runs, 2);
+        assertEquals(1, mostRunning.get());
+    }
+
+    @Test
+    public void testKeepsWatchingAfterFailure() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        watcher = new DataDirectoryWatcher(directory, Set.of("a.csv"), QUIET_MILLIS, () -> {
+            if (runs.incrementAndGet() == 1) {
+                throw new NullPointerException("a bug in the task");
+            }
+        });
+        write("a.csv", "first");
+        awaitAtLeast(runs, 1);
+        write("a.csv", "second");
+        awaitAtLeast(runs, 2);
+    }
+
+    @Test
+    public void testBadFileKeepsCurrentMap() throws Exception {
+        for (String name : List.of(CampusMap.BUILDINGS_FILE, CampusMap.PATHS_FILE)) {
+            try (InputStream in = CampusMap.class.getResourceAsStream("/data/" + name)) {
+                Files.copy(in, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path buildingsFile = directory.resolve(CampusMap.BUILDINGS_FILE);
+        Path pathsFile = directory.resolve(CampusMap.PATHS_FILE);
+        ServingState state = new ServingState(
+                new CampusMap(RoutingEngine.ASTAR, 0, buildingsFile, pathsFile), 16);
+        ServingModel original = state.current();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        watcher = new DataDirectoryWatcher(directory,
+                Set.of(CampusMap.BUILDINGS_FILE, CampusMap.PATHS_FILE), QUIET_MILLIS, () -> {
+                    if (!state.reload(directory.toString(), () -> new CampusMap(
+                            RoutingEngine.ASTAR, 0, buildingsFile, pathsFile))) {
+                        failures.incrementAndGet();
+                    }
+                    attempts.incrementAndGet();
+                });
+        List<String> lines = Files.readAllLines(buildingsFile);
+        write(CampusMap.BUILDINGS_FILE, "BAD,only two fields\n");
+        awaitAtLeast(attempts, 1);
+        assertEquals(1, failures.get());
+        assertSame(original, state.current());
+
+        lines.add("NEW,New Building,1.0,2.0");
+        Files.write(buildingsFile, lines, StandardCharsets.UTF_8);
+        awaitAtLeast(attempts, 2);
+        assertEquals(1, failures.get());
+        assertTrue(state.current().map().shortNameExists("NEW"));
+    }
+}
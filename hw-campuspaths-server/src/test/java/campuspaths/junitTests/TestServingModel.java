@@ -0,0 +1,102 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.JsonBody;
+import campuspaths.utils.ServingModel;
+import graph.GraphSnapshot;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the responses the server encodes for /findPath and /findPaths, and which of them it
+ * keeps for later requests.
+ */
+public class TestServingModel {
+
+    private CampusMap map;
+    private String start;
+    private String end;
+
+    @Before
+    public void setUp() {
+        map = new CampusMap(RoutingEngine.ROUTE_TABLE, 16);
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+        start = buildings.get(0);
+        end = buildings.get(buildings.size() - 1);
+    }
+
+    /**
+     * Cuts every edge into and out of the entrance of the start building, so that no route
+     * leads to or from it.
+     */
+    private void isolateStart() {
+        Point entrance = map.findShortestPath(start, end).getStart();
+        GraphSnapshot<Point> old = map.currentGraph();
+        List<Point> neighbors = new ArrayList<>();
+        old.forEachEdge(entrance, (child, weight) -> neighbors.add(child));
+        old.forEachIncomingEdge(entrance, (parent, weight) -> neighbors.add(parent));
+        map.updateGraph(editor -> {
+            for (Point neighbor : neighbors) {
+                editor.removeEdges(entrance, neighbor);
+                editor.removeEdges(neighbor, entrance);
+            }
+        });
+    }
+
+    private static String writePaths(ServingModel model, List<Map.Entry<String, String>> pairs)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.writePaths(pairs, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPathBodyIsCached() {
+        ServingModel model = new ServingModel(map, 16);
+        JsonBody body = model.pathBody(start, end);
+        assertNotNull(body);
+        assertSame(body, model.pathBody(start, end));
+        assertEquals(1, model.responseCacheStats().getSize());
+    }
+
+    @Test
+    public void testBatchReusesCachedBodies() throws IOException {
+        ServingModel model = new ServingModel(map, 16);
+        String batch = writePaths(model, List.of(Map.entry(start, end), Map.entry(end, start)));
+        JsonBody body = model.pathBody(start, end);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        body.writeTo(encoded);
+        assertTrue(batch.startsWith("[" + encoded.toString(StandardCharsets.UTF_8) + ","));
+        assertTrue(batch.endsWith("]"));
+        assertEquals(2, model.responseCacheStats().getSize());
+    }
+
+    /**
+     * A batch writes null for a pair with no route, but must not keep that null for /findPath,
+     * which answers such pairs with a 404 when pathBody finds no route.
+     */
+    @Test
+    public void testUnreachablePairAfterBatchHasNoBody() throws IOException {
+        isolateStart();
+        ServingModel model = new ServingModel(map, 16);
+        assertEquals("[null,null]",
+                writePaths(model, List.of(Map.entry(start, end), Map.entry(end, start))));
+        assertEquals(0, model.responseCacheStats().getSize());
+        assertNull(model.pathBody(start, end));
+        assertNull(model.pathBody(end, start));
+        assertNotNull(model.pathBody(start, start));
+    }
+}
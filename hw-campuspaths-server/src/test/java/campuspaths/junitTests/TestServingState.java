@@ -0,0 +1,174 @@
+package campuspaths.junitTests;
+
+import campuspaths.utils.ServingModel;
+import campuspaths.utils.ServingState;
+import campuspaths.utils.ServingState.Closure;
+import graph.GraphSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that walkway closures survive reloads of the campus map, including closures made
+ * while a reload runs, and that a reload that fails keeps the current map.
+ */
+public class TestServingState {
+
+    private java.nio.file.Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("serving_data");
+        for (String name : List.of(CampusMap.BUILDINGS_FILE, CampusMap.PATHS_FILE)) {
+            try (InputStream in = CampusMap.class.getResourceAsStream("/data/" + name)) {
+                Files.copy(in, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (String name : List.of(CampusMap.BUILDINGS_FILE, CampusMap.PATHS_FILE)) {
+            Files.deleteIfExists(directory.resolve(name));
+        }
+        Files.delete(directory);
+    }
+
+    private CampusMap load() {
+        return new CampusMap(RoutingEngine.ROUTE_TABLE, 16,
+                directory.resolve(CampusMap.BUILDINGS_FILE),
+                directory.resolve(CampusMap.PATHS_FILE));
+    }
+
+    /**
+     * @return The segments of the shortest route between the first and last buildings, as
+     * closures.
+     */
+    private static List<Closure> segmentsOfRoute(CampusMap map) {
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+        Path<Point> route = map.findShortestPath(buildings.get(0),
+                buildings.get(buildings.size() - 1));
+        List<Closure> segments = new ArrayList<>();
+        for (Path<Point>.Segment segment : route) {
+            segments.add(new Closure(segment.getStart().getX(), segment.getStart().getY(),
+                    segment.getEnd().getX(), segment.getEnd().getY()));
+        }
+        return segments;
+    }
+
+    private static void assertClosed(ServingModel model, Closure closure) {
+        GraphSnapshot<Point> graph = model.map().currentGraph();
+        assertFalse(graph.isEdge(closure.from(), closure.to()));
+        assertFalse(graph.isEdge(closure.to(), closure.from()));
+    }
+
+    @Test
+    public void testCloseRemovesBothDirections() {
+        ServingState state = new ServingState(load(), 16);
+        Closure closure = segmentsOfRoute(state.current().map()).get(0);
+        ServingState.ClosureResult result = state.close(List.of(closure));
+        assertEquals(2, result.getClosedEdges());
+        assertEquals(state.current().map().currentGraph().version(), result.getVersion());
+        assertClosed(state.current(), closure);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCloseRejectsNonSegment() {
+        ServingState state = new ServingState(load(), 16);
+        state.close(List.of(new Closure(-1, -1, -2, -2)));
+    }
+
+    @Test
+    public void testClosuresSurviveReload() {
+        ServingState state = new ServingState(load(), 16);
+        List<Closure> segments = segmentsOfRoute(state.current().map());
+        state.close(segments.subList(0, 1));
+        state.close(segments.subList(1, 2));
+        ServingModel before = state.current();
+
+        assertTrue(state.reload("test", this::load));
+        assertNotSame(before, state.current());
+        assertClosed(state.current(), segments.get(0));
+        assertClosed(state.current(), segments.get(1));
+        assertTrue(state.current().map().currentGraph().isEdge(segments.get(2).from(),
+                segments.get(2).to()));
+    }
+
+    @Test
+    public void testBadFileKeepsCurrentModel() throws IOException {
+        ServingState state = new ServingState(load(), 16);
+        Closure closure = segmentsOfRoute(state.current().map()).get(0);
+        state.close(List.of(closure));
+        ServingModel before = state.current();
+        Files.write(directory.resolve(CampusMap.BUILDINGS_FILE),
+                "BAD,only two fields\n".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(state.reload("test", this::load));
+        assertSame(before, state.current());
+        assertFalse(state.reload("test", () -> {
+            throw new IllegalStateException("a bug in the loader");
+        }));
+        assertSame(before, state.current());
+        assertClosed(state.current(), closure);
+    }
+
+    /**
+     * Closes walkways while a reload is loading its map and while it applies the earlier
+     * closures, and checks that the reloaded map has every one of them closed.
+     */
+    @Test
+    public void testClosuresDuringReloadAreKept() throws Exception {
+        ServingState state = new ServingState(load(), 16);
+        List<Closure> segments = segmentsOfRoute(state.current().map());
+        assertTrue(segments.size() >= 3);
+        state.close(segments.subList(0, 1));
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        Supplier<CampusMap> loader = () -> {
+            loading.countDown();
+            try {
+                loaded.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return load();
+        };
+        AtomicBoolean swapped = new AtomicBoolean();
+        Thread reload = new Thread(() -> swapped.set(state.reload("test", loader)));
+        reload.start();
+        loading.await();
+        // The reload has started but not yet loaded its map.
+        state.close(segments.subList(1, 2));
+        loaded.countDown();
+        // These race with the reload applying the closures made so far and swapping.
+        for (Closure closure : segments.subList(2, segments.size())) {
+            state.close(List.of(closure));
+        }
+        reload.join();
+
+        assertTrue(swapped.get());
+        for (Closure closure : segments) {
+            assertClosed(state.current(), closure);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Records which component of a CsrGraph every node belongs to, so that many pairs of nodes
+ * with no path between them can be told apart in constant time, without searching. Each node
+ * is labeled with its strongly connected component, numbered so that an edge between two
+ * different components always goes from the higher number to the lower one, and with its
+ * weakly connected component, the nodes it is joined to ignoring edge directions.
+ *
+ * <p>If every edge has a reverse edge, the two kinds of components are the same and
+ * mayReach is exact.
+ *
+ * @param <N> The type of the nodes.
+ */
+public final class ComponentIndex<N> {
+
+    // AF(this) = the graph the components are of => graph
+    //            the strongly connected component of the node with id i => strong[i]
+    //            the weakly connected component of the node with id i => weak[i]
+    //
+    // RI: graph != null && strong.length == weak.length == graph.size(),
+    //     every value in strong is in [0, strongCount), every value in weak is in
+    //     [0, weakCount), nodes with the same strong value have the same weak value,
+    //     for every edge (p, c) of graph, strong[p] >= strong[c] and weak[p] == weak[c]
+
+    private final CsrGraph<N> graph;
+    private final int[] strong;
+    private final int[] weak;
+    private final int strongCount;
+    private final int weakCount;
+
+    /**
+     * Finds the components of a graph, in time linear in its nodes and edges.
+     *
+     * @param graph The graph to index.
+     * @spec.requires graph != null
+     */
+    public ComponentIndex(CsrGraph<N> graph) {
+        this.graph = graph;
+        this.strong = new int[graph.size()];
+        this.weak = new int[graph.size()];
+        this.strongCount = labelStrong(graph, strong);
+        this.weakCount = labelWeak(graph, weak);
+        checkRep();
+    }
+
+    /**
+     * @return The graph this index was built for.
+     */
+    public CsrGraph<N> graph() {
+        return graph;
+    }
+
+    /**
+     * @return The number of strongly connected components of the graph.
+     */
+    public int strongComponentCount() {
+        return strongCount;
+    }
+
+    /**
+     * @return The number of weakly connected components of the graph.
+     */
+    public int weakComponentCount() {
+        return weakCount;
+    }
+
+    /**
+     * @param id A node id in [0, graph().size()).
+     * @return The strongly connected component of that node, in [0, strongComponentCount()).
+     */
+    public int strongComponent(int id) {
+        return strong[id];
+    }
+
+    /**
+     * @param id A node id in [0, graph().size()).
+     * @return The weakly connected component of that node, in [0, weakComponentCount()).
+     */
+    public int weakComponent(int id) {
+        return weak[id];
+    }
+
+    /**
+     * Tells whether there may be a path from one node to another, in constant time.
+     *
+     * @param from The id of the node the path would start at.
+     * @param to   The id of the node the path would end at.
+     * @return false if there is certainly no path from from to to. true if there is one, or
+     * if from and to are in different strongly connected components that the index cannot
+     * tell apart without searching; never the latter if every edge has a reverse edge.
+     * @spec.requires from and to are in [0, graph().size())
+     */
+    public boolean mayReach(int from, int to) {
+        return weak[from] == weak[to] && strong[from] >= strong[to];
+    }
+
+    /**
+     * Tells whether there may be a path from one node to another, in constant time.
+     *
+     * @param from The node the path would start at.
+     * @param to   The node the path would end at.
+     * @return false if there is certainly no path from from to to, which includes either
+     * node not being in the graph, unless they are equal. true otherwise, as for
+     * mayReach(int, int).
+     * @spec.requires from != null and to != null
+     */
+    public boolean mayReach(N from, N to) {
+        if (from.equals(to)) {
+            return true;
+        }
+        int fromId = graph.idOf(from);
+        int toId = graph.idOf(to);
+        return fromId != -1 && toId != -1 && mayReach(fromId, toId);
+    }
+
+    /**
+     * Labels the strongly connected components with Tarjan's algorithm, run with an explicit
+     * stack so that long paths cannot overflow the thread's stack. A component is only
+     * labeled once every component it reaches has been, which gives the numbering its order.
+     *
+     * @return The number of components.
+     */
+    private static int labelStrong(CsrGraph<?> graph, int[] component) {
+        int n = graph.size();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int stackSize = 0;
+        // The depth-first search's own stack: a node and how many of its edges are explored.
+        int[] frames = new int[n];
+        int[] explored = new int[n];
+        int counter = 0;
+        int count = 0;
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            frames[depth] = root;
+            explored[depth] = 0;
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int u = frames[depth];
+                if (explored[depth] < graph.outDegree(u)) {
+                    int w = graph.child(u, explored[depth]++);
+                    if (index[w] == -1) {
+                        depth++;
+                        frames[depth] = w;
+                        explored[depth] = 0;
+                        index[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                    } else if (onStack[w]) {
+                        low[u] = Math.min(low[u], index[w]);
+                    }
+                    continue;
+                }
+                if (low[u] == index[u]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        component[w] = count;
+                    } while (w != u);
+                    count++;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = frames[depth];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Labels the weakly connected components by a breadth-first search over both the
+     * outgoing and the incoming edges of each node.
+     *
+     * @return The number of components.
+     */
+    private static int labelWeak(CsrGraph<?> graph, int[] component) {
+        int n = graph.size();
+        Arrays.fill(component, -1);
+        int[] queue = new int[n];
+        int count = 0;
+        for (int root = 0; root < n; root++) {
+            if (component[root] != -1) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            component[root] = count;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int i = 0; i < graph.outDegree(u); i++) {
+                    int w = graph.child(u, i);
+                    if (component[w] == -1) {
+                        component[w] = count;
+                        queue[tail++] = w;
+                    }
+                }
+                for (int i = 0; i < graph.inDegree(u); i++) {
+                    int w = graph.parent(u, i);
+                    if (component[w] == -1) {
+                        component[w] = count;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private void checkRep() {
+        assert graph != null && strong.length == graph.size() && weak.length == graph.size();
+        for (int p = 0; p < graph.size(); p++) {
+            assert strong[p] >= 0 && strong[p] < strongCount;
+            assert weak[p] >= 0 && weak[p] < weakCount;
+            for (int i = 0; i < graph.outDegree(p); i++) {
+                int c = graph.child(p, i);
+                assert strong[p] >= strong[c] && weak[p] == weak[c];
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package graph;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a directed graph with primitive double edge weights that can be read and edited
+ * by many threads at once. Each node's outgoing edges, and separately its incoming edges, are
+ * an immutable array pair that is replaced as a whole on every edit. Readers just read the
+ * current arrays, so they never block and always see a node's edges as they were either
+ * before or after any one edit, never halfway through it. Writers replace a node's arrays
+ * inside ConcurrentHashMap#compute, which locks only the hash bin holding that node, so edits
+ * to different nodes rarely wait on each other.
+ *
+ * <p>An edit holds the lock on the parent's bin of the outgoing map while it changes the
+ * child's incoming edges, so edits to the same edge never interleave. Locks are always taken
+ * in that order, outgoing then incoming, so edits cannot deadlock. The incoming edges are
+ * changed first, so for a moment a reader may see an edge from one side but not the other.
+ * Searches that only follow edges in one direction are never affected by this.
+ *
+ * @param <N> The type of the nodes.
+ */
+public class ConcurrentWeightedGraph<N> implements WeightedDigraph<N> {
+
+    // AF(this) = the nodes of the graph => the keys of outgoing
+    //            the i-th edge leaving node p => (p, outgoing.get(p).others[i]) with weight
+    //                                           outgoing.get(p).weights[i]
+    //            incoming holds the same edges keyed by the node they point to
+    //
+    // RI: outgoing != null && incoming != null && edgeCount != null &&
+    //     once no edit is in progress: for every edge (p, c, w) leaving p in outgoing there
+    //     is an edge (p, c, w) entering c in incoming, both maps hold edgeCount edges, and
+    //     no value in incoming is empty
+
+    private final ConcurrentHashMap<N, EdgeArray> outgoing;
+    private final ConcurrentHashMap<N, EdgeArray> incoming;
+    private final AtomicInteger edgeCount;
+
+    /**
+     * Creates an empty graph.
+     */
+    public ConcurrentWeightedGraph() {
+        outgoing = new ConcurrentHashMap<>();
+        incoming = new ConcurrentHashMap<>();
+        edgeCount = new AtomicInteger();
+        checkRep();
+    }
+
+    /**
+     * Creates a concurrent copy of a weighted graph.
+     *
+     * @param g The graph to copy.
+     * @param <N> The type of the nodes in g.
+     * @return A new ConcurrentWeightedGraph with the same nodes and edges as g.
+     * @spec.requires g != null
+     */
+    public static <N> ConcurrentWeightedGraph<N> copyOf(WeightedDigraph<N> g) {
+        ConcurrentWeightedGraph<N> copy = new ConcurrentWeightedGraph<>();
+        for (N node : g.getNodes()) {
+            copy.addNode(node);
+        }
+        for (N node : g.getNodes()) {
+            g.forEachEdge(node, (child, weight) -> copy.addEdge(node, child, weight));
+        }
+        copy.checkRep();
+        return copy;
+    }
+
+    /**
+     * Adds a node to the graph if it is not already in it.
+     *
+     * @param node The node being added.
+     * @spec.requires node != null
+     * @spec.modifies this
+     * @spec.effects this += node
+     */
+    public void addNode(N node) {
+        outgoing.putIfAbsent(node, EdgeArray.EMPTY);
+    }
+
+    /**
+     * Adds an edge from parent to child, adding parent as a node if it is not one already.
+     *
+     * @param parent The node the edge leaves from.
+     * @param child  The node the edge points to.
+     * @param weight The weight of the edge.
+     * @spec.requires parent != null and child != null
+     * @spec.modifies this
+     * @spec.effects this += the edge from parent to child with the given weight
+     */
+    public void addEdge(N parent, N child, double weight) {
+        outgoing.compute(parent, (k, edges) -> {
+            incoming.compute(child, (c, entering) ->
+                    (entering == null ? EdgeArray.EMPTY : entering).with(parent, weight));
+            return (edges == null ? EdgeArray.EMPTY : edges).with(child, weight);
+        });
+        edgeCount.incrementAndGet();
+    }
+
+    /**
+     * Removes every edge from parent to child. Both nodes stay in the graph.
+     *
+     * @param parent The node the edges leave from.
+     * @param child  The node the edges point to.
+     * @return The number of edges removed.
+     * @spec.modifies this
+     * @spec.effects this -= every edge from parent to child
+     */
+    public int removeEdges(N parent, N child) {
+        int[] removed = new int[1];
+        outgoing.computeIfPresent(parent, (k, edges) -> {
+            EdgeArray remaining = edges.without(child);
+            removed[0] = edges.size() - remaining.size();
+            if (removed[0] > 0) {
+                incoming.computeIfPresent(child, (c, entering) -> {
+                    EdgeArray left = entering.without(parent);
+                    return left.size() == 0 ? null : left;
+                });
+            }
+            return remaining;
+        });
+        edgeCount.addAndGet(-removed[0]);
+        return removed[0];
+    }
+
+    @Override
+    public boolean containsNode(N node) {
+        return outgoing.containsKey(node);
+    }
+
+    /**
+     * @return A read-only view of the nodes of the graph. Iterating it never throws
+     * ConcurrentModificationException, and sees every node that was in the graph for the whole
+     * iteration.
+     */
+    @Override
+    public Set<N> getNodes() {
+        return Collections.unmodifiableSet(outgoing.keySet());
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount.get();
+    }
+
+    @Override
+    public int outDegree(N parent) {
+        EdgeArray edges = outgoing.get(parent);
+        return edges == null ? 0 : edges.size();
+    }
+
+    @Override
+    public int inDegree(N child) {
+        EdgeArray edges = incoming.get(child);
+        return edges == null ? 0 : edges.size();
+    }
+
+    @Override
+    public boolean isEdge(N parent, N child) {
+        EdgeArray edges = outgoing.get(parent);
+        return edges != null && edges.indexOf(child) != -1;
+    }
+
+    /**
+     * Visits every edge leaving the given node, as they were at one moment between the start
+     * and the end of this call.
+     */
+    @Override
+    public void forEachEdge(N parent, Graph.EdgeVisitor<? super N> visitor) {
+        EdgeArray edges = outgoing.get(parent);
+        if (edges != null) {
+            edges.forEach(visitor);
+        }
+    }
+
+    /**
+     * Visits every edge entering the given node, as they were at one moment between the start
+     * and the end of this call.
+     */
+    @Override
+    public void forEachIncomingEdge(N child, Graph.EdgeVisitor<? super N> visitor) {
+        EdgeArray edges = incoming.get(child);
+        if (edges != null) {
+            edges.forEach(visitor);
+        }
+    }
+
+    private void checkRep() {
+        assert outgoing != null && incoming != null && edgeCount != null;
+    }
+}
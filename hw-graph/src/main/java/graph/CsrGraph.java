@@ -0,0 +1,414 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents an immutable directed graph with double edge weights, stored in compressed sparse
+ * row (CSR) form. Every node has a dense int id in [0, size()), and the outgoing edges of a node
+ * are a contiguous run of two primitive arrays (targets and weights), so there are no per-edge
+ * objects and iterating a node's neighbors walks memory in order. The incoming edges of every
+ * node are stored the same way, for searches that run backwards from a destination. If every
+ * edge has exactly one reverse edge of the same weight, as in an undirected graph, a node's
+ * incoming edges are its outgoing edges reversed, so the graph is stored undirected: the
+ * incoming rows share the outgoing arrays, and each edge is stored once instead of twice.
+ *
+ * @param <N> The type of the nodes.
+ */
+public final class CsrGraph<N> {
+
+    // AF(this) = the node with id i => nodes[i]
+    //            the j-th edge leaving node i => targets[outOffsets[i] + j] with weight
+    //                                           weights[outOffsets[i] + j]
+    //            the j-th edge entering node i => sources[inOffsets[i] + j] with weight
+    //                                            inWeights[inOffsets[i] + j]
+    //
+    // RI: outOffsets.length == inOffsets.length == nodes.length + 1,
+    //     outOffsets[0] == inOffsets[0] == 0, both offset arrays are non-decreasing,
+    //     outOffsets[nodes.length] == inOffsets[nodes.length] == targets.length ==
+    //     weights.length == sources.length == inWeights.length,
+    //     every value in targets and sources is in [0, nodes.length),
+    //     ids.get(nodes[i]) == i for every i,
+    //     if undirected, inOffsets == outOffsets && sources == targets &&
+    //     inWeights == weights, and no node has two edges to the same node
+
+    private final Object[] nodes;
+    private final Map<N, Integer> ids;
+
+    private final int[] outOffsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    private final int[] inOffsets;
+    private final int[] sources;
+    private final double[] inWeights;
+
+    /**
+     * Whether the incoming rows are the outgoing rows; see isUndirected.
+     */
+    private final boolean undirected;
+
+    /**
+     * Creates a CSR copy of the given graph. Nodes that only appear as the child of an edge
+     * are included as well. Later changes to g are not reflected in this graph.
+     *
+     * @param g The graph to copy.
+     * @spec.requires g != null and no edge label in g is null
+     */
+    public CsrGraph(Graph<N, Double> g) {
+        this(new Object[0], g.getNodes(),
+                (node, visitor) -> g.forEachEdge(node, Double::doubleValue, visitor));
+    }
+
+    /**
+     * Creates a CSR copy of the given weighted graph. Nodes that only appear as the child of
+     * an edge are included as well. Later changes to g are not reflected in this graph.
+     *
+     * @param g The graph to copy.
+     * @spec.requires g != null
+     */
+    public CsrGraph(WeightedDigraph<N> g) {
+        this(new Object[0], g.getNodes(), g::forEachEdge);
+    }
+
+    /**
+     * Creates a CSR copy of a newer version of the graph previous was copied from. Every node
+     * of previous keeps its id, even if it no longer has any edges, and nodes that are new in
+     * g get the ids after them, so arrays indexed by the ids of previous stay valid for the
+     * same nodes.
+     *
+     * @param g        The graph to copy.
+     * @param previous A CSR copy of an earlier version of g.
+     * @spec.requires g != null and previous != null
+     */
+    public CsrGraph(WeightedDigraph<N> g, CsrGraph<N> previous) {
+        this(previous.nodes, g.getNodes(), g::forEachEdge);
+    }
+
+    /**
+     * Creates a CSR graph directly from its outgoing rows, as written out by a tool that
+     * saved another CsrGraph's nodes and outgoing edges. The incoming rows are derived from
+     * them. The arrays are not copied, so the caller must not change them afterwards.
+     *
+     * @param nodes      The node with each id, in order of id.
+     * @param outOffsets The edges leaving node i are at indices [outOffsets[i],
+     *                   outOffsets[i + 1]) of targets and weights.
+     * @param targets    The id of the node each edge points to.
+     * @param weights    The weight of each edge.
+     * @param <N>        The type of the nodes.
+     * @return A graph with the given nodes and edges.
+     * @throws IllegalArgumentException if a node is repeated, the offsets are not a
+     *                                  non-decreasing run from 0 to targets.length with one
+     *                                  more element than nodes, weights and targets differ in
+     *                                  length, or some target is not a node id.
+     * @spec.requires no argument is null and no node is null
+     */
+    public static <N> CsrGraph<N> fromArrays(List<N> nodes, int[] outOffsets, int[] targets,
+                                            double[] weights) {
+        int n = nodes.size();
+        if (outOffsets.length != n + 1 || outOffsets[0] != 0 || outOffsets[n] != targets.length
+                || weights.length != targets.length) {
+            throw new IllegalArgumentException("The rows do not match the nodes and edges.");
+        }
+        int[] edgeSources = new int[targets.length];
+        for (int id = 0; id < n; id++) {
+            if (outOffsets[id] > outOffsets[id + 1]) {
+                throw new IllegalArgumentException("Offsets must not decrease.");
+            }
+            Arrays.fill(edgeSources, outOffsets[id], outOffsets[id + 1], id);
+        }
+        for (int target : targets) {
+            if (target < 0 || target >= n) {
+                throw new IllegalArgumentException("Edge target " + target + " is not a node.");
+            }
+        }
+        Map<N, Integer> ids = new HashMap<>(n * 2);
+        for (int id = 0; id < n; id++) {
+            if (ids.putIfAbsent(nodes.get(id), id) != null) {
+                throw new IllegalArgumentException("Node " + nodes.get(id) + " is repeated.");
+            }
+        }
+        return new CsrGraph<>(nodes.toArray(), ids, outOffsets, targets, weights, edgeSources);
+    }
+
+    private CsrGraph(Object[] nodes, Map<N, Integer> ids, int[] outOffsets, int[] targets,
+                     double[] weights, int[] edgeSources) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.outOffsets = outOffsets;
+        this.targets = targets;
+        this.weights = weights;
+        undirected = isUndirected(outOffsets, targets, weights);
+        if (undirected) {
+            inOffsets = outOffsets;
+            sources = targets;
+            inWeights = weights;
+        } else {
+            inOffsets = new int[nodes.length + 1];
+            sources = new int[targets.length];
+            inWeights = new double[targets.length];
+            fill(targets, edgeSources, weights, inOffsets, sources, inWeights);
+        }
+        checkRep();
+    }
+
+    /**
+     * Lays out the edges of the given nodes, as listed by edgesOf, in CSR form. The nodes in
+     * firstIds get the first ids, in order.
+     */
+    @SuppressWarnings("unchecked")
+    private CsrGraph(Object[] firstIds, Set<N> parents,
+                     BiConsumer<N, Graph.EdgeVisitor<N>> edgesOf) {
+        ids = new HashMap<>();
+        List<N> order = new ArrayList<>();
+        for (Object node : firstIds) {
+            addId((N) node, order);
+        }
+        for (N node : parents) {
+            addId(node, order);
+        }
+        int[] edgeCount = new int[1];
+        for (N node : parents) {
+            edgesOf.accept(node, (child, weight) -> {
+                addId(child, order);
+                edgeCount[0]++;
+            });
+        }
+        nodes = order.toArray();
+        int n = nodes.length;
+
+        int[] edgeSources = new int[edgeCount[0]];
+        int[] edgeTargets = new int[edgeCount[0]];
+        double[] edgeWeights = new double[edgeCount[0]];
+        int[] e = new int[1];
+        for (N node : parents) {
+            int parent = ids.get(node);
+            edgesOf.accept(node, (child, weight) -> {
+                edgeSources[e[0]] = parent;
+                edgeTargets[e[0]] = ids.get(child);
+                edgeWeights[e[0]] = weight;
+                e[0]++;
+            });
+        }
+
+        outOffsets = new int[n + 1];
+        targets = new int[edgeCount[0]];
+        weights = new double[edgeCount[0]];
+        fill(edgeSources, edgeTargets, edgeWeights, outOffsets, targets, weights);
+
+        undirected = isUndirected(outOffsets, targets, weights);
+        if (undirected) {
+            inOffsets = outOffsets;
+            sources = targets;
+            inWeights = weights;
+        } else {
+            inOffsets = new int[n + 1];
+            sources = new int[edgeCount[0]];
+            inWeights = new double[edgeCount[0]];
+            fill(edgeTargets, edgeSources, edgeWeights, inOffsets, sources, inWeights);
+        }
+        checkRep();
+    }
+
+    private void addId(N node, List<N> order) {
+        if (!ids.containsKey(node)) {
+            ids.put(node, order.size());
+            order.add(node);
+        }
+    }
+
+    /**
+     * Lays out a list of edges (from[i] -> to[i] with weight w[i]) in CSR form, grouped by
+     * their from node. Edges keep their relative order within a group.
+     */
+    private static void fill(int[] from, int[] to, double[] w,
+                             int[] offsets, int[] rowTargets, double[] rowWeights) {
+        int n = offsets.length - 1;
+        for (int f : from) {
+            offsets[f + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < from.length; i++) {
+            int slot = next[from[i]]++;
+            rowTargets[slot] = to[i];
+            rowWeights[slot] = w[i];
+        }
+    }
+
+    /**
+     * @return The number of nodes in this graph.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * @return The number of edges in this graph.
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param node A node to look up.
+     * @return The id of node, or -1 if it is not in this graph.
+     */
+    public int idOf(N node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id A node id in [0, size()).
+     * @return The node with that id.
+     */
+    @SuppressWarnings("unchecked")
+    public N node(int id) {
+        return (N) nodes[id];
+    }
+
+    /**
+     * @param id A node id.
+     * @return The number of edges leaving that node.
+     */
+    public int outDegree(int id) {
+        return outOffsets[id + 1] - outOffsets[id];
+    }
+
+    /**
+     * @param id A node id.
+     * @param i  An index in [0, outDegree(id)).
+     * @return The id of the node the i-th edge leaving id points to.
+     */
+    public int child(int id, int i) {
+        return targets[outOffsets[id] + i];
+    }
+
+    /**
+     * @param id A node id.
+     * @param i  An index in [0, outDegree(id)).
+     * @return The weight of the i-th edge leaving id.
+     */
+    public double weight(int id, int i) {
+        return weights[outOffsets[id] + i];
+    }
+
+    /**
+     * @param id A node id.
+     * @return The number of edges entering that node.
+     */
+    public int inDegree(int id) {
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    /**
+     * @param id A node id.
+     * @param i  An index in [0, inDegree(id)).
+     * @return The id of the node the i-th edge entering id comes from.
+     */
+    public int parent(int id, int i) {
+        return sources[inOffsets[id] + i];
+    }
+
+    /**
+     * @param id A node id.
+     * @param i  An index in [0, inDegree(id)).
+     * @return The weight of the i-th edge entering id.
+     */
+    public double inWeight(int id, int i) {
+        return inWeights[inOffsets[id] + i];
+    }
+
+    /**
+     * @return {@literal true} iff for every edge a -> b with weight w this graph also has an
+     * edge b -> a with weight w, so any path can be walked backwards at the same cost.
+     */
+    public boolean isSymmetric() {
+        if (undirected) {
+            return true;
+        }
+        for (int id = 0; id < nodes.length; id++) {
+            for (int i = outOffsets[id]; i < outOffsets[id + 1]; i++) {
+                if (!hasEdge(outOffsets, targets, weights, targets[i], id, weights[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return {@literal true} iff this graph is stored undirected: it has no parallel edges
+     * and is symmetric, so the edges entering each node are exactly the reverses of the edges
+     * leaving it, and the incoming rows share the arrays of the outgoing rows.
+     */
+    public boolean isUndirected() {
+        return undirected;
+    }
+
+    /**
+     * @return The bytes of primitive arrays the undirected layout saves by not storing the
+     * incoming rows separately, or 0 if this graph is not stored undirected.
+     */
+    public long savedBytes() {
+        return undirected ? 4L * (nodes.length + 1) + 12L * targets.length : 0;
+    }
+
+    /**
+     * Tells whether outgoing rows with no parallel edges have a reverse edge of the same
+     * weight for every edge, which makes every node's incoming row equal to its outgoing row
+     * up to order.
+     */
+    private static boolean isUndirected(int[] offsets, int[] targets, double[] weights) {
+        int n = offsets.length - 1;
+        int[] lastParent = new int[n];
+        Arrays.fill(lastParent, -1);
+        for (int id = 0; id < n; id++) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                if (lastParent[targets[i]] == id) {
+                    return false;
+                }
+                lastParent[targets[i]] = id;
+            }
+        }
+        for (int id = 0; id < n; id++) {
+            for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+                if (!hasEdge(offsets, targets, weights, targets[i], id, weights[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasEdge(int[] offsets, int[] targets, double[] weights, int from,
+                                   int to, double weight) {
+        for (int i = offsets[from]; i < offsets[from + 1]; i++) {
+            if (targets[i] == to && Double.compare(weights[i], weight) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return An estimate, in bytes, of the memory used by this graph's primitive arrays
+     * (not counting the node objects or the node-to-id map).
+     */
+    public long arrayBytes() {
+        long ints = 2L * (nodes.length + 1) + 2L * targets.length;
+        long doubles = 2L * targets.length;
+        return 4 * ints + 8 * doubles - savedBytes();
+    }
+
+    private void checkRep() {
+        assert outOffsets.length == nodes.length + 1;
+        assert inOffsets.length == nodes.length + 1;
+        assert outOffsets[nodes.length] == targets.length;
+        assert inOffsets[nodes.length] == sources.length;
+        assert ids.size() == nodes.length;
+    }
+}
@@ -1,11 +1,13 @@
 package graph;
 
+import java.util.Objects;
+
 public class Edge<N, E> {
 
-    private N parent;
-    private N child;
+    private final N parent;
+    private final N child;
 
-    private E label;
+    private final E label;
 
     public Edge(N parent, N child, E label) {
         this.parent = parent;
@@ -13,6 +15,10 @@ public class Edge<N, E> {
         this.label = label;
     }
 
+    public N getParent() {
+        return this.parent;
+    }
+
     public N getChild() {
         return this.child;
     }
@@ -20,4 +26,30 @@ public class Edge<N, E> {
     public E getLabel() {
         return this.label;
     }
+
+    /**
+     * Two edges are equal iff they have equal parents, children and labels.
+     *
+     * @param obj The object to compare with this.
+     * @return true iff obj is an Edge with the same parent, child and label as this.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Edge)) {
+            return false;
+        }
+        Edge<?, ?> other = (Edge<?, ?>) obj;
+        return Objects.equals(parent, other.parent) && Objects.equals(child, other.child)
+                && Objects.equals(label, other.label);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(parent);
+        result = 31 * result + Objects.hashCode(child);
+        return 31 * result + Objects.hashCode(label);
+    }
 }
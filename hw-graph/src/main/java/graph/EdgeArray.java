@@ -0,0 +1,142 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * An immutable list of the edges on one side of a node: the node at the other end of each
+ * edge, and its weight. Edits return a new EdgeArray and leave this one unchanged, so an
+ * EdgeArray can be shared between graphs and read without locking.
+ */
+final class EdgeArray {
+
+    // AF(this) = the i-th edge => others[i] with weight weights[i]
+    //
+    // RI: others.length == weights.length, no element of others is null
+
+    /**
+     * The list with no edges.
+     */
+    static final EdgeArray EMPTY = new EdgeArray(new Object[0], new double[0]);
+
+    private final Object[] others;
+    private final double[] weights;
+
+    /**
+     * Creates a list of the given edges. The arrays are not copied, so the caller must not
+     * change them afterwards.
+     *
+     * @spec.requires others.length == weights.length and no element of others is null
+     */
+    EdgeArray(Object[] others, double[] weights) {
+        this.others = others;
+        this.weights = weights;
+    }
+
+    /**
+     * @return The number of edges in this list.
+     */
+    int size() {
+        return others.length;
+    }
+
+    /**
+     * @param other A node.
+     * @return The index of the first edge whose other end is other, or -1 if there is none.
+     */
+    int indexOf(Object other) {
+        for (int i = 0; i < others.length; i++) {
+            if (others[i].equals(other)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param other A node.
+     * @return The number of edges whose other end is other.
+     */
+    int countOf(Object other) {
+        int count = 0;
+        for (Object o : others) {
+            if (o.equals(other)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param other A node.
+     * @return The smallest weight of an edge whose other end is other, or +infinity if there
+     * is none.
+     */
+    double minWeightTo(Object other) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < others.length; i++) {
+            if (others[i].equals(other)) {
+                min = Math.min(min, weights[i]);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @return These edges plus one more.
+     */
+    EdgeArray with(Object other, double weight) {
+        Object[] newOthers = Arrays.copyOf(others, others.length + 1);
+        double[] newWeights = Arrays.copyOf(weights, weights.length + 1);
+        newOthers[others.length] = other;
+        newWeights[weights.length] = weight;
+        return new EdgeArray(newOthers, newWeights);
+    }
+
+    /**
+     * @return These edges except the ones whose other end is other, or this list if there are
+     * none.
+     */
+    EdgeArray without(Object other) {
+        int kept = 0;
+        Object[] newOthers = new Object[others.length];
+        double[] newWeights = new double[weights.length];
+        for (int i = 0; i < others.length; i++) {
+            if (!others[i].equals(other)) {
+                newOthers[kept] = others[i];
+                newWeights[kept] = weights[i];
+                kept++;
+            }
+        }
+        if (kept == others.length) {
+            return this;
+        }
+        return new EdgeArray(Arrays.copyOf(newOthers, kept), Arrays.copyOf(newWeights, kept));
+    }
+
+    /**
+     * @return These edges with the weight of every edge whose other end is other set to
+     * weight, or this list if there are none.
+     */
+    EdgeArray withWeight(Object other, double weight) {
+        double[] newWeights = null;
+        for (int i = 0; i < others.length; i++) {
+            if (others[i].equals(other)) {
+                if (newWeights == null) {
+                    newWeights = weights.clone();
+                }
+                newWeights[i] = weight;
+            }
+        }
+        return newWeights == null ? this : new EdgeArray(others, newWeights);
+    }
+
+    /**
+     * Visits every edge in order with its other end and weight.
+     */
+    @SuppressWarnings("unchecked")
+    <N> void forEach(Graph.EdgeVisitor<? super N> visitor) {
+        for (int i = 0; i < others.length; i++) {
+            visitor.visit((N) others[i], weights[i]);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package graph;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Represents a mutable collection of nodes and edges. Edges are the connections
@@ -8,16 +10,30 @@ import java.util.*;
  */
 public class Graph<N, E> {
 
-    // RI: nodes != null, nodes = nodes(nodeName1), nodes(nodeName2), ... , nodes(nodeNameN)
+    // RI: nodes != null, nodes = nodes(nodeName1), nodes(nodeName2), ... , nodes(nodeNameN),
+    //     every edge in adjacencyList.get(p) is also in incomingEdges.get(edge.getChild()) and
+    //     every edge in incomingEdges.get(c) is also in adjacencyList.get(edge.getParent()),
+    //     labels.get(p).get(c) holds exactly the labels of the edges from p to c in
+    //     adjacencyList.get(p), and no map or set in labels is empty
     // AF(this) = {nodes(nodeName1) + nodes(nodeName2) + ... + nodes(nodeNameN)}
 
     private Map<N, Set<Edge<N, E>>> adjacencyList;
 
+    // The same edges as adjacencyList, keyed by the node they point to instead of the node
+    // they leave from.
+    private Map<N, Set<Edge<N, E>>> incomingEdges;
+
+    // The labels of the edges from a parent to a child, keyed by parent and then by child, so
+    // that looking up the edges between two nodes does not scan either node's edges.
+    private Map<N, Map<N, Set<E>>> labels;
+
     /**
      * Creates an empty graph object.
      */
     public Graph() {
         adjacencyList = new HashMap<>();
+        incomingEdges = new HashMap<>();
+        labels = new HashMap<>();
         //checkRep();
     }
 
@@ -28,6 +44,8 @@ public class Graph<N, E> {
      */
     public Graph(List<N> nodes) {
         adjacencyList = new HashMap<>();
+        incomingEdges = new HashMap<>();
+        labels = new HashMap<>();
         for (N node : nodes) {
             addNode(node);
         }
@@ -64,10 +82,74 @@ public class Graph<N, E> {
         if (!containsNode(node1)) {
             addNode(node1);
         }
-        adjacencyList.get(node1).add(new Edge<>(node1, node2, label));
+        Edge<N, E> edge = new Edge<>(node1, node2, label);
+        if (!adjacencyList.get(node1).add(edge)) {
+            // Edges are compared by value, so this exact edge is already in the graph.
+            return;
+        }
+        incomingEdges.computeIfAbsent(node2, k -> new HashSet<>()).add(edge);
+        labels.computeIfAbsent(node1, k -> new HashMap<>())
+                .computeIfAbsent(node2, k -> new HashSet<>()).add(label);
         //checkRep();
     }
 
+    /**
+     * Removes an edge from the graph. Both of its nodes stay in the graph.
+     *
+     * @param parent The node the edge leaves from.
+     * @param child  The node the edge points to.
+     * @param label  The label of the edge.
+     * @return true if the edge was in the graph, false otherwise.
+     * @spec.modifies this
+     * @spec.effects this -= the edge from parent to child with the given label
+     */
+    public boolean removeEdge(N parent, N child, E label) {
+        //checkRep();
+        Set<Edge<N, E>> edges = adjacencyList.get(parent);
+        Edge<N, E> edge = new Edge<>(parent, child, label);
+        if (edges == null || !edges.remove(edge)) {
+            return false;
+        }
+        Set<Edge<N, E>> entering = incomingEdges.get(child);
+        entering.remove(edge);
+        if (entering.isEmpty()) {
+            incomingEdges.remove(child);
+        }
+        Map<N, Set<E>> byChild = labels.get(parent);
+        Set<E> between = byChild.get(child);
+        between.remove(label);
+        if (between.isEmpty()) {
+            byChild.remove(child);
+            if (byChild.isEmpty()) {
+                labels.remove(parent);
+            }
+        }
+        //checkRep();
+        return true;
+    }
+
+    /**
+     * Changes the label of an edge, such as to update its weight.
+     *
+     * @param parent   The node the edge leaves from.
+     * @param child    The node the edge points to.
+     * @param oldLabel The current label of the edge.
+     * @param newLabel The label the edge should have.
+     * @return true if the edge was in the graph, false otherwise, in which case the graph is
+     * not changed.
+     * @spec.requires newLabel != null
+     * @spec.modifies this
+     * @spec.effects replaces the edge from parent to child labeled oldLabel with one labeled
+     * newLabel
+     */
+    public boolean relabelEdge(N parent, N child, E oldLabel, E newLabel) {
+        if (!removeEdge(parent, child, oldLabel)) {
+            return false;
+        }
+        addEdge(parent, child, newLabel);
+        return true;
+    }
+
     /**
      * Returns a list of the nodes that are the parents of the given node or null if
      * there are no parents associated with the given node.
@@ -76,20 +158,19 @@ public class Graph<N, E> {
      * @return A list of all the parents of node. Returns null if there are no parents.
      * @spec.requires node != null.
      */
-    /*public List<N> getParents(N child) {
+    public List<N> getParents(N child) {
         //checkRep();
+        Set<Edge<N, E>> edges = incomingEdges.get(child);
+        if (edges == null || edges.isEmpty()) {
+            return null;
+        }
         List<N> parents = new ArrayList<>();
-        for (N node : adjacencyList.keySet()) {
-            if (adjacencyList.get(node).containsKey(child)) {
-                parents.add(node);
-            }
+        for (Edge<N, E> edge : edges) {
+            parents.add(edge.getParent());
         }
         //checkRep();
-        if (parents.isEmpty()) {
-            return null;
-        }
         return parents;
-    }*/
+    }
 
     /**
      * Returns a list of the nodes that are the children of the given node or null if there
@@ -123,14 +204,36 @@ public class Graph<N, E> {
      */
     public boolean isEdge(Edge<N, E> edge) {
         //checkRep();
-        for (N node : adjacencyList.keySet()) {
-            if (adjacencyList.get(node).contains(edge)) {
-                //checkRep();
-                return true;
-            }
+        Set<Edge<N, E>> edges = adjacencyList.get(edge.getParent());
+        return edges != null && edges.contains(edge);
+    }
+
+    /**
+     * Checks if there is at least one edge from parent to child.
+     *
+     * @param parent The node the edge leaves from.
+     * @param child  The node the edge points to.
+     * @return whether the graph has an edge from parent to child.
+     */
+    public boolean isEdge(N parent, N child) {
+        Map<N, Set<E>> byChild = labels.get(parent);
+        return byChild != null && byChild.containsKey(child);
+    }
+
+    /**
+     * Returns a read-only view of the labels of the edges from parent to child.
+     *
+     * @param parent The node the edges leave from.
+     * @param child  The node the edges point to.
+     * @return an unmodifiable view of the labels, which is empty if there are no such edges.
+     */
+    public Set<E> getLabels(N parent, N child) {
+        Map<N, Set<E>> byChild = labels.get(parent);
+        Set<E> edgeLabels = byChild == null ? null : byChild.get(child);
+        if (edgeLabels == null) {
+            return Collections.emptySet();
         }
-        //checkRep();
-        return false;
+        return Collections.unmodifiableSet(edgeLabels);
     }
 
     /**
@@ -164,6 +267,104 @@ public class Graph<N, E> {
         return new HashSet<>(adjacencyList.get(parent));
     }
 
+    /**
+     * Returns a set of all the edges in the graph that end at the given node.
+     *
+     * @param child The node the edges point to.
+     * @return set of the edges into child, which is empty if there are none.
+     */
+    public Set<Edge<N, E>> getIncomingEdges(N child) {
+        Set<Edge<N, E>> edges = incomingEdges.get(child);
+        if (edges == null) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(edges);
+    }
+
+    /**
+     * Returns a read-only view of the edges leaving the given node. Unlike getEdges, nothing
+     * is copied, and the view reflects later changes to this graph.
+     *
+     * @param parent The node the edges leave from.
+     * @return an unmodifiable view of the edges out of parent, which is empty if there are none.
+     */
+    public Set<Edge<N, E>> getEdgesView(N parent) {
+        Set<Edge<N, E>> edges = adjacencyList.get(parent);
+        if (edges == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    /**
+     * Returns a read-only view of the edges that end at the given node. Unlike
+     * getIncomingEdges, nothing is copied, and the view reflects later changes to this graph.
+     *
+     * @param child The node the edges point to.
+     * @return an unmodifiable view of the edges into child, which is empty if there are none.
+     */
+    public Set<Edge<N, E>> getIncomingEdgesView(N child) {
+        Set<Edge<N, E>> edges = incomingEdges.get(child);
+        if (edges == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    /**
+     * Performs the given action on every edge leaving the given node, without copying them.
+     *
+     * @param parent The node the edges leave from.
+     * @param action The action to perform on each edge.
+     * @spec.requires action does not modify this graph
+     */
+    public void forEachEdge(N parent, Consumer<? super Edge<N, E>> action) {
+        Set<Edge<N, E>> edges = adjacencyList.get(parent);
+        if (edges != null) {
+            edges.forEach(action);
+        }
+    }
+
+    /**
+     * Visits every edge leaving the given node with its child and its label converted to a
+     * primitive weight, without copying the edges or boxing the weights.
+     *
+     * @param parent   The node the edges leave from.
+     * @param weightOf Converts an edge label to its weight.
+     * @param visitor  Called once per edge with the edge's child and weight.
+     * @spec.requires visitor does not modify this graph
+     */
+    public void forEachEdge(N parent, ToDoubleFunction<? super E> weightOf,
+                            EdgeVisitor<? super N> visitor) {
+        Set<Edge<N, E>> edges = adjacencyList.get(parent);
+        if (edges == null) {
+            return;
+        }
+        for (Edge<N, E> edge : edges) {
+            visitor.visit(edge.getChild(), weightOf.applyAsDouble(edge.getLabel()));
+        }
+    }
+
+    /**
+     * Visits every edge ending at the given node with its parent and its label converted to
+     * a primitive weight, without copying the edges or boxing the weights.
+     *
+     * @param child    The node the edges point to.
+     * @param weightOf Converts an edge label to its weight.
+     * @param visitor  Called once per edge with the edge's parent and weight.
+     * @spec.requires visitor does not modify this graph
+     */
+    public void forEachIncomingEdge(N child, ToDoubleFunction<? super E> weightOf,
+                                    EdgeVisitor<? super N> visitor) {
+        Set<Edge<N, E>> edges = incomingEdges.get(child);
+        if (edges == null) {
+            return;
+        }
+        for (Edge<N, E> edge : edges) {
+            visitor.visit(edge.getParent(), weightOf.applyAsDouble(edge.getLabel()));
+        }
+    }
+
     /**
      * Returns whether a given node is in the graph.
      *
@@ -191,19 +392,33 @@ public class Graph<N, E> {
      * @return true/false if edge is in graph
      */
     public boolean containsEdge(N parent, N child, E edgeLabel) {
-        Set<Edge<N, E>> edges = adjacencyList.get(parent);
-        for (Edge<N, E> edge : edges) {
-            if (edge.getChild().equals(child) && edge.getLabel().equals(edgeLabel)) {
-                return true;
-            }
-        }
-        return false;
+        return getLabels(parent, child).contains(edgeLabel);
     }
 
     private void checkRep() {
         assert adjacencyList != null;
+        assert incomingEdges != null;
         for (N node : adjacencyList.keySet()) {
             assert adjacencyList.containsKey(node);
+            for (Edge<N, E> edge : adjacencyList.get(node)) {
+                assert incomingEdges.get(edge.getChild()).contains(edge);
+                assert labels.get(node).get(edge.getChild()).contains(edge.getLabel());
+            }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Receives the edges of a node one at a time, with the edge's weight as a primitive.
+     *
+     * @param <N> The type of the nodes.
+     */
+    @FunctionalInterface
+    public interface EdgeVisitor<N> {
+
+        /**
+         * @param other  The node at the other end of the edge.
+         * @param weight The weight of the edge.
+         */
+        void visit(N other, double weight);
+    }
+}
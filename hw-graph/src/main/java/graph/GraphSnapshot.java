@@ -0,0 +1,408 @@
+package graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents one immutable version of a directed graph with primitive double edge weights.
+ * A snapshot never changes, so any number of threads can search it without locking while a
+ * newer version is being built. A new version is derived with {@link #edit()}: the Editor
+ * starts from this snapshot's edges and copies only the adjacency lists its edits touch, so
+ * the two versions share every other node's edges.
+ *
+ * @param <N> The type of the nodes.
+ */
+public final class GraphSnapshot<N> implements WeightedDigraph<N> {
+
+    // AF(this) = the version number => version
+    //            the nodes of the graph => the keys of outgoing
+    //            the i-th edge leaving node p => the i-th edge of outgoing.get(p)
+    //            incoming holds the same edges keyed by the node they point to
+    //            the pairs of nodes whose edges differ from the previous version => changed
+    //            the changed pairs whose cheapest edge got dearer or was removed => raised
+    //            the changed pairs whose cheapest edge got cheaper or was added => lowered
+    //
+    // RI: outgoing != null && incoming != null && changed != null && version >= 0 &&
+    //     for every edge (p, c, w) in outgoing.get(p) there is an edge (p, c, w) in
+    //     incoming.get(c), both maps hold edgeCount edges, no value in incoming is empty,
+    //     raised and lowered are disjoint subsets of changed
+
+    private final long version;
+    private final Map<N, EdgeArray> outgoing;
+    private final Map<N, EdgeArray> incoming;
+    private final int edgeCount;
+    private final Set<Map.Entry<N, N>> changed;
+    private final Set<Map.Entry<N, N>> raised;
+    private final Set<Map.Entry<N, N>> lowered;
+
+    private GraphSnapshot(long version, Map<N, EdgeArray> outgoing, Map<N, EdgeArray> incoming,
+                          int edgeCount, Set<Map.Entry<N, N>> changed,
+                          Set<Map.Entry<N, N>> raised, Set<Map.Entry<N, N>> lowered) {
+        this.version = version;
+        this.outgoing = outgoing;
+        this.incoming = incoming;
+        this.edgeCount = edgeCount;
+        this.changed = changed;
+        this.raised = raised;
+        this.lowered = lowered;
+        checkRep();
+    }
+
+    /**
+     * Freezes a graph whose labels are weights into version 0 of a snapshot. Later changes to
+     * g are not reflected in the snapshot.
+     *
+     * @param g The graph to copy.
+     * @param <N> The type of the nodes in g.
+     * @return A snapshot with the same nodes and edges as g.
+     * @spec.requires g != null and no edge label in g is null
+     */
+    public static <N> GraphSnapshot<N> of(Graph<N, Double> g) {
+        Editor<N> editor = new GraphSnapshot<N>(-1, Map.of(), Map.of(), 0, Set.of(), Set.of(),
+                Set.of()).edit();
+        for (N node : g.getNodes()) {
+            editor.addNode(node);
+        }
+        for (N node : g.getNodes()) {
+            g.forEachEdge(node, Double::doubleValue, (child, weight) ->
+                    editor.addEdge(node, child, weight));
+        }
+        return editor.build();
+    }
+
+    /**
+     * Freezes a weighted graph into version 0 of a snapshot. Later changes to g are not
+     * reflected in the snapshot.
+     *
+     * @param g The graph to copy.
+     * @param <N> The type of the nodes in g.
+     * @return A snapshot with the same nodes and edges as g.
+     * @spec.requires g != null
+     */
+    public static <N> GraphSnapshot<N> of(WeightedDigraph<N> g) {
+        Editor<N> editor = new GraphSnapshot<N>(-1, Map.of(), Map.of(), 0, Set.of(), Set.of(),
+                Set.of()).edit();
+        for (N node : g.getNodes()) {
+            editor.addNode(node);
+        }
+        for (N node : g.getNodes()) {
+            g.forEachEdge(node, (child, weight) -> editor.addEdge(node, child, weight));
+        }
+        return editor.build();
+    }
+
+    /**
+     * Freezes a CSR graph into version 0 of a snapshot, sharing nothing with it. Each node's
+     * edge lists are copied from its rows directly, without going through an Editor.
+     *
+     * @param g The graph to copy.
+     * @param <N> The type of the nodes in g.
+     * @return A snapshot with the same nodes and edges as g.
+     * @spec.requires g != null
+     */
+    public static <N> GraphSnapshot<N> of(CsrGraph<N> g) {
+        Map<N, EdgeArray> outgoing = new HashMap<>(g.size() * 2);
+        Map<N, EdgeArray> incoming = new HashMap<>(g.size() * 2);
+        for (int id = 0; id < g.size(); id++) {
+            int out = g.outDegree(id);
+            Object[] children = new Object[out];
+            double[] outWeights = new double[out];
+            for (int i = 0; i < out; i++) {
+                children[i] = g.node(g.child(id, i));
+                outWeights[i] = g.weight(id, i);
+            }
+            outgoing.put(g.node(id), out == 0 ? EdgeArray.EMPTY
+                    : new EdgeArray(children, outWeights));
+            int in = g.inDegree(id);
+            if (in > 0) {
+                Object[] parents = new Object[in];
+                double[] inWeights = new double[in];
+                for (int i = 0; i < in; i++) {
+                    parents[i] = g.node(g.parent(id, i));
+                    inWeights[i] = g.inWeight(id, i);
+                }
+                incoming.put(g.node(id), new EdgeArray(parents, inWeights));
+            }
+        }
+        return new GraphSnapshot<>(0, outgoing, incoming, g.edgeCount(), Set.of(), Set.of(),
+                Set.of());
+    }
+
+    /**
+     * @return The version of this snapshot: 0 for a frozen graph, and one more than the
+     * snapshot it was derived from otherwise.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return The (parent, child) pairs whose edges were added, removed or reweighted when
+     * this snapshot was derived from the previous version, in the order they were first
+     * edited. Empty for version 0.
+     */
+    public Set<Map.Entry<N, N>> changedEdges() {
+        return Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * @return The changed pairs whose cheapest edge from parent to child costs more than in
+     * the previous version, or no longer exists. A shortest path that does not use any of
+     * these pairs, in a version with no lowered edges, is still a shortest path.
+     */
+    public Set<Map.Entry<N, N>> raisedEdges() {
+        return Collections.unmodifiableSet(raised);
+    }
+
+    /**
+     * @return The changed pairs whose cheapest edge from parent to child costs less than in
+     * the previous version, or did not exist before. Any shortest path of the previous
+     * version may have become longer than a path through one of these pairs.
+     */
+    public Set<Map.Entry<N, N>> loweredEdges() {
+        return Collections.unmodifiableSet(lowered);
+    }
+
+    /**
+     * @return A new Editor whose edits start from this snapshot's nodes and edges. This
+     * snapshot is not changed by the Editor.
+     */
+    public Editor<N> edit() {
+        return new Editor<>(this);
+    }
+
+    @Override
+    public boolean containsNode(N node) {
+        return outgoing.containsKey(node);
+    }
+
+    @Override
+    public Set<N> getNodes() {
+        return Collections.unmodifiableSet(outgoing.keySet());
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int outDegree(N parent) {
+        EdgeArray edges = outgoing.get(parent);
+        return edges == null ? 0 : edges.size();
+    }
+
+    @Override
+    public int inDegree(N child) {
+        EdgeArray edges = incoming.get(child);
+        return edges == null ? 0 : edges.size();
+    }
+
+    @Override
+    public boolean isEdge(N parent, N child) {
+        EdgeArray edges = outgoing.get(parent);
+        return edges != null && edges.indexOf(child) != -1;
+    }
+
+    @Override
+    public void forEachEdge(N parent, Graph.EdgeVisitor<? super N> visitor) {
+        EdgeArray edges = outgoing.get(parent);
+        if (edges != null) {
+            edges.forEach(visitor);
+        }
+    }
+
+    @Override
+    public void forEachIncomingEdge(N child, Graph.EdgeVisitor<? super N> visitor) {
+        EdgeArray edges = incoming.get(child);
+        if (edges != null) {
+            edges.forEach(visitor);
+        }
+    }
+
+    private void checkRep() {
+        assert outgoing != null && incoming != null && changed != null && version >= -1;
+        assert changed.containsAll(raised) && changed.containsAll(lowered);
+        int out = 0;
+        for (EdgeArray edges : outgoing.values()) {
+            out += edges.size();
+        }
+        int in = 0;
+        for (EdgeArray edges : incoming.values()) {
+            assert edges.size() > 0;
+            in += edges.size();
+        }
+        assert out == edgeCount && in == edgeCount;
+    }
+
+    /**
+     * A batch of edits that becomes the next version of a snapshot when built. An Editor is
+     * not thread-safe, and cannot be used after build().
+     *
+     * @param <N> The type of the nodes.
+     */
+    public static final class Editor<N> {
+
+        // AF(this) = the graph that build() will return => the nodes and edges of outgoing
+        //            and incoming, at version base.version + 1
+        //
+        // RI: outgoing and incoming are null iff build() has been called, and otherwise hold
+        //     the same edges as each other. Their values that are not in base are new
+        //     EdgeArrays; every other value is shared with base. changed holds the pair of
+        //     nodes of every edge that was added, removed or reweighted.
+
+        private final GraphSnapshot<N> base;
+        private Map<N, EdgeArray> outgoing;
+        private Map<N, EdgeArray> incoming;
+        private int edgeCount;
+        private Set<Map.Entry<N, N>> changed;
+
+        private Editor(GraphSnapshot<N> base) {
+            this.base = base;
+            // Only the node-to-edges maps are copied; the edge lists themselves are shared
+            // until an edit replaces one.
+            this.outgoing = new HashMap<>(base.outgoing);
+            this.incoming = new HashMap<>(base.incoming);
+            this.edgeCount = base.edgeCount;
+            this.changed = new LinkedHashSet<>();
+        }
+
+        /**
+         * Adds a node if it is not already in the graph.
+         *
+         * @param node The node being added.
+         * @return this Editor.
+         * @throws IllegalStateException if build() has been called.
+         * @spec.requires node != null
+         */
+        public Editor<N> addNode(N node) {
+            checkOpen();
+            outgoing.putIfAbsent(node, EdgeArray.EMPTY);
+            return this;
+        }
+
+        /**
+         * Adds an edge from parent to child, adding parent as a node if it is not one already.
+         *
+         * @param parent The node the edge leaves from.
+         * @param child  The node the edge points to.
+         * @param weight The weight of the edge.
+         * @return this Editor.
+         * @throws IllegalStateException if build() has been called.
+         * @spec.requires parent != null and child != null
+         */
+        public Editor<N> addEdge(N parent, N child, double weight) {
+            checkOpen();
+            EdgeArray leaving = outgoing.getOrDefault(parent, EdgeArray.EMPTY);
+            EdgeArray entering = incoming.getOrDefault(child, EdgeArray.EMPTY);
+            outgoing.put(parent, leaving.with(child, weight));
+            incoming.put(child, entering.with(parent, weight));
+            edgeCount++;
+            changed.add(Map.entry(parent, child));
+            return this;
+        }
+
+        /**
+         * Removes every edge from parent to child. Both nodes stay in the graph.
+         *
+         * @param parent The node the edges leave from.
+         * @param child  The node the edges point to.
+         * @return The number of edges removed.
+         * @throws IllegalStateException if build() has been called.
+         */
+        public int removeEdges(N parent, N child) {
+            checkOpen();
+            EdgeArray edges = outgoing.get(parent);
+            if (edges == null) {
+                return 0;
+            }
+            EdgeArray remaining = edges.without(child);
+            int removed = edges.size() - remaining.size();
+            if (removed > 0) {
+                outgoing.put(parent, remaining);
+                EdgeArray entering = incoming.get(child).without(parent);
+                if (entering.size() == 0) {
+                    incoming.remove(child);
+                } else {
+                    incoming.put(child, entering);
+                }
+                edgeCount -= removed;
+                changed.add(Map.entry(parent, child));
+            }
+            return removed;
+        }
+
+        /**
+         * Sets the weight of every edge from parent to child.
+         *
+         * @param parent The node the edges leave from.
+         * @param child  The node the edges point to.
+         * @param weight The new weight of the edges.
+         * @return The number of edges reweighted, which is 0 if there is no edge from parent
+         * to child.
+         * @throws IllegalStateException if build() has been called.
+         */
+        public int setWeight(N parent, N child, double weight) {
+            checkOpen();
+            EdgeArray edges = outgoing.get(parent);
+            if (edges == null) {
+                return 0;
+            }
+            EdgeArray reweighted = edges.withWeight(child, weight);
+            if (reweighted == edges) {
+                return 0;
+            }
+            outgoing.put(parent, reweighted);
+            incoming.put(child, incoming.get(child).withWeight(parent, weight));
+            changed.add(Map.entry(parent, child));
+            return reweighted.countOf(child);
+        }
+
+        /**
+         * @return A new snapshot holding the edits made so far, whose version is one more than
+         * the snapshot this Editor started from.
+         * @throws IllegalStateException if build() has been called.
+         */
+        public GraphSnapshot<N> build() {
+            checkOpen();
+            Set<Map.Entry<N, N>> raised = new LinkedHashSet<>();
+            Set<Map.Entry<N, N>> lowered = new LinkedHashSet<>();
+            // A frozen graph has no previous version, so nothing has changed since one.
+            if (base.version == -1) {
+                changed = Set.of();
+            }
+            for (Map.Entry<N, N> pair : changed) {
+                double before = minWeight(base.outgoing, pair);
+                double after = minWeight(outgoing, pair);
+                if (after > before) {
+                    raised.add(pair);
+                } else if (after < before) {
+                    lowered.add(pair);
+                }
+            }
+            GraphSnapshot<N> next = new GraphSnapshot<>(base.version + 1, outgoing, incoming,
+                    edgeCount, changed, raised, lowered);
+            outgoing = null;
+            incoming = null;
+            changed = null;
+            return next;
+        }
+
+        private static <N> double minWeight(Map<N, EdgeArray> edges, Map.Entry<N, N> pair) {
+            EdgeArray leaving = edges.get(pair.getKey());
+            if (leaving == null) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return leaving.minWeightTo(pair.getValue());
+        }
+
+        private void checkOpen() {
+            if (outgoing == null) {
+                throw new IllegalStateException("This Editor has already been built.");
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package graph;
+
+import java.util.Set;
+
+/**
+ * The read operations of a directed graph whose edges carry primitive double weights. Searches
+ * written against this interface run on any such graph without copying or boxing its edges.
+ *
+ * @param <N> The type of the nodes.
+ */
+public interface WeightedDigraph<N> {
+
+    /**
+     * @param node The node being checked for.
+     * @return whether node is in the graph.
+     */
+    boolean containsNode(N node);
+
+    /**
+     * @return A read-only view of the nodes of the graph.
+     */
+    Set<N> getNodes();
+
+    /**
+     * @return The number of edges in the graph.
+     */
+    int edgeCount();
+
+    /**
+     * @param parent A node.
+     * @return The number of edges leaving parent, which is 0 if it is not in the graph.
+     */
+    int outDegree(N parent);
+
+    /**
+     * @param child A node.
+     * @return The number of edges entering child.
+     */
+    int inDegree(N child);
+
+    /**
+     * @param parent The node the edge leaves from.
+     * @param child  The node the edge points to.
+     * @return whether the graph has at least one edge from parent to child.
+     */
+    boolean isEdge(N parent, N child);
+
+    /**
+     * Visits every edge leaving the given node with its child and weight.
+     *
+     * @param parent  The node the edges leave from.
+     * @param visitor Called once per edge.
+     * @spec.requires visitor does not modify this graph
+     */
+    void forEachEdge(N parent, Graph.EdgeVisitor<? super N> visitor);
+
+    /**
+     * Visits every edge entering the given node with its parent and weight.
+     *
+     * @param child   The node the edges point to.
+     * @param visitor Called once per edge.
+     * @spec.requires visitor does not modify this graph
+     */
+    void forEachIncomingEdge(N child, Graph.EdgeVisitor<? super N> visitor);
+}
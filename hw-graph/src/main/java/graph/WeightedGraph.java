@@ -0,0 +1,251 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Represents a mutable directed graph whose edges carry primitive double weights. It is the
+ * specialization of Graph&lt;N, Double&gt; for weighted searches: each node's outgoing and
+ * incoming edges are stored as a growable array of neighbors next to a double[] of weights,
+ * so there are no Edge or Double objects and visiting a node's edges never boxes a weight.
+ * Parallel edges between the same two nodes are allowed, and can be collapsed after loading.
+ *
+ * @param <N> The type of the nodes.
+ */
+public class WeightedGraph<N> implements WeightedDigraph<N> {
+
+    // AF(this) = the nodes of the graph => the keys of outgoing
+    //            the i-th edge leaving node p => (p, outgoing.get(p).others[i]) with weight
+    //                                           outgoing.get(p).weights[i], for i < size
+    //            incoming holds the same edges keyed by the node they point to
+    //
+    // RI: outgoing != null && incoming != null &&
+    //     for every edge (p, c, w) in outgoing.get(p) there is an edge (p, c, w) in
+    //     incoming.get(c), and the two maps hold the same number of edges,
+    //     edgeCount == the number of edges in outgoing
+
+    private final Map<N, Adjacency<N>> outgoing;
+    private final Map<N, Adjacency<N>> incoming;
+    private int edgeCount;
+
+    /**
+     * Creates an empty graph.
+     */
+    public WeightedGraph() {
+        outgoing = new HashMap<>();
+        incoming = new HashMap<>();
+        edgeCount = 0;
+        checkRep();
+    }
+
+    /**
+     * Creates a weighted copy of a graph whose labels are weights.
+     *
+     * @param g The graph to copy.
+     * @param <N> The type of the nodes in g.
+     * @return A new WeightedGraph with the same nodes and edges as g.
+     * @spec.requires g != null and no edge label in g is null
+     */
+    public static <N> WeightedGraph<N> copyOf(Graph<N, Double> g) {
+        WeightedGraph<N> copy = new WeightedGraph<>();
+        for (N node : g.getNodes()) {
+            copy.addNode(node);
+        }
+        for (N node : g.getNodes()) {
+            g.forEachEdge(node, Double::doubleValue, (child, weight) ->
+                    copy.addEdge(node, child, weight));
+        }
+        copy.checkRep();
+        return copy;
+    }
+
+    /**
+     * Adds a node to the graph if it is not already in it.
+     *
+     * @param node The node being added.
+     * @spec.requires node != null
+     * @spec.modifies this
+     * @spec.effects this += node
+     */
+    public void addNode(N node) {
+        outgoing.computeIfAbsent(node, k -> new Adjacency<>());
+    }
+
+    /**
+     * Adds an edge from parent to child, adding parent as a node if it is not one already.
+     *
+     * @param parent The node the edge leaves from.
+     * @param child  The node the edge points to.
+     * @param weight The weight of the edge.
+     * @spec.requires parent != null and child != null
+     * @spec.modifies this
+     * @spec.effects this += the edge from parent to child with the given weight
+     */
+    public void addEdge(N parent, N child, double weight) {
+        outgoing.computeIfAbsent(parent, k -> new Adjacency<>()).add(child, weight);
+        incoming.computeIfAbsent(child, k -> new Adjacency<>()).add(parent, weight);
+        edgeCount++;
+    }
+
+    /**
+     * Collapses every group of parallel edges, the edges from one node to the same other
+     * node, into a single edge with the lowest weight of the group. A collapsed edge takes
+     * the place of the first edge of its group, so edges keep their relative order. Shortest
+     * paths keep the same costs.
+     *
+     * @return The number of edges removed.
+     * @spec.modifies this
+     * @spec.effects no two edges of this have the same parent and child, and each edge's
+     * weight is the lowest of the edges from its parent to its child in the previous this
+     */
+    public int collapseParallelEdges() {
+        int removed = 0;
+        for (Adjacency<N> edges : outgoing.values()) {
+            removed += edges.collapse();
+        }
+        for (Adjacency<N> edges : incoming.values()) {
+            edges.collapse();
+        }
+        edgeCount -= removed;
+        checkRep();
+        return removed;
+    }
+
+    @Override
+    public boolean containsNode(N node) {
+        return outgoing.containsKey(node);
+    }
+
+    @Override
+    public Set<N> getNodes() {
+        return Collections.unmodifiableSet(outgoing.keySet());
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    @Override
+    public int outDegree(N parent) {
+        Adjacency<N> edges = outgoing.get(parent);
+        return edges == null ? 0 : edges.size;
+    }
+
+    @Override
+    public int inDegree(N child) {
+        Adjacency<N> edges = incoming.get(child);
+        return edges == null ? 0 : edges.size;
+    }
+
+    @Override
+    public boolean isEdge(N parent, N child) {
+        Adjacency<N> edges = outgoing.get(parent);
+        if (edges == null) {
+            return false;
+        }
+        for (int i = 0; i < edges.size; i++) {
+            if (edges.others[i].equals(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachEdge(N parent, Graph.EdgeVisitor<? super N> visitor) {
+        Adjacency<N> edges = outgoing.get(parent);
+        if (edges != null) {
+            edges.forEach(visitor);
+        }
+    }
+
+    @Override
+    public void forEachIncomingEdge(N child, Graph.EdgeVisitor<? super N> visitor) {
+        Adjacency<N> edges = incoming.get(child);
+        if (edges != null) {
+            edges.forEach(visitor);
+        }
+    }
+
+    private void checkRep() {
+        assert outgoing != null && incoming != null;
+        int out = 0;
+        for (Adjacency<N> edges : outgoing.values()) {
+            out += edges.size;
+        }
+        int in = 0;
+        for (Adjacency<N> edges : incoming.values()) {
+            in += edges.size;
+        }
+        assert out == edgeCount && in == edgeCount;
+    }
+
+    /**
+     * The edges on one side of a node: the node at the other end of each edge, and its weight.
+     */
+    private static final class Adjacency<N> {
+
+        /**
+         * The most edges collapse compares pairwise instead of indexing.
+         */
+        private static final int SCAN_LIMIT = 16;
+
+        private Object[] others = new Object[2];
+        private double[] weights = new double[2];
+        private int size = 0;
+
+        private void add(N other, double weight) {
+            if (size == others.length) {
+                others = Arrays.copyOf(others, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            others[size] = other;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * Keeps the first edge to each other node, with the lowest weight of the edges to it.
+         *
+         * @return The number of edges removed.
+         */
+        private int collapse() {
+            // Small lists are scanned; larger ones index the position of each kept node.
+            Map<Object, Integer> kept = size > SCAN_LIMIT ? new HashMap<>() : null;
+            int keptCount = 0;
+            for (int i = 0; i < size; i++) {
+                int at = -1;
+                if (kept != null) {
+                    at = kept.getOrDefault(others[i], -1);
+                } else {
+                    for (int j = 0; j < keptCount && at == -1; j++) {
+                        if (others[j].equals(others[i])) {
+                            at = j;
+                        }
+                    }
+                }
+                if (at == -1) {
+                    others[keptCount] = others[i];
+                    weights[keptCount] = weights[i];
+                    if (kept != null) {
+                        kept.put(others[i], keptCount);
+                    }
+                    keptCount++;
+                } else {
+                    weights[at] = Math.min(weights[at], weights[i]);
+                }
+            }
+            Arrays.fill(others, keptCount, size, null);
+            int removed = size - keptCount;
+            size = keptCount;
+            return removed;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void forEach(Graph.EdgeVisitor<? super N> visitor) {
+            for (int i = 0; i < size; i++) {
+                visitor.visit((N) others[i], weights[i]);
+            }
+        }
+    }
+}
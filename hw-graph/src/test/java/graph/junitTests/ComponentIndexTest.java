@@ -0,0 +1,85 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ComponentIndexTest is a glassbox test of the ComponentIndex class.
+ */
+public class ComponentIndexTest {
+
+    /**
+     * Builds a -> b -> c -> a, c -> d, d <-> e, and f with no edges.
+     */
+    private ComponentIndex<String> buildIndex() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addEdge("a", "b", 1.0);
+        graph.addEdge("b", "c", 1.0);
+        graph.addEdge("c", "a", 1.0);
+        graph.addEdge("c", "d", 1.0);
+        graph.addEdge("d", "e", 1.0);
+        graph.addEdge("e", "d", 1.0);
+        graph.addNode("f");
+        return new ComponentIndex<>(new CsrGraph<>(graph));
+    }
+
+    private int strong(ComponentIndex<String> index, String node) {
+        return index.strongComponent(index.graph().idOf(node));
+    }
+
+    private int weak(ComponentIndex<String> index, String node) {
+        return index.weakComponent(index.graph().idOf(node));
+    }
+
+    @Test
+    public void testStrongComponents() {
+        ComponentIndex<String> index = buildIndex();
+        assertEquals(3, index.strongComponentCount());
+        assertEquals(strong(index, "a"), strong(index, "b"));
+        assertEquals(strong(index, "a"), strong(index, "c"));
+        assertEquals(strong(index, "d"), strong(index, "e"));
+        assertNotEquals(strong(index, "a"), strong(index, "d"));
+        // An edge between components goes from the higher number to the lower one.
+        assertTrue(strong(index, "c") > strong(index, "d"));
+    }
+
+    @Test
+    public void testWeakComponents() {
+        ComponentIndex<String> index = buildIndex();
+        assertEquals(2, index.weakComponentCount());
+        assertEquals(weak(index, "a"), weak(index, "e"));
+        assertNotEquals(weak(index, "a"), weak(index, "f"));
+    }
+
+    @Test
+    public void testMayReach() {
+        ComponentIndex<String> index = buildIndex();
+        assertTrue(index.mayReach("a", "c"));
+        assertTrue(index.mayReach("c", "a"));
+        assertTrue(index.mayReach("a", "e"));
+        assertFalse(index.mayReach("e", "a"));
+        assertFalse(index.mayReach("a", "f"));
+        assertFalse(index.mayReach("f", "a"));
+        assertTrue(index.mayReach("f", "f"));
+        assertFalse(index.mayReach("a", "g"));
+        assertTrue(index.mayReach("g", "g"));
+    }
+
+    /**
+     * Tests a path long enough to overflow a recursive search.
+     */
+    @Test
+    public void testLongChain() {
+        WeightedGraph<Integer> graph = new WeightedGraph<>();
+        int length = 200000;
+        for (int i = 0; i < length; i++) {
+            graph.addEdge(i, i + 1, 1.0);
+        }
+        graph.addEdge(length, 0, 1.0);
+        ComponentIndex<Integer> index = new ComponentIndex<>(new CsrGraph<>(graph));
+        assertEquals(1, index.strongComponentCount());
+        assertTrue(index.mayReach(length, 0));
+    }
+}
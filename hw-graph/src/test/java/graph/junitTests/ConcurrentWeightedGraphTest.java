@@ -0,0 +1,86 @@
+package graph.junitTests;
+
+import graph.ConcurrentWeightedGraph;
+import graph.WeightedGraph;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * ConcurrentWeightedGraphTest is a glassbox test of the ConcurrentWeightedGraph class.
+ */
+public class ConcurrentWeightedGraphTest {
+
+    @Test
+    public void testAddAndRemoveEdges() {
+        ConcurrentWeightedGraph<String> g = new ConcurrentWeightedGraph<>();
+        g.addEdge("A", "B", 1.5);
+        g.addEdge("A", "B", 2.5);
+        g.addEdge("A", "C", 3.0);
+        assertEquals(3, g.edgeCount());
+        assertEquals(2, g.inDegree("B"));
+        assertTrue(g.isEdge("A", "B"));
+
+        assertEquals(2, g.removeEdges("A", "B"));
+        assertEquals(0, g.removeEdges("A", "B"));
+        assertEquals(1, g.edgeCount());
+        assertFalse(g.isEdge("A", "B"));
+        assertEquals(0, g.inDegree("B"));
+        assertEquals(1, g.outDegree("A"));
+        assertEquals(Set.of("A"), g.getNodes());
+    }
+
+    @Test
+    public void testRemoveFromUnknownNode() {
+        ConcurrentWeightedGraph<String> g = new ConcurrentWeightedGraph<>();
+        assertEquals(0, g.removeEdges("A", "B"));
+        assertFalse(g.containsNode("A"));
+    }
+
+    @Test
+    public void testCopyOf() {
+        WeightedGraph<String> source = new WeightedGraph<>();
+        source.addNode("D");
+        source.addEdge("A", "B", 1.0);
+        source.addEdge("B", "A", 2.0);
+        ConcurrentWeightedGraph<String> g = ConcurrentWeightedGraph.copyOf(source);
+        assertEquals(Set.of("A", "B", "D"), g.getNodes());
+        assertEquals(2, g.edgeCount());
+        Map<String, Double> in = new HashMap<>();
+        g.forEachIncomingEdge("A", in::put);
+        assertEquals(Map.of("B", 2.0), in);
+    }
+
+    @Test
+    public void testConcurrentWritersKeepCounts() throws InterruptedException {
+        ConcurrentWeightedGraph<Integer> g = new ConcurrentWeightedGraph<>();
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int offset = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    g.addEdge(i % 10, (i + offset) % 10, i);
+                    if (i % 3 == 0) {
+                        g.removeEdges(i % 10, (i + offset) % 10);
+                    }
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        int out = 0;
+        int in = 0;
+        for (int node = 0; node < 10; node++) {
+            out += g.outDegree(node);
+            in += g.inDegree(node);
+        }
+        assertEquals(g.edgeCount(), out);
+        assertEquals(g.edgeCount(), in);
+    }
+}
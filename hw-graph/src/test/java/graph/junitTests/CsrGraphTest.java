@@ -0,0 +1,164 @@
+package graph.junitTests;
+
+import graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * CsrGraphTest is a glassbox test of the CsrGraph class.
+ */
+public class CsrGraphTest {
+
+    private static final double EPSILON = 1e-9;
+
+    private Graph<String, Double> buildGraph() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode("a");
+        graph.addNode("b");
+        graph.addNode("c");
+        graph.addEdge("a", "b", 1.0);
+        graph.addEdge("a", "c", 2.0);
+        graph.addEdge("b", "c", 3.0);
+        graph.addEdge("c", "d", 4.0);
+        return graph;
+    }
+
+    /**
+     * Tests that every node gets an id, including nodes that are only ever a child.
+     */
+    @Test
+    public void testNodeIds() {
+        CsrGraph<String> csr = new CsrGraph<>(buildGraph());
+        assertEquals(4, csr.size());
+        assertEquals(4, csr.edgeCount());
+        for (String node : new String[] {"a", "b", "c", "d"}) {
+            int id = csr.idOf(node);
+            assertTrue(id >= 0 && id < csr.size());
+            assertEquals(node, csr.node(id));
+        }
+        assertEquals(-1, csr.idOf("e"));
+    }
+
+    /**
+     * Tests that outgoing edges keep their targets and weights.
+     */
+    @Test
+    public void testOutgoingEdges() {
+        CsrGraph<String> csr = new CsrGraph<>(buildGraph());
+        int a = csr.idOf("a");
+        assertEquals(2, csr.outDegree(a));
+        Set<String> children = new HashSet<>();
+        double total = 0;
+        for (int i = 0; i < csr.outDegree(a); i++) {
+            children.add(csr.node(csr.child(a, i)));
+            total += csr.weight(a, i);
+        }
+        assertEquals(Set.of("b", "c"), children);
+        assertEquals(3.0, total, EPSILON);
+        assertEquals(0, csr.outDegree(csr.idOf("d")));
+    }
+
+    /**
+     * Tests that incoming edges mirror the outgoing ones.
+     */
+    @Test
+    public void testIncomingEdges() {
+        CsrGraph<String> csr = new CsrGraph<>(buildGraph());
+        int c = csr.idOf("c");
+        assertEquals(2, csr.inDegree(c));
+        Set<String> parents = new HashSet<>();
+        double total = 0;
+        for (int i = 0; i < csr.inDegree(c); i++) {
+            parents.add(csr.node(csr.parent(c, i)));
+            total += csr.inWeight(c, i);
+        }
+        assertEquals(Set.of("a", "b"), parents);
+        assertEquals(5.0, total, EPSILON);
+        assertEquals(0, csr.inDegree(csr.idOf("a")));
+    }
+
+    /**
+     * Tests that the CSR copy does not change when the source graph does.
+     */
+    @Test
+    public void testIsSnapshot() {
+        Graph<String, Double> graph = buildGraph();
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        graph.addEdge("d", "a", 5.0);
+        assertEquals(0, csr.outDegree(csr.idOf("d")));
+    }
+
+    /**
+     * Tests that a graph built from the outgoing rows of another has the same edges.
+     */
+    @Test
+    public void testFromArrays() {
+        CsrGraph<String> csr = new CsrGraph<>(buildGraph());
+        List<String> nodes = new ArrayList<>();
+        int[] offsets = new int[csr.size() + 1];
+        int[] targets = new int[csr.edgeCount()];
+        double[] weights = new double[csr.edgeCount()];
+        for (int id = 0; id < csr.size(); id++) {
+            nodes.add(csr.node(id));
+            offsets[id + 1] = offsets[id] + csr.outDegree(id);
+            for (int i = 0; i < csr.outDegree(id); i++) {
+                targets[offsets[id] + i] = csr.child(id, i);
+                weights[offsets[id] + i] = csr.weight(id, i);
+            }
+        }
+        CsrGraph<String> copy = CsrGraph.fromArrays(nodes, offsets, targets, weights);
+        assertEquals(csr.size(), copy.size());
+        for (int id = 0; id < csr.size(); id++) {
+            assertEquals(id, copy.idOf(csr.node(id)));
+            assertEquals(csr.outDegree(id), copy.outDegree(id));
+            assertEquals(csr.inDegree(id), copy.inDegree(id));
+        }
+        int d = copy.idOf("d");
+        assertEquals("c", copy.node(copy.parent(d, 0)));
+        assertEquals(4.0, copy.inWeight(d, 0), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysRejectsBadTarget() {
+        CsrGraph.fromArrays(List.of("a", "b"), new int[] {0, 1, 1}, new int[] {2},
+                new double[] {1.0});
+    }
+
+    /**
+     * Tests that a symmetric graph with no parallel edges shares its incoming rows with its
+     * outgoing rows, and still reports every incoming edge.
+     */
+    @Test
+    public void testUndirectedStorage() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addEdge("a", "b", 1.0);
+        graph.addEdge("b", "a", 1.0);
+        graph.addEdge("b", "c", 2.0);
+        graph.addEdge("c", "b", 2.0);
+        CsrGraph<String> csr = new CsrGraph<>(graph);
+        assertTrue(csr.isUndirected());
+        assertTrue(csr.isSymmetric());
+        assertEquals(4L * 4 + 12L * 4, csr.savedBytes());
+        int b = csr.idOf("b");
+        assertEquals(2, csr.inDegree(b));
+        Map<String, Double> parents = new HashMap<>();
+        for (int i = 0; i < csr.inDegree(b); i++) {
+            parents.put(csr.node(csr.parent(b, i)), csr.inWeight(b, i));
+        }
+        assertEquals(Map.of("a", 1.0, "c", 2.0), parents);
+
+        graph.addEdge("c", "a", 5.0);
+        CsrGraph<String> directed = new CsrGraph<>(graph);
+        assertFalse(directed.isUndirected());
+        assertEquals(0, directed.savedBytes());
+        assertEquals(2, directed.inDegree(directed.idOf("a")));
+    }
+}
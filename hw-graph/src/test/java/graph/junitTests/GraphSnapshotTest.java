@@ -0,0 +1,141 @@
+package graph.junitTests;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.GraphSnapshot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * GraphSnapshotTest is a glassbox test of the GraphSnapshot class.
+ */
+public class GraphSnapshotTest {
+
+    private static GraphSnapshot<String> triangle() {
+        Graph<String, Double> g = new Graph<>();
+        g.addNode("D");
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("B", "C", 2.0);
+        g.addEdge("C", "A", 3.0);
+        return GraphSnapshot.of(g);
+    }
+
+    @Test
+    public void testFreeze() {
+        GraphSnapshot<String> g = triangle();
+        assertEquals(0, g.version());
+        assertEquals(Set.of("A", "B", "C", "D"), g.getNodes());
+        assertEquals(3, g.edgeCount());
+        assertTrue(g.isEdge("C", "A"));
+        assertEquals(1, g.inDegree("A"));
+    }
+
+    @Test
+    public void testFreezeCsrGraph() {
+        GraphSnapshot<String> g = GraphSnapshot.of(new CsrGraph<>(triangle()));
+        assertEquals(0, g.version());
+        assertEquals(Set.of("A", "B", "C", "D"), g.getNodes());
+        assertEquals(3, g.edgeCount());
+        assertTrue(g.isEdge("B", "C"));
+        assertEquals(0, g.outDegree("D"));
+        assertEquals(1, g.inDegree("C"));
+        GraphSnapshot.Editor<String> editor = g.edit();
+        assertEquals(1, editor.removeEdges("C", "A"));
+        assertEquals(0, editor.build().inDegree("A"));
+    }
+
+    @Test
+    public void testEditLeavesBaseUnchanged() {
+        GraphSnapshot<String> base = triangle();
+        GraphSnapshot.Editor<String> editor = base.edit();
+        assertEquals(1, editor.removeEdges("A", "B"));
+        editor.addEdge("D", "A", 4.0).addNode("E");
+        GraphSnapshot<String> next = editor.build();
+
+        assertEquals(1, next.version());
+        assertEquals(3, next.edgeCount());
+        assertFalse(next.isEdge("A", "B"));
+        assertEquals(0, next.inDegree("B"));
+        assertTrue(next.containsNode("E"));
+        Map<String, Double> in = new HashMap<>();
+        next.forEachIncomingEdge("A", in::put);
+        assertEquals(Map.of("C", 3.0, "D", 4.0), in);
+
+        assertEquals(0, base.version());
+        assertTrue(base.isEdge("A", "B"));
+        assertFalse(base.containsNode("E"));
+        assertEquals(1, base.inDegree("A"));
+    }
+
+    @Test
+    public void testRemoveMissingEdge() {
+        GraphSnapshot.Editor<String> editor = triangle().edit();
+        assertEquals(0, editor.removeEdges("B", "A"));
+        assertEquals(0, editor.removeEdges("Z", "A"));
+        assertEquals(3, editor.build().edgeCount());
+    }
+
+    @Test
+    public void testSetWeight() {
+        GraphSnapshot<String> base = triangle();
+        GraphSnapshot.Editor<String> editor = base.edit();
+        editor.addEdge("A", "B", 5.0);
+        assertEquals(2, editor.setWeight("A", "B", 0.5));
+        assertEquals(0, editor.setWeight("B", "A", 0.5));
+        GraphSnapshot<String> next = editor.build();
+        Map<String, Double> in = new HashMap<>();
+        next.forEachIncomingEdge("B", (parent, weight) -> in.merge(parent, weight, Double::sum));
+        assertEquals(Map.of("A", 1.0), in);
+        Map<String, Double> out = new HashMap<>();
+        base.forEachEdge("A", out::put);
+        assertEquals(Map.of("B", 1.0), out);
+    }
+
+    @Test
+    public void testChangedEdges() {
+        GraphSnapshot<String> base = triangle();
+        assertTrue(base.changedEdges().isEmpty());
+        GraphSnapshot.Editor<String> editor = base.edit();
+        editor.setWeight("C", "A", 1.0);
+        editor.removeEdges("A", "B");
+        editor.removeEdges("A", "C");
+        editor.addEdge("D", "A", 1.0);
+        editor.setWeight("C", "A", 2.0);
+        assertEquals(List.of(Map.entry("C", "A"), Map.entry("A", "B"), Map.entry("D", "A")),
+                new ArrayList<>(editor.build().changedEdges()));
+    }
+
+    @Test
+    public void testRaisedAndLoweredEdges() {
+        GraphSnapshot<String> base = triangle();
+        GraphSnapshot.Editor<String> editor = base.edit();
+        editor.removeEdges("A", "B");
+        editor.setWeight("B", "C", 9.0);
+        editor.setWeight("C", "A", 1.0);
+        editor.addEdge("D", "A", 1.0);
+        GraphSnapshot<String> next = editor.build();
+        assertEquals(Set.of(Map.entry("A", "B"), Map.entry("B", "C")), next.raisedEdges());
+        assertEquals(Set.of(Map.entry("C", "A"), Map.entry("D", "A")), next.loweredEdges());
+
+        GraphSnapshot.Editor<String> parallel = next.edit();
+        parallel.addEdge("B", "C", 20.0);
+        GraphSnapshot<String> same = parallel.build();
+        assertEquals(Set.of(Map.entry("B", "C")), same.changedEdges());
+        assertTrue(same.raisedEdges().isEmpty());
+        assertTrue(same.loweredEdges().isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEditorCannotBeReused() {
+        GraphSnapshot.Editor<String> editor = triangle().edit();
+        editor.build();
+        editor.addNode("E");
+    }
+}
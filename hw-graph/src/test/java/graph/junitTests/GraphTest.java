@@ -4,7 +4,9 @@ import graph.*;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -81,4 +83,125 @@ public class GraphTest {
         Set<String> set2 = graph2.getNodes();
         assertTrue(set2.size() == 1);
     }
+
+    /**
+     * Tests that incoming edges are indexed by the node they point to.
+     */
+    @Test
+    public void testGetParents() {
+        graph1.addNode(node1);
+        graph1.addNode(node2);
+        graph1.addNode(node3);
+        assertNull(graph1.getParents(node2));
+        graph1.addEdge(node1, node2, edge1);
+        graph1.addEdge(node3, node2, edge2);
+        Set<String> parents = new HashSet<>(graph1.getParents(node2));
+        assertEquals(Set.of(node1, node3), parents);
+        assertEquals(2, graph1.getIncomingEdges(node2).size());
+        assertTrue(graph1.getIncomingEdges(node1).isEmpty());
+    }
+
+    /**
+     * Tests that edge views are read-only and follow later changes to the graph.
+     */
+    @Test
+    public void testEdgeViews() {
+        assertTrue(graph1.getEdgesView(node1).isEmpty());
+        assertTrue(graph1.getIncomingEdgesView(node2).isEmpty());
+        graph1.addEdge(node1, node2, edge1);
+        Set<Edge<String, String>> out = graph1.getEdgesView(node1);
+        Set<Edge<String, String>> in = graph1.getIncomingEdgesView(node2);
+        assertEquals(1, out.size());
+        assertEquals(1, in.size());
+        graph1.addEdge(node1, node3, edge2);
+        assertEquals(2, out.size());
+        try {
+            out.clear();
+            fail("Expected the view to be read-only");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(2, graph1.getEdges(node1).size());
+        }
+    }
+
+    /**
+     * Tests visiting edges without copying them.
+     */
+    @Test
+    public void testForEachEdge() {
+        Graph<String, Double> weighted = new Graph<>();
+        weighted.addEdge(node1, node2, 1.5);
+        weighted.addEdge(node1, node3, 2.5);
+        weighted.addEdge(node3, node2, 4.0);
+        List<String> children = new ArrayList<>();
+        double[] total = new double[1];
+        weighted.forEachEdge(node1, Double::doubleValue, (child, weight) -> {
+            children.add(child);
+            total[0] += weight;
+        });
+        assertEquals(Set.of(node2, node3), new HashSet<>(children));
+        assertEquals(4.0, total[0], 0);
+        List<String> parents = new ArrayList<>();
+        weighted.forEachIncomingEdge(node2, Double::doubleValue,
+                (parent, weight) -> parents.add(parent));
+        assertEquals(Set.of(node1, node3), new HashSet<>(parents));
+        List<Edge<String, Double>> edges = new ArrayList<>();
+        weighted.forEachEdge(node3, edges::add);
+        assertEquals(1, edges.size());
+        weighted.forEachEdge(node2, edges::add);
+        assertEquals(1, edges.size());
+    }
+
+    /**
+     * Tests that edges are compared by value and looked up by their endpoints.
+     */
+    @Test
+    public void testEdgeLookup() {
+        graph1.addEdge(node1, node2, edge1);
+        graph1.addEdge(node1, node2, edge2);
+        graph1.addEdge(node1, node2, edge1);
+        assertEquals(2, graph1.getEdges(node1).size());
+        assertEquals(new Edge<>(node1, node2, edge1), new Edge<>(node1, node2, edge1));
+        assertEquals(new Edge<>(node1, node2, edge1).hashCode(),
+                new Edge<>(node1, node2, edge1).hashCode());
+        assertTrue(graph1.isEdge(new Edge<>(node1, node2, edge1)));
+        assertFalse(graph1.isEdge(new Edge<>(node2, node1, edge1)));
+        assertTrue(graph1.isEdge(node1, node2));
+        assertFalse(graph1.isEdge(node2, node1));
+        assertEquals(Set.of(edge1, edge2), graph1.getLabels(node1, node2));
+        assertTrue(graph1.getLabels(node1, node3).isEmpty());
+        assertTrue(graph1.containsEdge(node1, node2, edge2));
+        assertFalse(graph1.containsEdge(node1, node2, edge3));
+        assertFalse(graph1.containsEdge(node3, node2, edge1));
+    }
+
+    /**
+     * Tests that removing an edge leaves its nodes and the other edges between them.
+     */
+    @Test
+    public void testRemoveEdge() {
+        graph1.addEdge(node1, node2, edge1);
+        graph1.addEdge(node1, node2, edge2);
+        assertTrue(graph1.removeEdge(node1, node2, edge1));
+        assertFalse(graph1.removeEdge(node1, node2, edge1));
+        assertFalse(graph1.removeEdge(node3, node2, edge1));
+        assertEquals(Set.of(edge2), graph1.getLabels(node1, node2));
+        assertEquals(1, graph1.getIncomingEdges(node2).size());
+        assertTrue(graph1.removeEdge(node1, node2, edge2));
+        assertFalse(graph1.isEdge(node1, node2));
+        assertTrue(graph1.getIncomingEdges(node2).isEmpty());
+        assertTrue(graph1.containsNode(node1));
+    }
+
+    /**
+     * Tests that relabeling an edge replaces its label and nothing else.
+     */
+    @Test
+    public void testRelabelEdge() {
+        graph1.addEdge(node1, node2, edge1);
+        assertTrue(graph1.relabelEdge(node1, node2, edge1, edge3));
+        assertEquals(Set.of(edge3), graph1.getLabels(node1, node2));
+        assertTrue(graph1.isEdge(new Edge<>(node1, node2, edge3)));
+        assertFalse(graph1.relabelEdge(node1, node2, edge1, edge2));
+        assertEquals(Set.of(edge3), graph1.getLabels(node1, node2));
+    }
 }
@@ -0,0 +1,92 @@
+package graph.junitTests;
+
+import graph.Graph;
+import graph.WeightedGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeightedGraphTest is a glassbox test of the WeightedGraph class.
+ */
+public class WeightedGraphTest {
+
+    @Test
+    public void testAddEdges() {
+        WeightedGraph<String> g = new WeightedGraph<>();
+        assertEquals(0, g.edgeCount());
+        g.addEdge("A", "B", 1.5);
+        g.addEdge("A", "B", 2.5);
+        g.addEdge("A", "C", 3.0);
+        assertEquals(3, g.edgeCount());
+        assertTrue(g.containsNode("A"));
+        assertFalse(g.containsNode("B"));
+        assertEquals(Set.of("A"), g.getNodes());
+        assertEquals(3, g.outDegree("A"));
+        assertEquals(2, g.inDegree("B"));
+        assertEquals(0, g.outDegree("B"));
+        assertTrue(g.isEdge("A", "B"));
+        assertFalse(g.isEdge("B", "A"));
+    }
+
+    @Test
+    public void testForEachEdge() {
+        WeightedGraph<String> g = new WeightedGraph<>();
+        g.addEdge("A", "B", 1.5);
+        g.addEdge("A", "C", 3.0);
+        g.addEdge("C", "B", 4.0);
+        Map<String, Double> out = new HashMap<>();
+        g.forEachEdge("A", out::put);
+        assertEquals(Map.of("B", 1.5, "C", 3.0), out);
+        Map<String, Double> in = new HashMap<>();
+        g.forEachIncomingEdge("B", in::put);
+        assertEquals(Map.of("A", 1.5, "C", 4.0), in);
+        g.forEachEdge("B", (child, weight) -> fail("B has no outgoing edges"));
+    }
+
+    @Test
+    public void testCopyOfGraph() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode("D");
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "A", 2.0);
+        WeightedGraph<String> g = WeightedGraph.copyOf(graph);
+        assertEquals(Set.of("A", "B", "D"), g.getNodes());
+        assertEquals(2, g.edgeCount());
+        Map<String, Double> out = new HashMap<>();
+        g.forEachEdge("B", out::put);
+        assertEquals(Map.of("A", 2.0), out);
+    }
+
+    @Test
+    public void testCollapseParallelEdges() {
+        WeightedGraph<String> g = new WeightedGraph<>();
+        g.addEdge("A", "B", 3.0);
+        g.addEdge("A", "C", 2.0);
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("A", "B", 2.0);
+        g.addEdge("C", "A", 2.0);
+        assertEquals(2, g.collapseParallelEdges());
+        assertEquals(3, g.edgeCount());
+        assertEquals(2, g.outDegree("A"));
+        assertEquals(1, g.inDegree("B"));
+        List<String> children = new ArrayList<>();
+        Map<String, Double> out = new HashMap<>();
+        g.forEachEdge("A", (child, weight) -> {
+            children.add(child);
+            out.put(child, weight);
+        });
+        assertEquals(List.of("B", "C"), children);
+        assertEquals(Map.of("B", 1.0, "C", 2.0), out);
+        Map<String, Double> in = new HashMap<>();
+        g.forEachIncomingEdge("B", in::put);
+        assertEquals(Map.of("A", 1.0), in);
+        assertEquals(0, g.collapseParallelEdges());
+    }
+}
@@ -191,7 +191,10 @@ public class GraphTestDriver {
     private void listChildren(String graphName, String parentName) {
 
         Graph<String, String> g = graphs.get(graphName);
-        Set<Edge<String, String>> edges = g.getEdges(parentName);
+        List<Edge<String, String>> edges = new ArrayList<>(g.getEdges(parentName));
+        // Edge sets have no defined order, so list children alphabetically, then by label.
+        edges.sort(Comparator.comparing((Edge<String, String> edge) -> edge.getChild())
+                .thenComparing(Edge::getLabel));
         StringBuilder childNodes = new StringBuilder();
         if (!edges.isEmpty()) {
             for (Edge<String, String> edge : edges) {
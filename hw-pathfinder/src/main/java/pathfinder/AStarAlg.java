@@ -0,0 +1,124 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.WeightedDigraph;
+import pathfinder.datastructures.Path;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A* search: IndexedDijkstraAlg with every frontier node ordered by its distance from the
+ * start plus an estimate of its remaining distance to the destination, so the search grows
+ * towards the destination instead of uniformly in all directions.
+ */
+public class AStarAlg {
+
+    /**
+     * Finds a minimum-cost path between two nodes of a graph with non-negative edge costs.
+     * The heuristic must be consistent: for every edge (u, v) with cost c,
+     * {@code heuristic(u) <= c + heuristic(v)}, and {@code heuristic(dest) == 0}. A
+     * heuristic that always returns 0 makes this plain Dijkstra.
+     *
+     * @param start     The node the path begins at.
+     * @param dest      The node the path ends at.
+     * @param g         The graph to search.
+     * @param heuristic A lower bound on the cost of getting from a node to dest.
+     * @param <N>       The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires no argument is null, every edge label in g is non-negative, and heuristic
+     * is consistent
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, Graph<N, Double> g,
+                                              ToDoubleFunction<N> heuristic) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g), heuristic);
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a WeightedDigraph with non-negative edge
+     * weights, under the same conditions on the heuristic as the Graph version.
+     *
+     * @param start     The node the path begins at.
+     * @param dest      The node the path ends at.
+     * @param g         The graph to search.
+     * @param heuristic A lower bound on the cost of getting from a node to dest.
+     * @param <N>       The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires no argument is null, every edge weight in g is non-negative, and
+     * heuristic is consistent
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, WeightedDigraph<N> g,
+                                              ToDoubleFunction<N> heuristic) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g), heuristic);
+    }
+
+    private static <N> Path<N> findMinCostPath(N start, N dest, Neighbors<N> children,
+                                               ToDoubleFunction<N> heuristic) {
+        SearchTree<N> tree = new SearchTree<>(start);
+        tree.frontier.insertOrDecrease(0, heuristic.applyAsDouble(start));
+
+        while (!tree.frontier.isEmpty()) {
+            int minId = tree.frontier.removeMin();
+            N minNode = tree.node(minId);
+            tree.settle(minId);
+
+            if (minNode.equals(dest)) {
+                return tree.pathTo(minId);
+            }
+
+            children.forEach(minNode, (childNode, cost) -> {
+                int child = tree.idOf(childNode);
+                if (!tree.isSettled(child) && tree.relax(minId, child, cost)) {
+                    double estimate = tree.dist(child) + heuristic.applyAsDouble(childNode);
+                    tree.frontier.insertOrDecrease(child, estimate);
+                }
+            });
+        }
+        return null;
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a CsrGraph with non-negative edge costs,
+     * under the same conditions on the heuristic as the Graph version.
+     *
+     * @param start     The node the path begins at.
+     * @param dest      The node the path ends at.
+     * @param g         The graph to search.
+     * @param heuristic A lower bound on the cost of getting from a node to dest.
+     * @param <N>       The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires no argument is null, every edge weight in g is non-negative, and heuristic
+     * is consistent
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, CsrGraph<N> g,
+                                              ToDoubleFunction<N> heuristic) {
+        int source = g.idOf(start);
+        int target = g.idOf(dest);
+        if (source == -1 || target == -1) {
+            return start.equals(dest) ? new Path<>(start) : null;
+        }
+        SearchTree<N> tree = new SearchTree<>(g, source);
+        tree.frontier.insertOrDecrease(source, heuristic.applyAsDouble(start));
+
+        while (!tree.frontier.isEmpty()) {
+            int minId = tree.frontier.removeMin();
+            tree.settle(minId);
+
+            if (minId == target) {
+                return tree.pathTo(minId);
+            }
+
+            for (int i = 0, degree = g.outDegree(minId); i < degree; i++) {
+                int child = g.child(minId, i);
+                if (!tree.isSettled(child) && tree.relax(minId, child, g.weight(minId, i))) {
+                    double estimate = tree.dist(child) + heuristic.applyAsDouble(g.node(child));
+                    tree.frontier.insertOrDecrease(child, estimate);
+                }
+            }
+        }
+        return null;
+    }
+}
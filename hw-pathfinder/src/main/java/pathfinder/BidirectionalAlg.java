@@ -0,0 +1,283 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.WeightedDigraph;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Bidirectional search: one search grows forward from the start along outgoing edges while
+ * another grows backward from the destination along incoming edges. The best complete path
+ * seen so far through a node reached by both searches is kept, and the search stops as soon
+ * as the two frontier minimums prove that no shorter path can still be found.
+ *
+ * <p>With a lower bound between nodes, both searches use the average of the forward and
+ * backward A* potentials, which keeps the two sides consistent with each other so the same
+ * stopping rule still applies.
+ */
+public class BidirectionalAlg {
+
+    /**
+     * Finds a minimum-cost path between two nodes using bidirectional Dijkstra.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires start, dest and g are not null, and every edge label in g is non-negative
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, Graph<N, Double> g) {
+        return findMinCostPath(start, dest, g, (a, b) -> 0.0);
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes using bidirectional A*.
+     * {@code lowerBound.applyAsDouble(a, b)} must never exceed the cost of any path from a
+     * to b, and must be consistent in each argument: for every edge (u, v) with cost c and
+     * every node x, {@code lowerBound(u, x) <= c + lowerBound(v, x)} and
+     * {@code lowerBound(x, v) <= lowerBound(x, u) + c}.
+     *
+     * @param start      The node the path begins at.
+     * @param dest       The node the path ends at.
+     * @param g          The graph to search.
+     * @param lowerBound A lower bound on the cost of getting from one node to another.
+     * @param <N>        The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires no argument is null, every edge label in g is non-negative, and
+     * lowerBound is consistent
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, Graph<N, Double> g,
+                                              ToDoubleBiFunction<N, N> lowerBound) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g), Neighbors.into(g), lowerBound);
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a WeightedDigraph using bidirectional
+     * Dijkstra.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires start, dest and g are not null, and every edge weight in g is non-negative
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, WeightedDigraph<N> g) {
+        return findMinCostPath(start, dest, g, (a, b) -> 0.0);
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a WeightedDigraph using bidirectional A*,
+     * under the same conditions on the lower bound as the Graph version.
+     *
+     * @param start      The node the path begins at.
+     * @param dest       The node the path ends at.
+     * @param g          The graph to search.
+     * @param lowerBound A lower bound on the cost of getting from one node to another.
+     * @param <N>        The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires no argument is null, every edge weight in g is non-negative, and
+     * lowerBound is consistent
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, WeightedDigraph<N> g,
+                                              ToDoubleBiFunction<N, N> lowerBound) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g), Neighbors.into(g), lowerBound);
+    }
+
+    private static <N> Path<N> findMinCostPath(N start, N dest, Neighbors<N> children,
+                                               Neighbors<N> parents,
+                                               ToDoubleBiFunction<N, N> lowerBound) {
+        SearchTree<N> forward = new SearchTree<>(start);
+        SearchTree<N> backward = new SearchTree<>(dest);
+        forward.frontier.insertOrDecrease(0, potential(start, start, dest, lowerBound));
+        backward.frontier.insertOrDecrease(0, -potential(dest, start, dest, lowerBound));
+
+        // The best complete path found so far, and the node where it crosses over from the
+        // forward tree to the backward tree.
+        Meeting<N> best = new Meeting<>();
+        if (start.equals(dest)) {
+            best.cost = 0;
+            best.node = start;
+        }
+
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            if (forward.frontier.minKey() + backward.frontier.minKey() >= best.cost) {
+                break;
+            }
+            boolean goForward = forward.frontier.minKey() <= backward.frontier.minKey();
+            SearchTree<N> tree = goForward ? forward : backward;
+            SearchTree<N> other = goForward ? backward : forward;
+
+            int minId = tree.frontier.removeMin();
+            N minNode = tree.node(minId);
+            tree.settle(minId);
+
+            (goForward ? children : parents).forEach(minNode, (nextNode, cost) -> {
+                int next = tree.idOf(nextNode);
+                if (tree.isSettled(next) || !tree.relax(minId, next, cost)) {
+                    return;
+                }
+                double p = potential(nextNode, start, dest, lowerBound);
+                tree.frontier.insertOrDecrease(next, tree.dist(next) + (goForward ? p : -p));
+                int otherId = other.existingIdOf(nextNode);
+                if (otherId != -1) {
+                    double through = tree.dist(next) + other.dist(otherId);
+                    if (through < best.cost) {
+                        best.cost = through;
+                        best.node = nextNode;
+                    }
+                }
+            });
+        }
+
+        if (best.node == null) {
+            return null;
+        }
+        return joinAt(forward.existingIdOf(best.node), backward.existingIdOf(best.node),
+                forward, backward);
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a CsrGraph using bidirectional
+     * Dijkstra.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires start, dest and g are not null, and every edge weight in g is non-negative
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, CsrGraph<N> g) {
+        return findMinCostPath(start, dest, g, (a, b) -> 0.0);
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a CsrGraph using bidirectional A*, under
+     * the same conditions on the lower bound as the Graph version.
+     *
+     * @param start      The node the path begins at.
+     * @param dest       The node the path ends at.
+     * @param g          The graph to search.
+     * @param lowerBound A lower bound on the cost of getting from one node to another.
+     * @param <N>        The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires no argument is null, every edge weight in g is non-negative, and
+     * lowerBound is consistent
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, CsrGraph<N> g,
+                                              ToDoubleBiFunction<N, N> lowerBound) {
+        int source = g.idOf(start);
+        int target = g.idOf(dest);
+        if (source == -1 || target == -1) {
+            return start.equals(dest) ? new Path<>(start) : null;
+        }
+        SearchTree<N> forward = new SearchTree<>(g, source);
+        SearchTree<N> backward = new SearchTree<>(g, target);
+        forward.frontier.insertOrDecrease(source, potential(start, start, dest, lowerBound));
+        backward.frontier.insertOrDecrease(target, -potential(dest, start, dest, lowerBound));
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        if (source == target) {
+            best = 0;
+            meeting = source;
+        }
+
+        while (!forward.frontier.isEmpty() && !backward.frontier.isEmpty()) {
+            if (forward.frontier.minKey() + backward.frontier.minKey() >= best) {
+                break;
+            }
+            boolean goForward = forward.frontier.minKey() <= backward.frontier.minKey();
+            SearchTree<N> tree = goForward ? forward : backward;
+            SearchTree<N> other = goForward ? backward : forward;
+
+            int minId = tree.frontier.removeMin();
+            tree.settle(minId);
+
+            int degree = goForward ? g.outDegree(minId) : g.inDegree(minId);
+            for (int i = 0; i < degree; i++) {
+                int next = goForward ? g.child(minId, i) : g.parent(minId, i);
+                double cost = goForward ? g.weight(minId, i) : g.inWeight(minId, i);
+                if (tree.isSettled(next) || !tree.relax(minId, next, cost)) {
+                    continue;
+                }
+                double p = potential(g.node(next), start, dest, lowerBound);
+                tree.frontier.insertOrDecrease(next, tree.dist(next) + (goForward ? p : -p));
+                double through = tree.dist(next) + other.dist(next);
+                if (through < best) {
+                    best = through;
+                    meeting = next;
+                }
+            }
+        }
+
+        if (meeting == -1) {
+            return null;
+        }
+        return joinAt(meeting, meeting, forward, backward);
+    }
+
+    /**
+     * The forward potential of a node: half of (its bound to dest - start's bound to it). The
+     * backward search uses the negation, so both searches agree on reduced edge costs.
+     */
+    private static <N> double potential(N node, N start, N dest,
+                                        ToDoubleBiFunction<N, N> lowerBound) {
+        return (lowerBound.applyAsDouble(node, dest) - lowerBound.applyAsDouble(start, node)) / 2;
+    }
+
+    /**
+     * Builds the path that follows the forward tree from the start to the meeting node, then
+     * the backward tree from the meeting node to the destination.
+     *
+     * @param forwardId  The id of the meeting node in the forward tree.
+     * @param backwardId The id of the meeting node in the backward tree.
+     */
+    private static <N> Path<N> joinAt(int forwardId, int backwardId,
+                                      SearchTree<N> forward, SearchTree<N> backward) {
+        List<N> points = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        int at = forwardId;
+        while (forward.parent(at) != -1) {
+            points.add(forward.node(at));
+            costs.add(forward.parentCost(at));
+            at = forward.parent(at);
+        }
+        N start = forward.node(at);
+        Collections.reverse(points);
+        Collections.reverse(costs);
+        at = backwardId;
+        while (backward.parent(at) != -1) {
+            costs.add(backward.parentCost(at));
+            at = backward.parent(at);
+            points.add(backward.node(at));
+        }
+        double[] segmentCosts = new double[costs.size()];
+        for (int i = 0; i < segmentCosts.length; i++) {
+            segmentCosts[i] = costs.get(i);
+        }
+        return new Path<>(start, points, segmentCosts);
+    }
+
+    /**
+     * The cheapest complete path a search over a Graph has found: its cost, and the node
+     * where it crosses from the forward tree to the backward tree (null if there is none).
+     */
+    private static final class Meeting<N> {
+        private double cost = Double.POSITIVE_INFINITY;
+        private N node = null;
+    }
+}
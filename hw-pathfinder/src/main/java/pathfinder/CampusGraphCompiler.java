@@ -0,0 +1,53 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import graph.GraphSnapshot;
+import graph.WeightedGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointInterner;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusGraphFile;
+import pathfinder.parser.CampusPathsParser;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Compiles the campus buildings and paths CSV files into a CampusGraphFile, which a CampusMap
+ * loads without parsing them. The graph is built exactly as the CSV-loading CampusMap builds
+ * it, with the same node ids and with parallel edges collapsed, so both answer every query
+ * with the same route.
+ */
+public class CampusGraphCompiler {
+
+    // This class does not represent an ADT.
+
+    /**
+     * Compiles the CSV files and prints a summary of what was written.
+     *
+     * @param args The file to write, optionally followed by the simple names of the buildings
+     *             and paths files to compile (campus_buildings.csv and campus_paths.csv by
+     *             default).
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("Usage: CampusGraphCompiler <output file> "
+                    + "[<buildings file> <paths file>]");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[0]);
+        String buildingsFile = args.length == 3 ? args[1] : CampusMap.BUILDINGS_FILE;
+        String pathsFile = args.length == 3 ? args[2] : CampusMap.PATHS_FILE;
+        long start = System.nanoTime();
+        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings(buildingsFile);
+        WeightedGraph<Point> graph = CampusMap.campusGraph(pathsFile,
+                new PointInterner(CampusMap.COORDINATE_DIGITS));
+        int collapsed = graph.collapseParallelEdges();
+        CsrGraph<Point> csr = new CsrGraph<>(GraphSnapshot.of(graph));
+        CampusGraphFile.write(output, csr, buildings);
+        System.out.printf("Wrote %s: %d nodes, %d edges (%d parallel edges collapsed), "
+                        + "%d buildings in %.1f ms%n", output, csr.size(), csr.edgeCount(),
+                collapsed, buildings.size(), (System.nanoTime() - start) / 1e6);
+    }
+}
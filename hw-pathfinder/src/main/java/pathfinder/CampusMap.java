@@ -13,37 +13,399 @@ package pathfinder;
 
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
-import graph.Graph;
+import pathfinder.datastructures.PointInterner;
+import graph.ComponentIndex;
+import graph.CsrGraph;
+import graph.GraphSnapshot;
+import graph.WeightedGraph;
 import pathfinder.parser.CampusBuilding;
-import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusGraphFile;
 import pathfinder.parser.CampusPathsParser;
 
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class CampusMap implements ModelAPI<Point> {
 
-    private Graph<Point, Double> campusGraph;
+    /**
+     * The number of threads batch queries search on.
+     */
+    private static final int BATCH_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * How many searches one batch may have submitted but not yet delivered, per thread.
+     */
+    private static final int BATCH_WINDOW_PER_THREAD = 4;
+
+    /**
+     * Runs the searches of batch queries. Its queue is bounded; when it is full, the thread
+     * submitting a search runs it itself, which keeps large or concurrent batches from piling
+     * up unbounded work.
+     */
+    private static final ExecutorService BATCH_EXECUTOR = newBatchExecutor();
+
+    /**
+     * The resolution, in decimal places, of the fixed-point keys that points are interned
+     * under while the campus graph loads. Interning still compares coordinates exactly; this
+     * only needs to be fine enough that few distinct points share a key.
+     */
+    static final int COORDINATE_DIGITS = 3;
+
+    /**
+     * The simple name of the campus buildings file.
+     */
+    public static final String BUILDINGS_FILE = "campus_buildings.csv";
+
+    /**
+     * The simple name of the campus paths file.
+     */
+    public static final String PATHS_FILE = "campus_paths.csv";
+
+    /**
+     * The version of the campus graph that new queries run on, with everything the routing
+     * engine prepared for it. A query reads this once and finishes on that version even if a
+     * newer one is swapped in meanwhile.
+     */
+    private volatile RoutingState current;
+    private final int routeCacheCapacity;
     private Map<String, CampusBuilding> buildings;
     private Map<String, String> buildingNames;
 
+    /**
+     * The entrance of each building, keyed by short name. Each is the same object as the
+     * node of the campus graph at that location, if there is one.
+     */
+    private Map<String, Point> entrances;
+    private final RoutingEngine engine;
+
+    /**
+     * The number of parallel edges collapsed into a single edge when the campus graph was
+     * loaded.
+     */
+    private final int collapsedEdges;
+
+    /**
+     * Runs the parallel work of preprocessing each version of the campus graph.
+     */
+    private final ForkJoinPool preprocessingPool;
+
+    /**
+     * Creates a campus map that answers route queries with AStarAlg.
+     */
     public CampusMap() {
-        List<CampusBuilding> builds = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
-        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
-        campusGraph = new Graph<>();
+        this(RoutingEngine.ASTAR);
+    }
+
+    /**
+     * Creates a campus map that answers route queries with the given engine, without caching
+     * routes.
+     *
+     * @param engine The shortest-path algorithm used by findShortestPath.
+     */
+    public CampusMap(RoutingEngine engine) {
+        this(engine, 0);
+    }
+
+    /**
+     * Creates a campus map that answers route queries with the given engine and keeps up to
+     * routeCacheCapacity of the most recently used routes. If every path on the map can be
+     * walked both ways at the same cost, a cached route is also reused, reversed, for the
+     * opposite pair of buildings.
+     *
+     * @param engine             The shortest-path algorithm used by findShortestPath.
+     * @param routeCacheCapacity The most routes to cache, or 0 to disable the cache.
+     * @throws IllegalArgumentException if routeCacheCapacity is negative.
+     */
+    public CampusMap(RoutingEngine engine, int routeCacheCapacity) {
+        this(engine, routeCacheCapacity, CampusPathsParser.parseCampusBuildings(BUILDINGS_FILE),
+                points -> campusGraph(PATHS_FILE, points), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a campus map like CampusMap(engine, routeCacheCapacity), but parses the campus
+     * buildings and paths from files anywhere on the filesystem instead of from the data
+     * files on the classpath, so the data can be replaced without rebuilding.
+     *
+     * @param engine             The shortest-path algorithm used by findShortestPath.
+     * @param routeCacheCapacity The most routes to cache, or 0 to disable the cache.
+     * @param buildingsFile      A file in the format of campus_buildings.csv.
+     * @param pathsFile          A file in the format of campus_paths.csv.
+     * @throws IllegalArgumentException if routeCacheCapacity is negative.
+     * @throws CampusPathsParser.ParserException if either file cannot be read or parsed.
+     */
+    public CampusMap(RoutingEngine engine, int routeCacheCapacity,
+                     java.nio.file.Path buildingsFile, java.nio.file.Path pathsFile) {
+        this(engine, routeCacheCapacity, buildingsFile, pathsFile, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a campus map like CampusMap(engine, routeCacheCapacity, buildingsFile,
+     * pathsFile), but does all of its parallel work on the given pool instead of the common
+     * fork-join pool: parsing the paths file, and building the routing engine's preprocessed
+     * data for this and every later version of the campus graph. A small pool of low-priority
+     * threads lets a map be rebuilt in the background without slowing down the threads that
+     * answer queries on another map.
+     *
+     * @param engine             The shortest-path algorithm used by findShortestPath.
+     * @param routeCacheCapacity The most routes to cache, or 0 to disable the cache.
+     * @param buildingsFile      A file in the format of campus_buildings.csv.
+     * @param pathsFile          A file in the format of campus_paths.csv.
+     * @param pool               Runs the parallel work of loading and preprocessing.
+     * @throws IllegalArgumentException if routeCacheCapacity is negative.
+     * @throws CampusPathsParser.ParserException if either file cannot be read or parsed.
+     */
+    public CampusMap(RoutingEngine engine, int routeCacheCapacity,
+                     java.nio.file.Path buildingsFile, java.nio.file.Path pathsFile,
+                     ForkJoinPool pool) {
+        this(engine, routeCacheCapacity, CampusPathsParser.parseCampusBuildings(buildingsFile),
+                points -> campusGraph(pathsFile, points, pool), pool);
+    }
+
+    /**
+     * Builds a campus map from its buildings and a function that loads its campus graph,
+     * interning every node in the PointInterner it is given.
+     */
+    private CampusMap(RoutingEngine engine, int routeCacheCapacity,
+                      List<CampusBuilding> builds,
+                      Function<PointInterner, WeightedGraph<Point>> loadGraph,
+                      ForkJoinPool pool) {
+        this.engine = engine;
+        this.routeCacheCapacity = routeCacheCapacity;
+        this.preprocessingPool = pool;
+        PointInterner points = new PointInterner(COORDINATE_DIGITS);
+        WeightedGraph<Point> loaded = loadGraph.apply(points);
+        collapsedEdges = loaded.collapseParallelEdges();
+        GraphSnapshot<Point> campusGraph = GraphSnapshot.of(loaded);
+        addBuildings(builds, points);
+        current = prepare(campusGraph, new CsrGraph<>(campusGraph), null);
+    }
+
+    /**
+     * Creates a campus map like CampusMap(engine, routeCacheCapacity), but loads the campus
+     * graph and buildings from a file compiled by CampusGraphCompiler instead of parsing the
+     * CSV files. The file is memory-mapped and its arrays become the routing graph directly,
+     * so loading does not make an object per edge. CampusGraphCompiler collapses parallel
+     * edges before writing, so none are collapsed here.
+     *
+     * @param engine             The shortest-path algorithm used by findShortestPath.
+     * @param routeCacheCapacity The most routes to cache, or 0 to disable the cache.
+     * @param graphFile          The compiled campus graph.
+     * @throws IllegalArgumentException if routeCacheCapacity is negative.
+     * @throws CampusPathsParser.ParserException if graphFile cannot be read or is not a
+     *                                           compiled campus graph of the current format.
+     */
+    public CampusMap(RoutingEngine engine, int routeCacheCapacity,
+                     java.nio.file.Path graphFile) {
+        this.engine = engine;
+        this.routeCacheCapacity = routeCacheCapacity;
+        CampusGraphFile file = CampusGraphFile.read(graphFile);
+        collapsedEdges = 0;
+        preprocessingPool = ForkJoinPool.commonPool();
+        PointInterner points = new PointInterner(COORDINATE_DIGITS);
+        for (int id = 0; id < file.graph().size(); id++) {
+            points.intern(file.graph().node(id));
+        }
+        addBuildings(file.buildings(), points);
+        current = prepare(GraphSnapshot.of(file.graph()), file.graph(), null);
+    }
+
+    /**
+     * Builds the campus graph from a paths file, with one edge per path. Large files are
+     * parsed in parallel chunks; the edges are added on this thread, in file order. Every
+     * endpoint is interned in points, so each location of the graph is a single Point. A path
+     * listed more than once becomes parallel edges, which the caller should collapse.
+     */
+    static WeightedGraph<Point> campusGraph(String pathsFile, PointInterner points) {
+        WeightedGraph<Point> campusGraph = new WeightedGraph<>();
+        CampusPathsParser.parseCampusPathsInParallel(pathsFile, edgeAdder(campusGraph, points));
+        return campusGraph;
+    }
+
+    /**
+     * Builds the campus graph from a paths file on the filesystem, as
+     * campusGraph(String, PointInterner) builds it from one on the classpath, parsing on
+     * pool.
+     */
+    static WeightedGraph<Point> campusGraph(java.nio.file.Path pathsFile, PointInterner points,
+                                            ForkJoinPool pool) {
+        WeightedGraph<Point> campusGraph = new WeightedGraph<>();
+        CampusPathsParser.parseCampusPathsInParallel(pathsFile, pool,
+                edgeAdder(campusGraph, points));
+        return campusGraph;
+    }
+
+    private static CampusPathsParser.PathSink edgeAdder(WeightedGraph<Point> graph,
+                                                        PointInterner points) {
+        return (x1, y1, x2, y2, distance) ->
+                graph.addEdge(points.intern(x1, y1), points.intern(x2, y2), distance);
+    }
+
+    private void addBuildings(List<CampusBuilding> builds, PointInterner points) {
         buildings = new HashMap<>();
         buildingNames = new HashMap<>();
-        for (CampusPath path : paths) {
-            Point start = new Point(path.getX1(), path.getY1());
-            Point end = new Point(path.getX2(), path.getY2());
-            campusGraph.addEdge(start, end, path.getDistance());
-        }
+        entrances = new HashMap<>();
         for (CampusBuilding building : builds) {
             String shortName = building.getShortName();
             buildings.put(shortName, building);
             buildingNames.put(shortName, building.getLongName());
+            entrances.put(shortName, points.intern(building.getX(), building.getY()));
         }
     }
 
+    /**
+     * Applies a batch of edits to the campus graph and makes the result the version that new
+     * queries run on. The new version, and whatever the routing engine prepares for it, is
+     * built before the swap, so queries keep running on the old version meanwhile and are
+     * never paused. With ROUTE_TABLE, only the parts of each shortest-path tree that the
+     * edited edges affect are searched again. Cached routes that walk an edge that was
+     * removed or got dearer are dropped and the rest are kept, unless some edge got cheaper
+     * or was added, in which case every cached route is dropped. Edits from concurrent
+     * callers are applied one batch at a time.
+     *
+     * @param edits Makes the edits on an Editor that starts from the current version.
+     * @return The new version of the campus graph.
+     * @spec.requires edits only use the Editor it is given, and only during the call
+     * @spec.modifies this
+     * @spec.effects the current campus graph = the current campus graph with edits applied
+     */
+    public synchronized GraphSnapshot<Point> updateGraph(
+            Consumer<GraphSnapshot.Editor<Point>> edits) {
+        GraphSnapshot.Editor<Point> editor = current.graph.edit();
+        edits.accept(editor);
+        GraphSnapshot<Point> graph = editor.build();
+        RoutingState next = prepare(graph, new CsrGraph<>(graph, current.servingGraph), current);
+        // Dropping the affected routes both before and after the swap means no query on the
+        // new version sees one, whether it was cached before the edit or by a query still
+        // running on the old version; findShortestPath drops any such route cached after.
+        next.routeCache.invalidate(next.graph);
+        current = next;
+        next.routeCache.invalidate(next.graph);
+        return next.graph;
+    }
+
+    /**
+     * @return The version of the campus graph that new queries run on.
+     */
+    public GraphSnapshot<Point> currentGraph() {
+        return current.graph;
+    }
+
+    /**
+     * Builds what this map's routing engine needs to answer queries on the given version of
+     * the campus graph, whose CSR copy is servingGraph. If previous is the state of the
+     * version graph was derived from, servingGraph must keep its node ids, and route tables
+     * are repaired for the changed edges instead of rebuilt.
+     */
+    private RoutingState prepare(GraphSnapshot<Point> graph, CsrGraph<Point> servingGraph,
+                                 RoutingState previous) {
+        RoutingState state = new RoutingState(graph);
+        // The A* estimate is scaled by the smallest ratio of an edge's weight to the straight
+        // line it covers, so it stays admissible after edits change weights.
+        double scale = Double.POSITIVE_INFINITY;
+        for (Point parent : graph.getNodes()) {
+            double[] min = {scale};
+            graph.forEachEdge(parent, (child, weight) -> {
+                double straightLine = parent.distanceTo(child);
+                if (straightLine > 0) {
+                    min[0] = Math.min(min[0], weight / straightLine);
+                }
+            });
+            scale = min[0];
+        }
+        // Leave a little slack so rounding in the estimate can never overshoot a real distance.
+        state.heuristicScale = Double.isInfinite(scale) ? 0 : scale * (1 - 1e-9);
+        state.servingGraph = servingGraph;
+        state.components = new ComponentIndex<>(state.servingGraph);
+        if (engine == RoutingEngine.CONTRACTION_HIERARCHIES) {
+            state.hierarchy = new ContractionHierarchy<>(state.servingGraph, preprocessingPool);
+        }
+        if (engine == RoutingEngine.ROUTE_TABLE && previous != null) {
+            state.routeTable = previous.routeTable.repair(state.servingGraph,
+                    graph.changedEdges());
+        } else if (engine == RoutingEngine.ROUTE_TABLE) {
+            List<Point> entrances = new ArrayList<>();
+            for (String shortName : buildings.keySet()) {
+                entrances.add(entranceOf(shortName));
+            }
+            state.routeTable = new RouteTable<>(state.servingGraph, entrances,
+                    preprocessingPool);
+        }
+        state.symmetric = state.servingGraph.isSymmetric();
+        if (previous != null && previous.symmetric == state.symmetric) {
+            // The cache holds routes of the previous version; updateGraph drops the ones the
+            // edits affect.
+            state.routeCache = previous.routeCache;
+        } else {
+            state.routeCache = new RouteCache<>(routeCacheCapacity,
+                    state.symmetric ? Path::reversed : null);
+        }
+        return state;
+    }
+
+    /**
+     * @return A snapshot of the route cache's size and its hit, miss and eviction counters.
+     */
+    public RouteCache.Stats routeCacheStats() {
+        return current.routeCache.stats();
+    }
+
+    /**
+     * @return A one-line description of the routing engine and any preprocessing it did when
+     * this map was loaded, or when the current version of the campus graph was made, followed
+     * by how many parallel edges loading collapsed and how much memory the serving graph
+     * saves by being stored undirected.
+     */
+    public String loadSummary() {
+        RoutingState state = current;
+        return String.format("%s; %d parallel edges collapsed, undirected storage saves %d KiB",
+                engineSummary(state), collapsedEdges, state.servingGraph.savedBytes() / 1024);
+    }
+
+    private String engineSummary(RoutingState state) {
+        switch (engine) {
+            case CONTRACTION_HIERARCHIES:
+                return String.format("%s: preprocessing took %.1f ms and added %d shortcuts",
+                        engine, state.hierarchy.preprocessingMillis(),
+                        state.hierarchy.shortcutCount());
+            case ROUTE_TABLE:
+                if (state.graph.version() > 0) {
+                    return String.format("%s: repairing version %d took %.1f ms and "
+                                    + "searched %d tree entries again, table uses %d KiB",
+                            engine, state.graph.version(), state.routeTable.warmUpMillis(),
+                            state.routeTable.repairedNodes(),
+                            state.routeTable.tableBytes() / 1024);
+                }
+                return String.format("%s: warm-up took %.1f ms, table uses %d KiB",
+                        engine, state.routeTable.warmUpMillis(),
+                        state.routeTable.tableBytes() / 1024);
+            default:
+                return String.format("%s: %d nodes, %d edges", engine,
+                        state.servingGraph.size(), state.servingGraph.edgeCount());
+        }
+    }
+
+    private static ExecutorService newBatchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(BATCH_THREADS, BATCH_THREADS,
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(BATCH_THREADS * BATCH_WINDOW_PER_THREAD),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "campus-map-batch");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public boolean shortNameExists(String shortName) {
         return buildings.containsKey(shortName);
@@ -64,15 +426,193 @@ public class CampusMap implements ModelAPI<Point> {
 
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return findShortestPath(current, startShortName, endShortName);
+    }
+
+    private Path<Point> findShortestPath(RoutingState state, String startShortName,
+                                         String endShortName) {
         if (!buildings.containsKey(startShortName) || !buildings.containsKey(endShortName)) {
             throw new IllegalArgumentException();
         }
-        CampusBuilding start = buildings.get(startShortName);
-        CampusBuilding end = buildings.get(endShortName);
+        Point startPoint = entranceOf(startShortName);
+        Point endPoint = entranceOf(endShortName);
+        // Buildings the campus graph does not connect would otherwise cost the slowest search
+        // there is: one that explores everything reachable before giving up.
+        if (!state.components.mayReach(startPoint, endPoint)) {
+            return null;
+        }
+        Path<Point> cached = state.routeCache.get(startShortName, endShortName);
+        if (cached != null) {
+            return cached;
+        }
+        Path<Point> route = state.route(engine, startPoint, endPoint);
+        state.routeCache.put(startShortName, endShortName, route,
+                route == null ? List.of() : RouteCache.edgesOf(route));
+        if (current != state) {
+            // The graph was edited during the search, perhaps after the affected routes were
+            // dropped, so this route may be out of date.
+            state.routeCache.remove(startShortName, endShortName);
+        }
+        return route;
+    }
+
+    /**
+     * Searches for the pairs concurrently on a shared bounded pool, all on the
+     * same version of the campus graph. A pair that appears more
+     * than once is only searched once, and only a bounded window of searches per batch runs
+     * ahead of the path being delivered.
+     */
+    @Override
+    public void findShortestPaths(List<Map.Entry<String, String>> pairs,
+                                  Consumer<Path<Point>> results) {
+        for (Map.Entry<String, String> pair : pairs) {
+            if (!shortNameExists(pair.getKey()) || !shortNameExists(pair.getValue())) {
+                throw new IllegalArgumentException();
+            }
+        }
+        RoutingState state = current;
+        int window = BATCH_THREADS * BATCH_WINDOW_PER_THREAD;
+        Map<Map.Entry<String, String>, Future<Path<Point>>> searches = new HashMap<>();
+        Deque<Future<Path<Point>>> pending = new ArrayDeque<>();
+        for (Map.Entry<String, String> pair : pairs) {
+            Map.Entry<String, String> key = Map.entry(pair.getKey(), pair.getValue());
+            pending.add(searches.computeIfAbsent(key, k -> BATCH_EXECUTOR.submit(
+                    () -> findShortestPath(state, k.getKey(), k.getValue()))));
+            if (pending.size() >= window) {
+                results.accept(await(pending.remove()));
+            }
+        }
+        while (!pending.isEmpty()) {
+            results.accept(await(pending.remove()));
+        }
+    }
+
+    /**
+     * Runs one search per distinct start building, each stopping once every end building is
+     * settled, on the same bounded pool as batch queries.
+     */
+    @Override
+    public double[][] findShortestDistances(List<String> startShortNames,
+                                            List<String> endShortNames) {
+        for (String shortName : startShortNames) {
+            if (!shortNameExists(shortName)) {
+                throw new IllegalArgumentException();
+            }
+        }
+        List<Point> ends = new ArrayList<>(endShortNames.size());
+        for (String shortName : endShortNames) {
+            if (!shortNameExists(shortName)) {
+                throw new IllegalArgumentException();
+            }
+            ends.add(entranceOf(shortName));
+        }
+        RoutingState state = current;
+        Map<String, Future<double[]>> rows = new HashMap<>();
+        for (String shortName : startShortNames) {
+            rows.computeIfAbsent(shortName, name -> BATCH_EXECUTOR.submit(
+                    () -> IndexedDijkstraAlg.findMinCosts(entranceOf(name), ends,
+                            state.servingGraph, state.components)));
+        }
+        double[][] costs = new double[startShortNames.size()][];
+        for (int i = 0; i < costs.length; i++) {
+            // Rows for repeated start buildings are copies, so callers may modify any row.
+            double[] row = await(rows.get(startShortNames.get(i)));
+            costs[i] = Arrays.copyOf(row, row.length);
+        }
+        return costs;
+    }
+
+    private Point entranceOf(String shortName) {
+        return entrances.get(shortName);
+    }
+
+    private static <R> R await(Future<R> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * One version of the campus graph and what the routing engine prepared for it. The fields
+     * are only assigned by prepare, before the state is published.
+     */
+    private static final class RoutingState {
 
-        Point startPoint = new Point(start.getX(), start.getY());
-        Point endPoint = new Point(end.getX(), end.getY());
+        private final GraphSnapshot<Point> graph;
 
-        return DijkstraAlg.findMinCostPath(startPoint, endPoint, campusGraph);
+        /**
+         * The read-only CSR copy of graph that every engine except DIJKSTRA searches.
+         */
+        private CsrGraph<Point> servingGraph;
+
+        /**
+         * The components of servingGraph, which rule out most pairs with no route between
+         * them without a search.
+         */
+        private ComponentIndex<Point> components;
+
+        /**
+         * The preprocessed hierarchy used by CONTRACTION_HIERARCHIES, or null for other
+         * engines.
+         */
+        private ContractionHierarchy<Point> hierarchy;
+
+        /**
+         * The precomputed trees used by ROUTE_TABLE, or null for other engines.
+         */
+        private RouteTable<Point> routeTable;
+
+        /**
+         * Recently returned routes, keyed by the short names of their buildings. Shared with
+         * the previous version when both are symmetric or neither is.
+         */
+        private RouteCache<Path<Point>> routeCache;
+
+        /**
+         * Whether every edge of graph has a reverse edge of the same weight.
+         */
+        private boolean symmetric;
+
+        /**
+         * The largest factor by which straight-line distances can be scaled while staying
+         * below every edge weight in graph, which keeps the A* heuristic admissible.
+         */
+        private double heuristicScale;
+
+        private RoutingState(GraphSnapshot<Point> graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * Runs the given routing engine between two points on this version.
+         */
+        private Path<Point> route(RoutingEngine engine, Point startPoint, Point endPoint) {
+            switch (engine) {
+                case DIJKSTRA:
+                    return DijkstraAlg.findMinCostPath(startPoint, endPoint, graph);
+                case INDEXED_DIJKSTRA:
+                    return IndexedDijkstraAlg.findMinCostPath(startPoint, endPoint, servingGraph);
+                case ASTAR:
+                    return AStarAlg.findMinCostPath(startPoint, endPoint, servingGraph,
+                            p -> heuristicScale * p.distanceTo(endPoint));
+                case BIDIRECTIONAL:
+                    return BidirectionalAlg.findMinCostPath(startPoint, endPoint, servingGraph,
+                            (a, b) -> heuristicScale * a.distanceTo(b));
+                case CONTRACTION_HIERARCHIES:
+                    return hierarchy.findMinCostPath(startPoint, endPoint);
+                case ROUTE_TABLE:
+                    return routeTable.findMinCostPath(startPoint, endPoint);
+                default:
+                    throw new IllegalStateException("Unknown routing engine: " + engine);
+            }
+        }
     }
 }
@@ -0,0 +1,708 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A contraction hierarchy over a static CsrGraph. Preprocessing ranks every node and
+ * "contracts" the nodes in rank order: when a node is removed, a shortcut edge is added
+ * between each pair of its remaining neighbors whose shortest connection ran through it, unless
+ * a bounded witness search finds another path that is no longer. A query then only needs a
+ * forward search that climbs to higher-ranked nodes from the start and a backward search that
+ * climbs from the destination, which together settle a few dozen nodes instead of a large
+ * part of the graph. Shortcuts remember the two edges they replace, so a route is unpacked
+ * back into the original segments before it is returned.
+ *
+ * <p>Contraction proceeds in rounds. Each round contracts a set of nodes that are not
+ * adjacent to each other and whose priority is lower than every remaining neighbor's; their
+ * witness searches run in parallel, and the resulting shortcuts are then applied in one pass.
+ *
+ * @param <N> The type of the nodes in the graph.
+ */
+public class ContractionHierarchy<N> {
+
+    // AF(this) =
+    //      the contraction order of node i => rank[i]
+    //      every edge of the hierarchy, original or shortcut => edge ids [0, edgeFrom.length)
+    //      edge e goes from edgeFrom[e] to edgeTo[e] and costs edgeWeight[e]; if it is a
+    //          shortcut, it replaces edge skipFirst[e] followed by edge skipSecond[e],
+    //          otherwise skipFirst[e] == skipSecond[e] == -1
+    //      edges leaving node i towards higher ranks => upEdges[upOffsets[i] .. upOffsets[i+1])
+    //      edges entering node i from higher ranks => downEdges[downOffsets[i] .. downOffsets[i+1])
+
+    // Rep Invariant:
+    //      graph != null && rank is a permutation of [0, graph.size()) &&
+    //      for each e in upEdges at node i: edgeFrom[e] == i && rank[edgeTo[e]] > rank[i] &&
+    //      for each e in downEdges at node i: edgeTo[e] == i && rank[edgeFrom[e]] > rank[i]
+
+    /**
+     * The most nodes a single witness search may settle before giving up. Giving up only adds
+     * a shortcut that may not have been needed, so routes stay exact.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final CsrGraph<N> graph;
+    private final int[] rank;
+
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] skipFirst;
+    private final int[] skipSecond;
+
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    private final int shortcutCount;
+    private final long preprocessingNanos;
+
+    private final ThreadLocal<QuerySpace> querySpaces;
+
+    /**
+     * Builds a contraction hierarchy for the given graph, using the common fork-join pool for
+     * the witness searches.
+     *
+     * @param graph The graph to preprocess. Its edge weights must be non-negative.
+     */
+    public ContractionHierarchy(CsrGraph<N> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds a contraction hierarchy for the given graph, running the witness searches on the
+     * given pool.
+     *
+     * @param graph The graph to preprocess. Its edge weights must be non-negative.
+     * @param pool  Runs the parallel parts of preprocessing.
+     */
+    public ContractionHierarchy(CsrGraph<N> graph, ForkJoinPool pool) {
+        long begin = System.nanoTime();
+        this.graph = graph;
+        int n = graph.size();
+        Contractor contractor = new Contractor(graph, pool);
+        contractor.contractAll();
+
+        rank = contractor.rank;
+        edgeFrom = Arrays.copyOf(contractor.edgeFrom, contractor.edgeCount);
+        edgeTo = Arrays.copyOf(contractor.edgeTo, contractor.edgeCount);
+        edgeWeight = Arrays.copyOf(contractor.edgeWeight, contractor.edgeCount);
+        skipFirst = Arrays.copyOf(contractor.skipFirst, contractor.edgeCount);
+        skipSecond = Arrays.copyOf(contractor.skipSecond, contractor.edgeCount);
+        shortcutCount = contractor.edgeCount - contractor.originalEdgeCount;
+
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            upOffsets[i + 1] = upOffsets[i] + contractor.upward[i].size;
+            downOffsets[i + 1] = downOffsets[i] + contractor.downward[i].size;
+        }
+        upEdges = new int[upOffsets[n]];
+        downEdges = new int[downOffsets[n]];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(contractor.upward[i].edges, 0, upEdges, upOffsets[i],
+                    contractor.upward[i].size);
+            System.arraycopy(contractor.downward[i].edges, 0, downEdges, downOffsets[i],
+                    contractor.downward[i].size);
+        }
+        querySpaces = ThreadLocal.withInitial(() -> new QuerySpace(n));
+        preprocessingNanos = System.nanoTime() - begin;
+        checkRep();
+    }
+
+    /**
+     * @return The number of shortcut edges added during preprocessing.
+     */
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * @return How long preprocessing took, in milliseconds.
+     */
+    public double preprocessingMillis() {
+        return preprocessingNanos / 1e6;
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of the preprocessed graph.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @return A minimum-cost path from start to dest made of original edges, or
+     * {@literal null} if dest cannot be reached from start.
+     * @spec.requires start != null and dest != null
+     */
+    public Path<N> findMinCostPath(N start, N dest) {
+        int source = graph.idOf(start);
+        int target = graph.idOf(dest);
+        if (source == -1 || target == -1) {
+            return start.equals(dest) ? new Path<>(start) : null;
+        }
+        QuerySpace space = querySpaces.get();
+        try {
+            int meeting = space.search(source, target);
+            if (meeting == -1) {
+                return null;
+            }
+            return unpack(space, meeting);
+        } finally {
+            space.reset();
+        }
+    }
+
+    /**
+     * Expands the upward path from the source to meeting and the downward path from meeting to
+     * the target back into original edges.
+     */
+    private Path<N> unpack(QuerySpace space, int meeting) {
+        IntList route = new IntList();
+        for (int at = meeting; space.forwardEdge[at] != -1; at = edgeFrom[space.forwardEdge[at]]) {
+            route.add(space.forwardEdge[at]);
+        }
+        route.reverse();
+        for (int at = meeting; space.backwardEdge[at] != -1; at = edgeTo[space.backwardEdge[at]]) {
+            route.add(space.backwardEdge[at]);
+        }
+
+        List<N> points = new ArrayList<>();
+        IntList originals = new IntList();
+        IntList stack = new IntList();
+        for (int i = 0; i < route.size; i++) {
+            stack.add(route.values[i]);
+            while (stack.size > 0) {
+                int edge = stack.values[--stack.size];
+                if (skipFirst[edge] == -1) {
+                    originals.add(edge);
+                } else {
+                    stack.add(skipSecond[edge]);
+                    stack.add(skipFirst[edge]);
+                }
+            }
+        }
+        double[] costs = new double[originals.size];
+        for (int i = 0; i < originals.size; i++) {
+            int edge = originals.values[i];
+            points.add(graph.node(edgeTo[edge]));
+            costs[i] = edgeWeight[edge];
+        }
+        int first = originals.size == 0 ? meeting : edgeFrom[originals.values[0]];
+        return new Path<>(graph.node(first), points, costs);
+    }
+
+    private void checkRep() {
+        assert rank.length == graph.size();
+        for (int i = 0; i < graph.size(); i++) {
+            for (int j = upOffsets[i]; j < upOffsets[i + 1]; j++) {
+                assert edgeFrom[upEdges[j]] == i && rank[edgeTo[upEdges[j]]] > rank[i];
+            }
+            for (int j = downOffsets[i]; j < downOffsets[i + 1]; j++) {
+                assert edgeTo[downEdges[j]] == i && rank[edgeFrom[downEdges[j]]] > rank[i];
+            }
+        }
+    }
+
+    /**
+     * The reusable state of one query: distances and parent edges for both directions, with
+     * the ids touched by the query recorded so they can be reset without clearing the arrays.
+     */
+    private class QuerySpace {
+
+        private final double[] forwardDist;
+        private final double[] backwardDist;
+        private final int[] forwardEdge;
+        private final int[] backwardEdge;
+        private final IndexedMinHeap forwardHeap;
+        private final IndexedMinHeap backwardHeap;
+        private final IntList touched;
+
+        QuerySpace(int n) {
+            forwardDist = new double[n];
+            backwardDist = new double[n];
+            forwardEdge = new int[n];
+            backwardEdge = new int[n];
+            Arrays.fill(forwardDist, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardDist, Double.POSITIVE_INFINITY);
+            Arrays.fill(forwardEdge, -1);
+            Arrays.fill(backwardEdge, -1);
+            forwardHeap = new IndexedMinHeap(n);
+            backwardHeap = new IndexedMinHeap(n);
+            touched = new IntList();
+        }
+
+        /**
+         * Runs the upward forward search from source and the upward backward search from
+         * target, each until its smallest key can no longer improve the best meeting point.
+         *
+         * @return The node where the best route crosses from the forward to the backward
+         * search, or -1 if there is none.
+         */
+        int search(int source, int target) {
+            forwardDist[source] = 0;
+            backwardDist[target] = 0;
+            touched.add(source);
+            touched.add(target);
+            forwardHeap.insertOrDecrease(source, 0);
+            backwardHeap.insertOrDecrease(target, 0);
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+
+            while (true) {
+                boolean forwardLive = !forwardHeap.isEmpty() && forwardHeap.minKey() < best;
+                boolean backwardLive = !backwardHeap.isEmpty() && backwardHeap.minKey() < best;
+                if (!forwardLive && !backwardLive) {
+                    break;
+                }
+                boolean goForward = forwardLive
+                        && (!backwardLive || forwardHeap.minKey() <= backwardHeap.minKey());
+                int node;
+                if (goForward) {
+                    node = forwardHeap.removeMin();
+                    for (int j = upOffsets[node]; j < upOffsets[node + 1]; j++) {
+                        int edge = upEdges[j];
+                        relax(forwardDist, forwardEdge, forwardHeap, node, edgeTo[edge], edge);
+                    }
+                } else {
+                    node = backwardHeap.removeMin();
+                    for (int j = downOffsets[node]; j < downOffsets[node + 1]; j++) {
+                        int edge = downEdges[j];
+                        relax(backwardDist, backwardEdge, backwardHeap, node, edgeFrom[edge], edge);
+                    }
+                }
+                double through = forwardDist[node] + backwardDist[node];
+                if (through < best) {
+                    best = through;
+                    meeting = node;
+                }
+            }
+            return meeting;
+        }
+
+        private void relax(double[] dist, int[] parentEdge, IndexedMinHeap heap,
+                           int node, int next, int edge) {
+            double newDist = dist[node] + edgeWeight[edge];
+            if (newDist < dist[next]) {
+                if (forwardDist[next] == Double.POSITIVE_INFINITY
+                        && backwardDist[next] == Double.POSITIVE_INFINITY) {
+                    touched.add(next);
+                }
+                dist[next] = newDist;
+                parentEdge[next] = edge;
+                heap.insertOrDecrease(next, newDist);
+            }
+        }
+
+        /**
+         * Restores every array entry this query touched to its initial value.
+         */
+        void reset() {
+            for (int i = 0; i < touched.size; i++) {
+                int node = touched.values[i];
+                forwardDist[node] = Double.POSITIVE_INFINITY;
+                backwardDist[node] = Double.POSITIVE_INFINITY;
+                forwardEdge[node] = -1;
+                backwardEdge[node] = -1;
+            }
+            touched.size = 0;
+            forwardHeap.clear();
+            backwardHeap.clear();
+        }
+    }
+
+    /**
+     * The mutable state used while contracting: the remaining graph with its shortcuts, the
+     * priority of each remaining node, and the hierarchy edges recorded so far.
+     */
+    private static class Contractor {
+
+        private final int n;
+        private final int originalEdgeCount;
+        private final int[] rank;
+        private final boolean[] contracted;
+        private final boolean[] inRound;
+        private final int[] priority;
+        private final int[] deletedNeighbors;
+
+        // The remaining graph: edges among uncontracted nodes, by endpoint.
+        private final EdgeList[] out;
+        private final EdgeList[] in;
+
+        // The hierarchy: edges recorded for each node at the moment it was contracted.
+        private final EdgeList[] upward;
+        private final EdgeList[] downward;
+
+        private int edgeCount;
+        private int[] edgeFrom;
+        private int[] edgeTo;
+        private double[] edgeWeight;
+        private int[] skipFirst;
+        private int[] skipSecond;
+
+        private final ThreadLocal<WitnessSpace> witnessSpaces;
+        private final ForkJoinPool pool;
+
+        Contractor(CsrGraph<?> graph, ForkJoinPool pool) {
+            this.pool = pool;
+            n = graph.size();
+            rank = new int[n];
+            contracted = new boolean[n];
+            inRound = new boolean[n];
+            priority = new int[n];
+            deletedNeighbors = new int[n];
+            out = new EdgeList[n];
+            in = new EdgeList[n];
+            upward = new EdgeList[n];
+            downward = new EdgeList[n];
+            for (int i = 0; i < n; i++) {
+                out[i] = new EdgeList();
+                in[i] = new EdgeList();
+                upward[i] = new EdgeList();
+                downward[i] = new EdgeList();
+            }
+            int capacity = Math.max(16, graph.edgeCount() * 2);
+            edgeFrom = new int[capacity];
+            edgeTo = new int[capacity];
+            edgeWeight = new double[capacity];
+            skipFirst = new int[capacity];
+            skipSecond = new int[capacity];
+            for (int u = 0; u < n; u++) {
+                for (int i = 0; i < graph.outDegree(u); i++) {
+                    int v = graph.child(u, i);
+                    if (u != v) {
+                        addOrImprove(u, v, graph.weight(u, i), -1, -1);
+                    }
+                }
+            }
+            originalEdgeCount = edgeCount;
+            witnessSpaces = ThreadLocal.withInitial(() -> new WitnessSpace(n));
+        }
+
+        /**
+         * Contracts every node, in rounds of mutually non-adjacent nodes that are local
+         * minimums of the priority.
+         */
+        void contractAll() {
+            ParallelRange.forEach(pool, n, v -> priority[v] = computePriority(v));
+            int nextRank = 0;
+            int[] remaining = IntStream.range(0, n).toArray();
+            int remainingCount = n;
+            while (remainingCount > 0) {
+                IntList round = new IntList();
+                for (int i = 0; i < remainingCount; i++) {
+                    int v = remaining[i];
+                    if (isLocalMinimum(v)) {
+                        round.add(v);
+                    }
+                }
+                int[] nodes = Arrays.copyOf(round.values, round.size);
+                for (int v : nodes) {
+                    inRound[v] = true;
+                }
+                Shortcuts[] shortcuts = new Shortcuts[nodes.length];
+                ParallelRange.forEach(pool, nodes.length,
+                        i -> shortcuts[i] = findShortcuts(nodes[i]));
+
+                boolean[] touched = new boolean[n];
+                IntList neighbors = new IntList();
+                for (int i = 0; i < nodes.length; i++) {
+                    int v = nodes[i];
+                    rank[v] = nextRank++;
+                    contract(v, shortcuts[i], touched, neighbors);
+                }
+                int[] affected = Arrays.copyOf(neighbors.values, neighbors.size);
+                ParallelRange.forEach(pool, affected.length,
+                        i -> priority[affected[i]] = computePriority(affected[i]));
+
+                int kept = 0;
+                for (int i = 0; i < remainingCount; i++) {
+                    if (!contracted[remaining[i]]) {
+                        remaining[kept++] = remaining[i];
+                    }
+                }
+                remainingCount = kept;
+            }
+        }
+
+        /**
+         * @return {@literal true} iff v's priority (ties broken by id) is lower than that of
+         * every remaining neighbor.
+         */
+        private boolean isLocalMinimum(int v) {
+            for (EdgeList list : new EdgeList[] {out[v], in[v]}) {
+                for (int i = 0; i < list.size; i++) {
+                    int u = list.nodes[i];
+                    if (priority[u] < priority[v] || (priority[u] == priority[v] && u < v)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * The edge difference of contracting v (shortcuts added minus edges removed), plus the
+         * number of its neighbors already contracted, which spreads contraction evenly.
+         */
+        private int computePriority(int v) {
+            int shortcuts = findShortcuts(v).size;
+            return shortcuts - out[v].size - in[v].size + deletedNeighbors[v];
+        }
+
+        /**
+         * Finds the shortcuts contracting v would need. Nodes in the current round are
+         * treated as already removed, so no witness relies on a node that is being contracted
+         * at the same time.
+         */
+        private Shortcuts findShortcuts(int v) {
+            WitnessSpace space = witnessSpaces.get();
+            Shortcuts found = new Shortcuts();
+            EdgeList ins = in[v];
+            EdgeList outs = out[v];
+            for (int i = 0; i < ins.size; i++) {
+                int u = ins.nodes[i];
+                int first = ins.edges[i];
+                double maxCost = Double.NEGATIVE_INFINITY;
+                for (int j = 0; j < outs.size; j++) {
+                    if (outs.nodes[j] != u) {
+                        maxCost = Math.max(maxCost, edgeWeight[first] + edgeWeight[outs.edges[j]]);
+                    }
+                }
+                if (maxCost == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                space.search(u, v, maxCost);
+                for (int j = 0; j < outs.size; j++) {
+                    int w = outs.nodes[j];
+                    int second = outs.edges[j];
+                    double through = edgeWeight[first] + edgeWeight[second];
+                    if (w != u && space.dist[w] > through) {
+                        found.add(u, w, through, first, second);
+                    }
+                }
+                space.reset();
+            }
+            return found;
+        }
+
+        /**
+         * Removes v from the remaining graph: records its remaining edges in the hierarchy,
+         * adds its shortcuts, and collects its neighbors into neighbors.
+         */
+        private void contract(int v, Shortcuts shortcuts, boolean[] touched, IntList neighbors) {
+            for (int i = 0; i < out[v].size; i++) {
+                upward[v].add(out[v].nodes[i], out[v].edges[i]);
+                int w = out[v].nodes[i];
+                in[w].remove(v);
+                markNeighbor(w, touched, neighbors);
+            }
+            for (int i = 0; i < in[v].size; i++) {
+                downward[v].add(in[v].nodes[i], in[v].edges[i]);
+                int u = in[v].nodes[i];
+                out[u].remove(v);
+                markNeighbor(u, touched, neighbors);
+            }
+            for (int i = 0; i < shortcuts.size; i++) {
+                addOrImprove(shortcuts.from[i], shortcuts.to[i], shortcuts.weight[i],
+                        shortcuts.first[i], shortcuts.second[i]);
+            }
+            contracted[v] = true;
+            inRound[v] = false;
+        }
+
+        private void markNeighbor(int u, boolean[] touched, IntList neighbors) {
+            deletedNeighbors[u]++;
+            if (!touched[u]) {
+                touched[u] = true;
+                neighbors.add(u);
+            }
+        }
+
+        /**
+         * Adds the edge u -> v to the remaining graph, or lowers the weight of the existing
+         * u -> v edge if the new one is cheaper.
+         */
+        private void addOrImprove(int u, int v, double weight, int first, int second) {
+            int index = out[u].indexOf(v);
+            if (index != -1) {
+                int edge = out[u].edges[index];
+                if (weight < edgeWeight[edge]) {
+                    edgeWeight[edge] = weight;
+                    skipFirst[edge] = first;
+                    skipSecond[edge] = second;
+                }
+                return;
+            }
+            if (edgeCount == edgeFrom.length) {
+                int capacity = edgeCount * 2;
+                edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                edgeTo = Arrays.copyOf(edgeTo, capacity);
+                edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+                skipFirst = Arrays.copyOf(skipFirst, capacity);
+                skipSecond = Arrays.copyOf(skipSecond, capacity);
+            }
+            int edge = edgeCount++;
+            edgeFrom[edge] = u;
+            edgeTo[edge] = v;
+            edgeWeight[edge] = weight;
+            skipFirst[edge] = first;
+            skipSecond[edge] = second;
+            out[u].add(v, edge);
+            in[v].add(u, edge);
+        }
+
+        /**
+         * A bounded Dijkstra search over the remaining graph, reused by one thread for all of
+         * its witness searches.
+         */
+        private class WitnessSpace {
+
+            private final double[] dist;
+            private final IndexedMinHeap heap;
+            private final IntList touched;
+
+            WitnessSpace(int n) {
+                dist = new double[n];
+                Arrays.fill(dist, Double.POSITIVE_INFINITY);
+                heap = new IndexedMinHeap(n);
+                touched = new IntList();
+            }
+
+            /**
+             * Computes distances from source without passing through skipped, or through any
+             * node in the current round, up to maxCost or the settle limit.
+             */
+            void search(int source, int skipped, double maxCost) {
+                dist[source] = 0;
+                touched.add(source);
+                heap.insertOrDecrease(source, 0);
+                int settled = 0;
+                while (!heap.isEmpty() && heap.minKey() <= maxCost
+                        && settled < WITNESS_SETTLE_LIMIT) {
+                    int node = heap.removeMin();
+                    settled++;
+                    EdgeList edges = out[node];
+                    for (int i = 0; i < edges.size; i++) {
+                        int next = edges.nodes[i];
+                        if (next == skipped || inRound[next]) {
+                            continue;
+                        }
+                        double newDist = dist[node] + edgeWeight[edges.edges[i]];
+                        if (newDist < dist[next]) {
+                            if (dist[next] == Double.POSITIVE_INFINITY) {
+                                touched.add(next);
+                            }
+                            dist[next] = newDist;
+                            heap.insertOrDecrease(next, newDist);
+                        }
+                    }
+                }
+            }
+
+            void reset() {
+                for (int i = 0; i < touched.size; i++) {
+                    dist[touched.values[i]] = Double.POSITIVE_INFINITY;
+                }
+                touched.size = 0;
+                heap.clear();
+            }
+        }
+    }
+
+    /**
+     * A growable list of (neighbor, edge id) pairs.
+     */
+    private static class EdgeList {
+
+        private int[] nodes = new int[4];
+        private int[] edges = new int[4];
+        private int size;
+
+        void add(int node, int edge) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                edges = Arrays.copyOf(edges, size * 2);
+            }
+            nodes[size] = node;
+            edges[size] = edge;
+            size++;
+        }
+
+        int indexOf(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void remove(int node) {
+            int index = indexOf(node);
+            if (index != -1) {
+                size--;
+                nodes[index] = nodes[size];
+                edges[index] = edges[size];
+            }
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static class IntList {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void reverse() {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+    }
+
+    /**
+     * A growable list of candidate shortcuts: from[i] -> to[i] with weight weight[i], replacing
+     * edge first[i] followed by edge second[i].
+     */
+    private static class Shortcuts {
+
+        private int[] from = new int[4];
+        private int[] to = new int[4];
+        private double[] weight = new double[4];
+        private int[] first = new int[4];
+        private int[] second = new int[4];
+        private int size;
+
+        void add(int u, int w, double cost, int firstEdge, int secondEdge) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                first = Arrays.copyOf(first, size * 2);
+                second = Arrays.copyOf(second, size * 2);
+            }
+            from[size] = u;
+            to[size] = w;
+            weight[size] = cost;
+            first[size] = firstEdge;
+            second[size] = secondEdge;
+            size++;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package pathfinder;
 
 import graph.Graph;
+import graph.WeightedDigraph;
 import java.util.*;
 
-import graph.Edge;
 import pathfinder.datastructures.Path;
 
 public class DijkstraAlg {
 
     public static <N> Path<N> findMinCostPath(N start, N dest, Graph<N, Double> g) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g));
+    }
+
+    public static <N> Path<N> findMinCostPath(N start, N dest, WeightedDigraph<N> g) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g));
+    }
+
+    private static <N> Path<N> findMinCostPath(N start, N dest, Neighbors<N> children) {
 
         Queue<Path<N>> active = new PriorityQueue<>();
         active.add(new Path<>(start));
@@ -26,15 +34,15 @@ public class DijkstraAlg {
                 continue;
             }
 
-            for (Edge<N, Double> edge : g.getEdges(minDest)) {
-                N nextNode = edge.getChild();
+            children.forEach(minDest, (nextNode, cost) -> {
                 if (!finished.contains(nextNode)) {
-                    Path<N> newPath = minPath.extend(nextNode, edge.getLabel());
+                    Path<N> newPath = minPath.extend(nextNode, cost);
                     active.add(newPath);
                 }
-            }
+            });
             finished.add(minDest);
         }
-        return active.remove();
+        // Every node reachable from start is finished and dest was not one of them.
+        return null;
     }
 }
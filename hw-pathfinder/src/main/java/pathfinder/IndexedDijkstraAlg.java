@@ -0,0 +1,190 @@
+package pathfinder;
+
+import graph.ComponentIndex;
+import graph.CsrGraph;
+import graph.Graph;
+import graph.WeightedDigraph;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * Dijkstra's algorithm over per-node distance and parent arrays. Each node sits in an indexed
+ * heap at most once and has its key lowered in place, and the resulting Path is only built
+ * once the destination is settled, instead of copying a whole Path for every relaxation as
+ * DijkstraAlg does.
+ */
+public class IndexedDijkstraAlg {
+
+    /**
+     * Finds a minimum-cost path between two nodes of a graph with non-negative edge costs.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires start, dest and g are not null, and every edge label in g is non-negative
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, Graph<N, Double> g) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g));
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a WeightedDigraph with non-negative edge
+     * weights.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires start, dest and g are not null, and every edge weight in g is non-negative
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, WeightedDigraph<N> g) {
+        return findMinCostPath(start, dest, Neighbors.outOf(g));
+    }
+
+    private static <N> Path<N> findMinCostPath(N start, N dest, Neighbors<N> children) {
+        SearchTree<N> tree = new SearchTree<>(start);
+        tree.frontier.insertOrDecrease(0, 0);
+
+        while (!tree.frontier.isEmpty()) {
+            int minId = tree.frontier.removeMin();
+            N minNode = tree.node(minId);
+            tree.settle(minId);
+
+            if (minNode.equals(dest)) {
+                return tree.pathTo(minId);
+            }
+
+            children.forEach(minNode, (childNode, cost) -> {
+                int child = tree.idOf(childNode);
+                if (!tree.isSettled(child) && tree.relax(minId, child, cost)) {
+                    tree.frontier.insertOrDecrease(child, tree.dist(child));
+                }
+            });
+        }
+        return null;
+    }
+
+    /**
+     * Finds a minimum-cost path between two nodes of a CsrGraph with non-negative edge costs.
+     *
+     * @param start The node the path begins at.
+     * @param dest  The node the path ends at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @spec.requires start, dest and g are not null, and every edge weight in g is non-negative
+     */
+    public static <N> Path<N> findMinCostPath(N start, N dest, CsrGraph<N> g) {
+        int source = g.idOf(start);
+        int target = g.idOf(dest);
+        if (source == -1 || target == -1) {
+            return start.equals(dest) ? new Path<>(start) : null;
+        }
+        SearchTree<N> tree = new SearchTree<>(g, source);
+        tree.frontier.insertOrDecrease(source, 0);
+
+        while (!tree.frontier.isEmpty()) {
+            int minId = tree.frontier.removeMin();
+            tree.settle(minId);
+
+            if (minId == target) {
+                return tree.pathTo(minId);
+            }
+
+            for (int i = 0, degree = g.outDegree(minId); i < degree; i++) {
+                int child = g.child(minId, i);
+                if (!tree.isSettled(child) && tree.relax(minId, child, g.weight(minId, i))) {
+                    tree.frontier.insertOrDecrease(child, tree.dist(child));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the cost of a minimum-cost path from one node to each of several destinations of
+     * a CsrGraph, with a single search that stops once every destination is settled. No paths
+     * are built.
+     *
+     * @param start The node every path begins at.
+     * @param dests The nodes the paths end at.
+     * @param g     The graph to search.
+     * @param <N>   The type of the nodes in g.
+     * @return An array whose i-th element is the cost of a minimum-cost path from start to
+     * dests.get(i), or {@link Double#POSITIVE_INFINITY} if it cannot be reached. Each cost is
+     * exactly the cost of the path findMinCostPath returns for that destination.
+     * @spec.requires no argument is null, and every edge weight in g is non-negative
+     */
+    public static <N> double[] findMinCosts(N start, List<N> dests, CsrGraph<N> g) {
+        return findMinCosts(start, dests, g, null);
+    }
+
+    /**
+     * Finds the cost of a minimum-cost path from one node to each of several destinations of
+     * a CsrGraph, like findMinCosts(start, dests, g), except that destinations the components
+     * show to be unreachable are not searched for. Without them, one unreachable destination
+     * keeps the search going until everything reachable from start is settled.
+     *
+     * @param start      The node every path begins at.
+     * @param dests      The nodes the paths end at.
+     * @param g          The graph to search.
+     * @param components The components of g, or null to search for every destination.
+     * @param <N>        The type of the nodes in g.
+     * @return The same costs as findMinCosts(start, dests, g).
+     * @spec.requires start, dests and g are not null, components is null or was built for
+     * g, and every edge weight in g is non-negative
+     */
+    public static <N> double[] findMinCosts(N start, List<N> dests, CsrGraph<N> g,
+                                            ComponentIndex<N> components) {
+        double[] costs = new double[dests.size()];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        int source = g.idOf(start);
+        // The destination ids still to settle, and where each one goes in costs.
+        Map<Integer, List<Integer>> remaining = new HashMap<>();
+        for (int i = 0; i < costs.length; i++) {
+            N dest = dests.get(i);
+            int target = g.idOf(dest);
+            if (start.equals(dest)) {
+                costs[i] = 0;
+            } else if (source != -1 && target != -1
+                    && (components == null || components.mayReach(source, target))) {
+                remaining.computeIfAbsent(target, t -> new ArrayList<>()).add(i);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return costs;
+        }
+        SearchTree<N> tree = new SearchTree<>(g, source);
+        tree.frontier.insertOrDecrease(source, 0);
+
+        while (!tree.frontier.isEmpty()) {
+            int minId = tree.frontier.removeMin();
+            tree.settle(minId);
+
+            List<Integer> slots = remaining.remove(minId);
+            if (slots != null) {
+                for (int slot : slots) {
+                    costs[slot] = tree.dist(minId);
+                }
+                if (remaining.isEmpty()) {
+                    break;
+                }
+            }
+
+            for (int i = 0, degree = g.outDegree(minId); i < degree; i++) {
+                int child = g.child(minId, i);
+                if (!tree.isSettled(child) && tree.relax(minId, child, g.weight(minId, i))) {
+                    tree.frontier.insertOrDecrease(child, tree.dist(child));
+                }
+            }
+        }
+        return costs;
+    }
+}
@@ -14,7 +14,10 @@ package pathfinder;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /*
 In the pathfinder homework, the text user interface calls these methods to talk
@@ -71,4 +74,72 @@ public interface ModelAPI<T> {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 
+    /**
+     * Finds the shortest path between each of the given pairs of buildings, passing the paths
+     * to results in the same order as the pairs. Implementations may search for several pairs
+     * at once, but must still deliver the paths in order, one at a time, on the calling thread.
+     *
+     * @param pairs   The (start, end) short names of the buildings of each path to find.
+     * @param results Receives the path for each pair, or {@literal null} if the pair has no
+     *                path, in the order of pairs.
+     * @throws IllegalArgumentException if any short name is {@literal null} or not a valid
+     *                                  short name of a building in this campus map. In that
+     *                                  case results receives nothing.
+     */
+    public default void findShortestPaths(List<Map.Entry<String, String>> pairs,
+                                          Consumer<Path<T>> results) {
+        for (Map.Entry<String, String> pair : pairs) {
+            if (!shortNameExists(pair.getKey()) || !shortNameExists(pair.getValue())) {
+                throw new IllegalArgumentException();
+            }
+        }
+        for (Map.Entry<String, String> pair : pairs) {
+            results.accept(findShortestPath(pair.getKey(), pair.getValue()));
+        }
+    }
+
+    /**
+     * Finds the shortest path between each of the given pairs of buildings.
+     *
+     * @param pairs The (start, end) short names of the buildings of each path to find.
+     * @return The path for each pair, or {@literal null} for pairs with no path, in the order
+     * of pairs.
+     * @throws IllegalArgumentException if any short name is {@literal null} or not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public default List<Path<T>> findShortestPaths(List<Map.Entry<String, String>> pairs) {
+        List<Path<T>> paths = new ArrayList<>(pairs.size());
+        findShortestPaths(pairs, paths::add);
+        return paths;
+    }
+
+    /**
+     * Finds the cost of the shortest path from each of the start buildings to each of the end
+     * buildings, without building the paths themselves.
+     *
+     * @param startShortNames The short names of the buildings the paths begin at.
+     * @param endShortNames   The short names of the buildings the paths end at.
+     * @return A matrix with one row per start building and one column per end building, whose
+     * element [i][j] is the cost of findShortestPath(startShortNames.get(i),
+     * endShortNames.get(j)), or {@link Double#POSITIVE_INFINITY} if that path does not exist.
+     * @throws IllegalArgumentException if any short name is {@literal null} or not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public default double[][] findShortestDistances(List<String> startShortNames,
+                                                    List<String> endShortNames) {
+        for (String shortName : endShortNames) {
+            if (!shortNameExists(shortName)) {
+                throw new IllegalArgumentException();
+            }
+        }
+        double[][] costs = new double[startShortNames.size()][endShortNames.size()];
+        for (int i = 0; i < costs.length; i++) {
+            for (int j = 0; j < costs[i].length; j++) {
+                Path<T> path = findShortestPath(startShortNames.get(i), endShortNames.get(j));
+                costs[i][j] = path == null ? Double.POSITIVE_INFINITY : path.getCost();
+            }
+        }
+        return costs;
+    }
+
 }
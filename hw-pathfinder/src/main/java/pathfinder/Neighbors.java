@@ -0,0 +1,51 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.WeightedDigraph;
+
+/**
+ * The edges a search follows out of a node, each given as the node at the other end and a
+ * primitive weight. This lets one search loop run over a Graph&lt;N, Double&gt; or a
+ * WeightedDigraph, forwards or backwards, without copying edges.
+ *
+ * @param <N> The type of the nodes.
+ */
+@FunctionalInterface
+interface Neighbors<N> {
+
+    /**
+     * Visits every edge the search can follow out of node.
+     *
+     * @param node    The node being expanded.
+     * @param visitor Called once per edge with the node at its other end and its weight.
+     */
+    void forEach(N node, Graph.EdgeVisitor<? super N> visitor);
+
+    /**
+     * @return The outgoing edges of g.
+     */
+    static <N> Neighbors<N> outOf(Graph<N, Double> g) {
+        return (node, visitor) -> g.forEachEdge(node, Double::doubleValue, visitor);
+    }
+
+    /**
+     * @return The incoming edges of g.
+     */
+    static <N> Neighbors<N> into(Graph<N, Double> g) {
+        return (node, visitor) -> g.forEachIncomingEdge(node, Double::doubleValue, visitor);
+    }
+
+    /**
+     * @return The outgoing edges of g.
+     */
+    static <N> Neighbors<N> outOf(WeightedDigraph<N> g) {
+        return g::forEachEdge;
+    }
+
+    /**
+     * @return The incoming edges of g.
+     */
+    static <N> Neighbors<N> into(WeightedDigraph<N> g) {
+        return g::forEachIncomingEdge;
+    }
+}
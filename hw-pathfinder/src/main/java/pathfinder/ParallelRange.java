@@ -0,0 +1,76 @@
+package pathfinder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a loop over the indices [0, count) in parallel on a given fork-join pool, as a parallel
+ * IntStream would on the common pool, so that the caller chooses which threads do the work.
+ */
+final class ParallelRange {
+
+    // This class does not represent an ADT.
+
+    /**
+     * How many pieces the range is split into per thread of the pool, so that threads that
+     * finish early can take over the remaining pieces.
+     */
+    private static final int PIECES_PER_THREAD = 4;
+
+    private ParallelRange() {
+    }
+
+    /**
+     * Runs body once for every index in [0, count), in no particular order, on pool, and
+     * returns once every call has returned.
+     *
+     * @param pool  Runs the calls.
+     * @param count The number of indices.
+     * @param body  The loop body, which is given an index.
+     * @throws RuntimeException if a call of body throws one; the other calls may or may not
+     *                          have run.
+     * @spec.requires pool != null, count >= 0, body != null
+     */
+    static void forEach(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count == 0) {
+            return;
+        }
+        int grain = Math.max(1, count / (PIECES_PER_THREAD * pool.getParallelism()));
+        pool.invoke(new RangeAction(0, count, grain, body));
+    }
+
+    /**
+     * Runs the loop body over [start, end), splitting the range in half until the pieces are
+     * at most grain long.
+     */
+    private static final class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int grain;
+        private final transient IntConsumer body;
+
+        private RangeAction(int start, int end, int grain, IntConsumer body) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= grain) {
+                for (int i = start; i < end; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new RangeAction(start, middle, grain, body),
+                    new RangeAction(middle, end, grain, body));
+        }
+    }
+}
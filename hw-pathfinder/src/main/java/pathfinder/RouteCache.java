@@ -0,0 +1,482 @@
+package pathfinder;
+
+import graph.GraphSnapshot;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * A size-bounded cache of routes keyed by (start, end) building names, safe to share between
+ * threads. Entries are split across independently locked segments, each evicting its least
+ * recently used entry once full, so concurrent lookups of different pairs rarely wait on each
+ * other. Eviction is therefore least recently used within each segment, not across the whole
+ * cache: a full segment evicts its own oldest entry even if another segment holds older ones.
+ * The segments' capacities add up to the cache's capacity exactly.
+ *
+ * <p>If the cache is given a reverser, a lookup of (b, a) that misses can be answered by
+ * reversing a cached (a, b) entry. This is only correct when every route can be walked
+ * backwards at the same cost.
+ *
+ * <p>Each route can be cached with the things it depends on, such as the edges it walks. The
+ * cache keeps a reverse index from each dependency to the routes that depend on it, so when
+ * part of the graph changes only the routes through it are dropped.
+ *
+ * @param <V> The type of the cached routes.
+ */
+public class RouteCache<V> {
+
+    // AF(this) = the route cached for (start, end) => the route of the entry mapped to
+    //                Key(start, end) in segments.get(segmentOf(Key(start, end)))
+    //            the most recently used entries of a segment => the last entries of its map
+    //            the routes that depend on d => the keys in dependents.get(d)
+    //
+    // Rep Invariant:
+    //      segments != null && dependents != null &&
+    //      segmentCapacities.length == segments.size() &&
+    //      the elements of segmentCapacities sum to capacity and differ by at most 1 &&
+    //      segments.get(i) holds at most segmentCapacities[i] entries &&
+    //      every key lives in the segment chosen by segmentOf &&
+    //      no key or value in any segment is null &&
+    //      once no call is in progress, k is in dependents.get(d) iff the entry of k lists d
+    //      among its dependencies
+
+    /**
+     * The most segments a cache is split into.
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    private final int capacity;
+    private final int[] segmentCapacities;
+    private final List<LinkedHashMap<Key, Cached<V>>> segments;
+    private final UnaryOperator<V> reverser;
+
+    /**
+     * The keys of the cached routes that depend on each dependency. A key set is only changed
+     * inside a compute on its dependency, so it needs no lock of its own.
+     */
+    private final ConcurrentHashMap<Object, Set<Key>> dependents;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder reverseHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates an empty cache that only answers lookups of exactly the pair that was stored.
+     *
+     * @param capacity The most routes this cache holds. A capacity of 0 caches nothing.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public RouteCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Creates an empty cache that answers a lookup of (b, a) by applying reverser to a cached
+     * (a, b) route.
+     *
+     * @param capacity The most routes this cache holds. A capacity of 0 caches nothing.
+     * @param reverser Turns a route from a to b into the route from b to a, or null to
+     *                 disable serving reversed routes.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public RouteCache(int capacity, UnaryOperator<V> reverser) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Cache capacity must not be negative.");
+        }
+        this.capacity = capacity;
+        this.reverser = reverser;
+        int segmentCount = Math.min(MAX_SEGMENTS, capacity);
+        this.segmentCapacities = new int[segmentCount];
+        this.segments = new ArrayList<>(segmentCount);
+        this.dependents = new ConcurrentHashMap<>();
+        for (int i = 0; i < segmentCount; i++) {
+            // The first capacity % segmentCount segments take one of the leftover slots each.
+            int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+            segmentCapacities[i] = segmentCapacity;
+            segments.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Cached<V>> eldest) {
+                    if (size() > segmentCapacity) {
+                        evictions.increment();
+                        unlink(eldest.getKey(), eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            });
+        }
+        checkRep();
+    }
+
+    /**
+     * Looks up the route for a pair, counting a hit or a miss.
+     *
+     * @param start The name of the building the route starts at.
+     * @param end   The name of the building the route ends at.
+     * @return The cached route from start to end, a reversed cached route from end to start,
+     * or null if neither is cached.
+     * @spec.modifies this
+     * @spec.effects marks the entry that was used as the most recently used
+     */
+    public V get(String start, String end) {
+        V value = lookup(new Key(start, end));
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        if (reverser != null) {
+            V opposite = lookup(new Key(end, start));
+            if (opposite != null) {
+                reverseHits.increment();
+                return reverser.apply(opposite);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the route for a pair, evicting the least recently used route of its segment if
+     * the segment is full.
+     *
+     * @param start The name of the building the route starts at.
+     * @param end   The name of the building the route ends at.
+     * @param route The route from start to end. Null routes are not cached.
+     * @spec.modifies this
+     */
+    public void put(String start, String end, V route) {
+        put(start, end, route, List.of());
+    }
+
+    /**
+     * Caches the route for a pair along with what it depends on, evicting the least recently
+     * used route of its segment if the segment is full. The route is dropped by any later
+     * call to invalidate with one of its dependencies.
+     *
+     * @param start        The name of the building the route starts at.
+     * @param end          The name of the building the route ends at.
+     * @param route        The route from start to end. Null routes are not cached.
+     * @param dependencies The things that, if they change, make route wrong. Their equals
+     *                     and hashCode must be by value.
+     * @spec.requires dependencies != null and holds no null element
+     * @spec.modifies this
+     */
+    public void put(String start, String end, V route, Collection<?> dependencies) {
+        if (route == null || segments.isEmpty()) {
+            return;
+        }
+        Key key = new Key(start, end);
+        Cached<V> entry = new Cached<>(route, dependencies.toArray());
+        Map<Key, Cached<V>> segment = segmentOf(key);
+        synchronized (segment) {
+            Cached<V> replaced = segment.put(key, entry);
+            if (replaced != null) {
+                unlink(key, replaced);
+            }
+            for (Object dependency : entry.dependencies) {
+                dependents.compute(dependency, (d, keys) -> {
+                    Set<Key> linked = keys == null ? new HashSet<>() : keys;
+                    linked.add(key);
+                    return linked;
+                });
+            }
+        }
+    }
+
+    /**
+     * Removes the cached route for a pair, if there is one. A reversed route cached for the
+     * opposite pair is not removed.
+     *
+     * @param start The name of the building the route starts at.
+     * @param end   The name of the building the route ends at.
+     * @spec.modifies this
+     */
+    public void remove(String start, String end) {
+        if (segments.isEmpty()) {
+            return;
+        }
+        Key key = new Key(start, end);
+        Map<Key, Cached<V>> segment = segmentOf(key);
+        synchronized (segment) {
+            Cached<V> removed = segment.remove(key);
+            if (removed != null) {
+                unlink(key, removed);
+            }
+        }
+    }
+
+    /**
+     * Removes every cached route that was put with at least one of the given dependencies.
+     * Routes cached without dependencies are kept.
+     *
+     * @param changed The dependencies that changed.
+     * @return The number of routes removed.
+     * @spec.modifies this
+     */
+    public int invalidate(Collection<?> changed) {
+        int removed = 0;
+        for (Object dependency : changed) {
+            Set<Key> keys = dependents.remove(dependency);
+            if (keys == null) {
+                continue;
+            }
+            for (Key key : keys) {
+                Map<Key, Cached<V>> segment = segmentOf(key);
+                synchronized (segment) {
+                    Cached<V> entry = segment.remove(key);
+                    if (entry != null) {
+                        unlink(key, entry);
+                        removed++;
+                    }
+                }
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    /**
+     * Removes every route cached for the previous version of a graph that may not be a
+     * shortest route in the given version. If some edge of version got cheaper or was added,
+     * any route may now have a shorter alternative, so every route is removed. Otherwise only
+     * the routes put with {@link #edgesOf(Path)} that walk a pair whose edges got dearer or
+     * were removed, in either direction, are removed.
+     *
+     * @param version The new version of the graph the cached routes were found on.
+     * @return The number of routes removed.
+     * @spec.modifies this
+     */
+    public int invalidate(GraphSnapshot<?> version) {
+        if (!version.loweredEdges().isEmpty()) {
+            int size = stats().getSize();
+            clear();
+            invalidations.add(size);
+            return size;
+        }
+        Set<Map.Entry<?, ?>> changed = new LinkedHashSet<>();
+        for (Map.Entry<?, ?> pair : version.raisedEdges()) {
+            changed.add(pair);
+            changed.add(Map.entry(pair.getValue(), pair.getKey()));
+        }
+        return invalidate(changed);
+    }
+
+    /**
+     * @param route A route.
+     * @param <T>   The type of the points on the route.
+     * @return The (start, end) pair of every segment of route, to cache route with so that
+     * invalidate can find it when one of those edges changes.
+     */
+    public static <T> Set<Map.Entry<T, T>> edgesOf(Path<T> route) {
+        Set<Map.Entry<T, T>> edges = new LinkedHashSet<>();
+        for (Path<T>.Segment segment : route) {
+            edges.add(Map.entry(segment.getStart(), segment.getEnd()));
+        }
+        return edges;
+    }
+
+    /**
+     * Removes every cached route.
+     *
+     * @spec.modifies this
+     */
+    public void clear() {
+        for (Map<Key, Cached<V>> segment : segments) {
+            synchronized (segment) {
+                for (Map.Entry<Key, Cached<V>> entry : segment.entrySet()) {
+                    unlink(entry.getKey(), entry.getValue());
+                }
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Removes key from the reverse index of every dependency of its entry. Called while
+     * holding the lock of key's segment.
+     */
+    private void unlink(Key key, Cached<V> entry) {
+        for (Object dependency : entry.dependencies) {
+            dependents.computeIfPresent(dependency, (d, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * @return A snapshot of this cache's size and counters.
+     */
+    public Stats stats() {
+        int size = 0;
+        for (Map<Key, Cached<V>> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new Stats(capacity, size, hits.sum(), reverseHits.sum(), misses.sum(),
+                evictions.sum(), invalidations.sum());
+    }
+
+    private V lookup(Key key) {
+        if (segments.isEmpty()) {
+            return null;
+        }
+        Map<Key, Cached<V>> segment = segmentOf(key);
+        synchronized (segment) {
+            Cached<V> entry = segment.get(key);
+            return entry == null ? null : entry.route;
+        }
+    }
+
+    private Map<Key, Cached<V>> segmentOf(Key key) {
+        // Pairs of similar names have hash codes that differ mostly in their high bits, so
+        // fold those into the low bits that pick the segment.
+        int h = key.hashCode() * 0x9E3779B9;
+        return segments.get(Math.floorMod(h ^ (h >>> 16), segments.size()));
+    }
+
+    private void checkRep() {
+        assert segments != null && dependents != null;
+        assert segmentCapacities.length == segments.size();
+        int total = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            total += segmentCapacities[i];
+            assert segments.get(i).size() <= segmentCapacities[i];
+        }
+        assert total == capacity;
+    }
+
+    /**
+     * A (start, end) pair of building names.
+     */
+    private static final class Key {
+        private final String start;
+        private final String end;
+
+        private Key(String start, String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return start.equals(other.start) && end.equals(other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, end);
+        }
+    }
+
+    /**
+     * A cached route and what it depends on.
+     */
+    private static final class Cached<V> {
+        private final V route;
+        private final Object[] dependencies;
+
+        private Cached(V route, Object[] dependencies) {
+            this.route = route;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * An immutable snapshot of a cache's counters, for sizing the cache.
+     */
+    public static final class Stats {
+        private final int capacity;
+        private final int size;
+        private final long hits;
+        private final long reverseHits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+
+        private Stats(int capacity, int size, long hits, long reverseHits, long misses,
+                      long evictions, long invalidations) {
+            this.capacity = capacity;
+            this.size = size;
+            this.hits = hits;
+            this.reverseHits = reverseHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        /**
+         * @return The most routes the cache holds.
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * @return The number of routes the cache held when this snapshot was taken.
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return The number of lookups answered by a route cached for the same pair.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return The number of lookups answered by reversing the route of the opposite pair.
+         */
+        public long getReverseHits() {
+            return reverseHits;
+        }
+
+        /**
+         * @return The number of lookups the cache could not answer.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return The number of routes dropped to make room for newer ones.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return The number of routes dropped because something they depend on changed.
+         */
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d routes, %d hits, %d reversed hits, %d misses, "
+                    + "%d evictions, %d invalidations", size, capacity, hits, reverseHits,
+                    misses, evictions, invalidations);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A table of precomputed shortest-path trees, one per source node. Each tree is stored as a
+ * predecessor array and a distance array over the graph's node ids, so a route out of a source
+ * is found by walking predecessors back from the destination without running any search. The
+ * trees are built in parallel when the table is created, and can be repaired for a newer
+ * version of the graph by re-searching only the parts of each tree the changed edges affect.
+ *
+ * @param <N> The type of the nodes in the graph.
+ */
+public class RouteTable<N> {
+
+    // AF(this) =
+    //      the sources with a tree => the keys of sourceIndex
+    //      the node before node v on the shortest path from source s => parents[sourceIndex(s)][v],
+    //          or -1 if v is s itself or cannot be reached from s
+    //      the cost of that path => dists[sourceIndex(s)][v], or +infinity if v cannot be
+    //          reached from s
+
+    // Rep Invariant:
+    //      graph != null && sourceIndex != null && parents != null && dists != null &&
+    //      pool != null &&
+    //      parents.length == dists.length &&
+    //      every value of sourceIndex is a valid index into parents &&
+    //      parents[i] == null iff dists[i] == null &&
+    //      every non-null parents[i] and dists[i] has length graph.size()
+
+    private final CsrGraph<N> graph;
+    private final Map<N, Integer> sourceIndex;
+    private final int[][] parents;
+    private final double[][] dists;
+    private final long warmUpNanos;
+    private final long repairedNodes;
+
+    /**
+     * Builds and repairs the trees.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Builds a shortest-path tree out of every given source, on the common fork-join pool.
+     * Sources that are not nodes of graph get an empty tree, from which only the source itself
+     * is reachable.
+     *
+     * @param graph   The graph to route over. Its edge weights must be non-negative.
+     * @param sources The nodes routes can start from.
+     */
+    public RouteTable(CsrGraph<N> graph, Collection<N> sources) {
+        this(graph, sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds a shortest-path tree out of every given source, as
+     * RouteTable(graph, sources) does, but on the given pool. Repairs of this table run on
+     * the same pool.
+     *
+     * @param graph   The graph to route over. Its edge weights must be non-negative.
+     * @param sources The nodes routes can start from.
+     * @param pool    Builds and repairs the trees.
+     */
+    public RouteTable(CsrGraph<N> graph, Collection<N> sources, ForkJoinPool pool) {
+        long begin = System.nanoTime();
+        this.graph = graph;
+        this.pool = pool;
+        this.sourceIndex = new HashMap<>();
+        List<N> order = new ArrayList<>();
+        for (N source : sources) {
+            if (!sourceIndex.containsKey(source)) {
+                sourceIndex.put(source, order.size());
+                order.add(source);
+            }
+        }
+        parents = new int[order.size()][];
+        dists = new double[order.size()][];
+        ParallelRange.forEach(pool, order.size(), i -> {
+            int id = graph.idOf(order.get(i));
+            if (id != -1) {
+                parents[i] = new int[graph.size()];
+                dists[i] = new double[graph.size()];
+                shortestPathTree(graph, id, parents[i], dists[i]);
+            }
+        });
+        warmUpNanos = System.nanoTime() - begin;
+        repairedNodes = 0;
+        checkRep();
+    }
+
+    /**
+     * Repairs the trees of previous for a newer version of its graph.
+     */
+    private RouteTable(RouteTable<N> previous, CsrGraph<N> graph,
+                       Collection<Map.Entry<N, N>> changed) {
+        long begin = System.nanoTime();
+        this.graph = graph;
+        this.pool = previous.pool;
+        this.sourceIndex = previous.sourceIndex;
+        int trees = previous.parents.length;
+        parents = new int[trees][];
+        dists = new double[trees][];
+        // The changed edges as (parent id, child id) pairs in graph.
+        int[][] edges = new int[changed.size()][];
+        int e = 0;
+        for (Map.Entry<N, N> edge : changed) {
+            edges[e++] = new int[]{graph.idOf(edge.getKey()), graph.idOf(edge.getValue())};
+        }
+        long[] repaired = new long[trees];
+        Map<Integer, N> sources = new HashMap<>();
+        for (Map.Entry<N, Integer> entry : sourceIndex.entrySet()) {
+            sources.put(entry.getValue(), entry.getKey());
+        }
+        ParallelRange.forEach(pool, trees, i -> {
+            int id = graph.idOf(sources.get(i));
+            if (id == -1) {
+                return;
+            }
+            if (previous.parents[i] == null) {
+                parents[i] = new int[graph.size()];
+                dists[i] = new double[graph.size()];
+                shortestPathTree(graph, id, parents[i], dists[i]);
+                repaired[i] = graph.size();
+                return;
+            }
+            repaired[i] = repairTree(previous.graph, previous.parents[i], previous.dists[i],
+                    graph, edges, i);
+        });
+        long total = 0;
+        for (long count : repaired) {
+            total += count;
+        }
+        repairedNodes = total;
+        warmUpNanos = System.nanoTime() - begin;
+        checkRep();
+    }
+
+    /**
+     * Creates a table with the same sources as this one for a newer version of its graph.
+     * Each tree is repaired rather than rebuilt: the parts of a tree hanging below an edge
+     * that was removed or became more expensive are cut off and searched again from the rest
+     * of the tree, and nodes that an added or cheaper edge brings closer are improved from
+     * that edge outward. A tree that no change affects is shared with this table. This table
+     * is not changed, so routes already being read from it stay valid.
+     *
+     * @param newGraph A CSR copy of the newer graph made with
+     *                 {@link CsrGraph#CsrGraph(graph.WeightedDigraph, CsrGraph)} from this
+     *                 table's graph, so every node keeps its id.
+     * @param changed  Every (parent, child) pair whose edges differ between this table's
+     *                 graph and newGraph.
+     * @return A table whose trees are shortest-path trees of newGraph.
+     * @spec.requires every edge weight in newGraph is non-negative
+     */
+    public RouteTable<N> repair(CsrGraph<N> newGraph, Collection<Map.Entry<N, N>> changed) {
+        return new RouteTable<>(this, newGraph, changed);
+    }
+
+    /**
+     * Repairs tree i of oldGraph for graph, storing the result in parents[i] and dists[i].
+     *
+     * @return The number of nodes whose tree entries were searched again.
+     */
+    private long repairTree(CsrGraph<N> oldGraph, int[] oldParent, double[] oldDist,
+                            CsrGraph<N> graph, int[][] edges, int i) {
+        int oldN = oldParent.length;
+        int n = graph.size();
+        // Removed or more expensive edges that the tree used, and added or cheaper edges.
+        List<int[]> raised = new ArrayList<>();
+        List<int[]> lowered = new ArrayList<>();
+        for (int[] edge : edges) {
+            int u = edge[0];
+            int v = edge[1];
+            if (u == -1 || v == -1) {
+                continue;
+            }
+            double before = u < oldN && v < oldN
+                    ? edgeCost(oldGraph, u, v) : Double.POSITIVE_INFINITY;
+            double after = edgeCost(graph, u, v);
+            if (after > before && oldParent[v] == u) {
+                raised.add(edge);
+            } else if (after < before) {
+                lowered.add(edge);
+            }
+        }
+        if (raised.isEmpty() && lowered.isEmpty() && n == oldN) {
+            parents[i] = oldParent;
+            dists[i] = oldDist;
+            return 0;
+        }
+        int[] parent = Arrays.copyOf(oldParent, n);
+        double[] dist = Arrays.copyOf(oldDist, n);
+        Arrays.fill(parent, oldN, n, -1);
+        Arrays.fill(dist, oldN, n, Double.POSITIVE_INFINITY);
+
+        // Cut off every subtree below a raised edge, found through the old graph's edges.
+        boolean[] cut = new boolean[n];
+        List<Integer> cutNodes = new ArrayList<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int[] edge : raised) {
+            if (!cut[edge[1]]) {
+                cut[edge[1]] = true;
+                stack.push(edge[1]);
+            }
+        }
+        while (!stack.isEmpty()) {
+            int node = stack.pop();
+            cutNodes.add(node);
+            for (int j = 0, degree = oldGraph.outDegree(node); j < degree; j++) {
+                int child = oldGraph.child(node, j);
+                if (!cut[child] && oldParent[child] == node) {
+                    cut[child] = true;
+                    stack.push(child);
+                }
+            }
+        }
+        for (int node : cutNodes) {
+            parent[node] = -1;
+            dist[node] = Double.POSITIVE_INFINITY;
+        }
+
+        // Seed the search with the best way into each cut node from the rest of the tree, and
+        // with every added or cheaper edge that improves on the tree.
+        IndexedMinHeap frontier = new IndexedMinHeap(n);
+        for (int node : cutNodes) {
+            for (int j = 0, degree = graph.inDegree(node); j < degree; j++) {
+                int from = graph.parent(node, j);
+                double newDist = dist[from] + graph.inWeight(node, j);
+                if (!cut[from] && newDist < dist[node]) {
+                    dist[node] = newDist;
+                    parent[node] = from;
+                }
+            }
+            if (parent[node] != -1) {
+                frontier.insertOrDecrease(node, dist[node]);
+            }
+        }
+        for (int[] edge : lowered) {
+            double newDist = dist[edge[0]] + edgeCost(graph, edge[0], edge[1]);
+            if (newDist < dist[edge[1]]) {
+                dist[edge[1]] = newDist;
+                parent[edge[1]] = edge[0];
+                frontier.insertOrDecrease(edge[1], newDist);
+            }
+        }
+
+        long searched = cutNodes.size();
+        while (!frontier.isEmpty()) {
+            int node = frontier.removeMin();
+            searched++;
+            for (int j = 0, degree = graph.outDegree(node); j < degree; j++) {
+                int child = graph.child(node, j);
+                double newDist = dist[node] + graph.weight(node, j);
+                if (newDist < dist[child]) {
+                    dist[child] = newDist;
+                    parent[child] = node;
+                    frontier.insertOrDecrease(child, newDist);
+                }
+            }
+        }
+        parents[i] = parent;
+        dists[i] = dist;
+        return searched;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from source over the whole graph, storing the predecessor of
+     * every node on its shortest path from source in parent (-1 for the source and for
+     * unreachable nodes), and the cost of that path in dist.
+     */
+    static void shortestPathTree(CsrGraph<?> graph, int source, int[] parent, double[] dist) {
+        int n = graph.size();
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        IndexedMinHeap frontier = new IndexedMinHeap(n);
+        dist[source] = 0;
+        frontier.insertOrDecrease(source, 0);
+        while (!frontier.isEmpty()) {
+            int node = frontier.removeMin();
+            settled[node] = true;
+            for (int i = 0, degree = graph.outDegree(node); i < degree; i++) {
+                int child = graph.child(node, i);
+                double newDist = dist[node] + graph.weight(node, i);
+                if (!settled[child] && newDist < dist[child]) {
+                    dist[child] = newDist;
+                    parent[child] = node;
+                    frontier.insertOrDecrease(child, newDist);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param node A node.
+     * @return {@literal true} iff this table holds a tree for routes starting at node.
+     */
+    public boolean hasSource(N node) {
+        return sourceIndex.containsKey(node);
+    }
+
+    /**
+     * Finds a minimum-cost path by walking the precomputed tree of start.
+     *
+     * @param start A source of this table.
+     * @param dest  The node the path ends at.
+     * @return A minimum-cost path from start to dest, or {@literal null} if dest cannot be
+     * reached from start.
+     * @throws IllegalArgumentException if start is not a source of this table.
+     */
+    public Path<N> findMinCostPath(N start, N dest) {
+        Integer index = sourceIndex.get(start);
+        if (index == null) {
+            throw new IllegalArgumentException("No route tree for " + start);
+        }
+        int[] parent = parents[index];
+        int source = graph.idOf(start);
+        int target = graph.idOf(dest);
+        if (start.equals(dest)) {
+            return new Path<>(start);
+        }
+        if (parent == null || target == -1 || parent[target] == -1) {
+            return null;
+        }
+        int length = 0;
+        for (int at = target; at != source; at = parent[at]) {
+            length++;
+        }
+        List<N> points = new ArrayList<>(Collections.nCopies(length, null));
+        double[] costs = new double[length];
+        int at = target;
+        for (int i = length - 1; i >= 0; i--) {
+            points.set(i, graph.node(at));
+            costs[i] = edgeCost(graph, parent[at], at);
+            at = parent[at];
+        }
+        return new Path<>(start, points, costs);
+    }
+
+    /**
+     * @return The cost of the cheapest edge from parent to child in graph, which is the edge
+     * a tree's search relaxed, or +infinity if there is no such edge.
+     */
+    private static double edgeCost(CsrGraph<?> graph, int parent, int child) {
+        double cost = Double.POSITIVE_INFINITY;
+        for (int i = 0, degree = graph.outDegree(parent); i < degree; i++) {
+            if (graph.child(parent, i) == child) {
+                cost = Math.min(cost, graph.weight(parent, i));
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * @return How long building every tree took, or repairing them if this table was made by
+     * repair, in milliseconds.
+     */
+    public double warmUpMillis() {
+        return warmUpNanos / 1e6;
+    }
+
+    /**
+     * @return The number of tree entries, summed over every tree, that were searched again
+     * when this table was made by repair, or 0 if it was built from scratch.
+     */
+    public long repairedNodes() {
+        return repairedNodes;
+    }
+
+    /**
+     * @return The memory held by the predecessor and distance arrays, in bytes.
+     */
+    public long tableBytes() {
+        long bytes = 0;
+        for (int[] parent : parents) {
+            if (parent != null) {
+                bytes += 2 * 16 + 12L * parent.length;
+            }
+        }
+        return bytes;
+    }
+
+    private void checkRep() {
+        assert graph != null && sourceIndex != null && parents != null && dists != null
+                && pool != null;
+        assert parents.length == dists.length;
+        for (int i = 0; i < parents.length; i++) {
+            assert (parents[i] == null) == (dists[i] == null);
+            assert parents[i] == null || parents[i].length == graph.size();
+            assert dists[i] == null || dists[i].length == graph.size();
+        }
+    }
+}
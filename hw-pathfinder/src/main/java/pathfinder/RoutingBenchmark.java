@@ -0,0 +1,76 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Times every RoutingEngine on the campus data: how long the map takes to load (including any
+ * preprocessing the engine needs) and the mean time of a route query over every pair of
+ * buildings, relative to the original DIJKSTRA engine. Each engine answers all pairs once to
+ * warm up before it is timed.
+ */
+public class RoutingBenchmark {
+
+    // This class does not represent an ADT.
+
+    /**
+     * Runs the benchmark and prints one line per engine.
+     *
+     * @param args Names of RoutingEngine constants to time, or none to time every engine.
+     */
+    public static void main(String[] args) {
+        List<RoutingEngine> engines = new ArrayList<>();
+        if (args.length == 0) {
+            Collections.addAll(engines, RoutingEngine.values());
+        } else {
+            for (String arg : args) {
+                engines.add(RoutingEngine.valueOf(arg));
+            }
+        }
+        double baseline = Double.NaN;
+        for (RoutingEngine engine : engines) {
+            long loadStart = System.nanoTime();
+            CampusMap map = new CampusMap(engine);
+            double loadMillis = (System.nanoTime() - loadStart) / 1e6;
+
+            List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+            Collections.sort(buildings);
+            queryAll(map, buildings);
+            long queryStart = System.nanoTime();
+            int queries = queryAll(map, buildings);
+            double micros = (System.nanoTime() - queryStart) / 1e3 / queries;
+            if (engine == RoutingEngine.DIJKSTRA) {
+                baseline = micros;
+            }
+            String speedup = Double.isNaN(baseline) ? "" : String.format("  %6.1fx", baseline / micros);
+            System.out.printf("%-24s load %8.1f ms  query %9.1f us%s%n", engine, loadMillis, micros,
+                    speedup);
+            System.out.println("    " + map.loadSummary());
+        }
+    }
+
+    /**
+     * Finds the route between every ordered pair of buildings.
+     *
+     * @return The number of routes found.
+     */
+    private static int queryAll(CampusMap map, List<String> buildings) {
+        int queries = 0;
+        double checksum = 0;
+        for (String start : buildings) {
+            for (String end : buildings) {
+                Path<Point> path = map.findShortestPath(start, end);
+                checksum += path == null ? 0 : path.getCost();
+                queries++;
+            }
+        }
+        if (Double.isNaN(checksum)) {
+            throw new IllegalStateException("Route costs must be numbers.");
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,41 @@
+package pathfinder;
+
+/**
+ * The shortest-path algorithms a CampusMap can use to answer route queries. Every engine
+ * returns a minimum-cost path; they differ only in how much work a query takes.
+ */
+public enum RoutingEngine {
+
+    /**
+     * The original DijkstraAlg, which keeps a whole Path per priority queue entry.
+     */
+    DIJKSTRA,
+
+    /**
+     * IndexedDijkstraAlg, which keeps distance and parent arrays and an indexed heap.
+     */
+    INDEXED_DIJKSTRA,
+
+    /**
+     * AStarAlg, guided by the straight-line distance to the destination.
+     */
+    ASTAR,
+
+    /**
+     * BidirectionalAlg, growing from both buildings at once and guided by the straight-line
+     * distance between points.
+     */
+    BIDIRECTIONAL,
+
+    /**
+     * A ContractionHierarchy built when the map is loaded, queried with an upward search from
+     * each building.
+     */
+    CONTRACTION_HIERARCHIES,
+
+    /**
+     * A RouteTable holding a shortest-path tree out of every building, built when the map is
+     * loaded, so a query only walks predecessor links.
+     */
+    ROUTE_TABLE
+}
@@ -0,0 +1,212 @@
+package pathfinder;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * The per-query state of a single-source search: a dense int id for every node the search has
+ * reached, the tentative distance to it, a predecessor link, and the frontier heap. When
+ * searching a Graph, ids are handed out lazily as nodes are discovered, so a search that stops
+ * early only pays for the part of the graph it touched. When searching a CsrGraph, the graph's
+ * own node ids are used directly.
+ */
+class SearchTree<N> {
+
+    // AF(this) =
+    //      the node with id i => nodes.get(i), or graph.node(i) when searching a CsrGraph
+    //      best known distance from the source to node i => dist[i]
+    //      the node before node i on that best path => parent[i] (-1 for the source)
+    //      the cost of the last segment on that best path => parentCost[i]
+    //      whether node i's distance is final => settled[i]
+
+    // Rep Invariant:
+    //      exactly one of graph and (ids, nodes) is non-null &&
+    //      if graph == null: ids.size() == nodes.size() <= dist.length and
+    //                        for all i < nodes.size(): ids.get(nodes.get(i)) == i &&
+    //      if graph != null: dist.length == graph.size() &&
+    //      dist.length == parent.length == parentCost.length == settled.length
+
+    private final CsrGraph<N> graph;
+    private final Map<N, Integer> ids;
+    private final List<N> nodes;
+    private double[] dist;
+    private int[] parent;
+    private double[] parentCost;
+    private boolean[] settled;
+
+    /**
+     * The frontier of this search, keyed by whatever priority the search uses.
+     */
+    final IndexedMinHeap frontier;
+
+    /**
+     * Creates a search tree over a Graph rooted at the given node, which always receives id 0.
+     *
+     * @param source The node the search starts from.
+     */
+    SearchTree(N source) {
+        int capacity = 16;
+        graph = null;
+        ids = new HashMap<>();
+        nodes = new ArrayList<>();
+        dist = new double[capacity];
+        parent = new int[capacity];
+        parentCost = new double[capacity];
+        settled = new boolean[capacity];
+        frontier = new IndexedMinHeap(capacity);
+        int root = idOf(source);
+        dist[root] = 0;
+    }
+
+    /**
+     * Creates a search tree over a CsrGraph rooted at the node with the given id.
+     *
+     * @param graph  The graph being searched.
+     * @param source The id of the node the search starts from.
+     */
+    SearchTree(CsrGraph<N> graph, int source) {
+        int n = graph.size();
+        this.graph = graph;
+        ids = null;
+        nodes = null;
+        dist = new double[n];
+        parent = new int[n];
+        parentCost = new double[n];
+        settled = new boolean[n];
+        frontier = new IndexedMinHeap(n);
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+    }
+
+    /**
+     * Returns the id of the given node, assigning a fresh one (with an infinite distance and no
+     * parent) if the search has not reached it before.
+     *
+     * @param node The node to look up.
+     * @return The id of node in this search.
+     * @spec.requires if this search runs over a CsrGraph, node is in that graph
+     */
+    int idOf(N node) {
+        if (graph != null) {
+            return graph.idOf(node);
+        }
+        Integer id = ids.get(node);
+        if (id != null) {
+            return id;
+        }
+        int newId = nodes.size();
+        if (newId == dist.length) {
+            int capacity = 2 * newId;
+            dist = Arrays.copyOf(dist, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            parentCost = Arrays.copyOf(parentCost, capacity);
+            settled = Arrays.copyOf(settled, capacity);
+            frontier.ensureCapacity(capacity);
+        }
+        ids.put(node, newId);
+        nodes.add(node);
+        dist[newId] = Double.POSITIVE_INFINITY;
+        parent[newId] = -1;
+        return newId;
+    }
+
+    /**
+     * @param node A node.
+     * @return The id of node, or -1 if the search has not reached it.
+     */
+    int existingIdOf(N node) {
+        if (graph != null) {
+            return graph.idOf(node);
+        }
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    N node(int id) {
+        if (graph != null) {
+            return graph.node(id);
+        }
+        return nodes.get(id);
+    }
+
+    double dist(int id) {
+        return dist[id];
+    }
+
+    /**
+     * @return The id of the node before id on its best known path, or -1 if there is none.
+     */
+    int parent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * @return The cost of the last segment on the best known path to id.
+     */
+    double parentCost(int id) {
+        return parentCost[id];
+    }
+
+    boolean isSettled(int id) {
+        return settled[id];
+    }
+
+    void settle(int id) {
+        settled[id] = true;
+    }
+
+    /**
+     * @return The number of nodes this search has settled so far.
+     */
+    int settledCount() {
+        int count = 0;
+        for (boolean isSettled : settled) {
+            if (isSettled) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Records a path to child through parentId if it is shorter than the best one known.
+     *
+     * @return {@literal true} iff child's distance was lowered.
+     */
+    boolean relax(int parentId, int child, double cost) {
+        double newDist = dist[parentId] + cost;
+        if (newDist < dist[child]) {
+            dist[child] = newDist;
+            parent[child] = parentId;
+            parentCost[child] = cost;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds the path from the source to the node with the given id by following parent links.
+     *
+     * @param id A node the search has reached.
+     * @return The best known path from the source to that node.
+     */
+    Path<N> pathTo(int id) {
+        int length = 0;
+        for (int at = id; parent[at] != -1; at = parent[at]) {
+            length++;
+        }
+        List<N> points = new ArrayList<>(Collections.nCopies(length, null));
+        double[] costs = new double[length];
+        int at = id;
+        for (int i = length - 1; i >= 0; i--) {
+            points.set(i, node(at));
+            costs[i] = parentCost[at];
+            at = parent[at];
+        }
+        return new Path<>(node(at), points, costs);
+    }
+}
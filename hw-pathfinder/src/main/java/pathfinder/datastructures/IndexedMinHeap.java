@@ -0,0 +1,242 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable binary min-heap of integer ids, each ordered by a double key.
+ * Unlike java.util.PriorityQueue, every id is stored at most once and its key can be lowered
+ * in place (decrease-key), so a search never has to push duplicate entries for the same node.
+ * Ids must be non-negative and smaller than the heap's current capacity.
+ */
+public class IndexedMinHeap {
+
+    // AF(this) =
+    //      the ids currently in the heap => heap[0 .. size - 1]
+    //      the key of an id i in the heap => keys[i]
+    //      the id with the smallest key => heap[0]
+
+    // Rep Invariant:
+    //      heap != null && positions != null && keys != null &&
+    //      0 <= size <= heap.length &&
+    //      positions.length == keys.length == heap.length &&
+    //      for 0 <= i < size: positions[heap[i]] == i &&
+    //      for 0 < i < size: keys[heap[(i - 1) / 2]] <= keys[heap[i]] &&
+    //      for every id not in heap[0 .. size - 1]: positions[id] == -1
+
+    /**
+     * The ids in the heap, laid out as an implicit binary tree.
+     */
+    private int[] heap;
+
+    /**
+     * The index of each id within heap, or -1 if the id is not in the heap.
+     */
+    private int[] positions;
+
+    /**
+     * The key of each id that is currently in the heap.
+     */
+    private double[] keys;
+
+    /**
+     * The number of ids currently in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty heap that can hold ids in the range [0, capacity).
+     *
+     * @param capacity The initial number of distinct ids this heap can hold.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public IndexedMinHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+    }
+
+    /**
+     * Grows this heap so it can hold ids in the range [0, capacity). Has no effect if the
+     * heap can already hold that many ids.
+     *
+     * @param capacity The number of distinct ids this heap must be able to hold.
+     * @spec.modifies this
+     */
+    public void ensureCapacity(int capacity) {
+        int oldCapacity = positions.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, oldCapacity * 2);
+        heap = Arrays.copyOf(heap, newCapacity);
+        keys = Arrays.copyOf(keys, newCapacity);
+        positions = Arrays.copyOf(positions, newCapacity);
+        Arrays.fill(positions, oldCapacity, newCapacity, -1);
+    }
+
+    /**
+     * @return {@literal true} iff there are no ids in this heap.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of ids in this heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id The id to look for.
+     * @return {@literal true} iff id is currently in this heap.
+     */
+    public boolean contains(int id) {
+        return id < positions.length && positions[id] != -1;
+    }
+
+    /**
+     * @param id An id that is currently in this heap.
+     * @return The key associated with id.
+     * @throws NoSuchElementException if id is not in this heap.
+     */
+    public double keyOf(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Id " + id + " is not in the heap.");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Inserts id with the given key, or lowers the key of id if it is already in this heap
+     * with a larger key. Does nothing if id is already present with a key {@literal <=} key.
+     *
+     * @param id  The id to insert or update.
+     * @param key The new key for id.
+     * @return {@literal true} iff the heap was changed.
+     * @throws IndexOutOfBoundsException if id is negative or not below the heap's capacity.
+     * @spec.modifies this
+     */
+    public boolean insertOrDecrease(int id, double key) {
+        int position = positions[id];
+        if (position == -1) {
+            keys[id] = key;
+            heap[size] = id;
+            positions[id] = size;
+            siftUp(size);
+            size++;
+            return true;
+        }
+        if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(position);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The id with the smallest key in this heap, without removing it.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    public int peekMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return The smallest key in this heap.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    public double minKey() {
+        return keys[peekMin()];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key in this heap.
+     *
+     * @return The id that had the smallest key.
+     * @throws NoSuchElementException if this heap is empty.
+     * @spec.modifies this
+     */
+    public int removeMin() {
+        int min = peekMin();
+        size--;
+        positions[min] = -1;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every id from this heap, keeping its capacity.
+     *
+     * @spec.modifies this
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the id at the given heap index towards the root until its parent's key is no larger.
+     */
+    private void siftUp(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[index] = parent;
+            positions[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = id;
+        positions[id] = index;
+    }
+
+    /**
+     * Moves the id at the given heap index towards the leaves until neither child has a
+     * smaller key.
+     */
+    private void siftDown(int index) {
+        int id = heap[index];
+        double key = keys[id];
+        int half = size >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < size && keys[heap[rightIndex]] < keys[child]) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            heap[index] = child;
+            positions[child] = index;
+            index = childIndex;
+        }
+        heap[index] = id;
+        positions[id] = index;
+    }
+}
@@ -11,22 +11,28 @@
 
 package pathfinder.datastructures;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * This represents an immutable path between two cartesian coordinate points, particularly
  * Path#getStart() and Path#getEnd(). Also contains a cached
  * version of the total cost along this path, for efficient repeated access.
+ *
+ * <p>Paths are persistent: a path made by Path#extend shares every segment of the path it
+ * extends instead of copying them, so extending a path takes constant time no matter how long
+ * it is. Its cost, number of segments and hash code are kept up to date as it is extended.
+ * The segments are only laid out in order, once, when a path is first iterated.
  */
 public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
 
     // AF(this) =
     //      first point in the path => start
-    //      each "step" along the path between points => elements of list path, where
-    //          path.get(0) is the first step from the start point to an intermediate point, and
-    //          path.get(path.size() - 1) is the final step from an intermediate point to the end
+    //      each "step" along the path between points => the segments of prefix, in order,
+    //          followed by last; or the elements of segments if prefix is null
     //      total cost along the path => cost
     //      the destination point in this path, opposite the start point => getEnd()
 
@@ -35,22 +41,57 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
     //      Double.isFinite(cost) &&
     //      start != null &&
     //      path != null &&
-    //      path does not contain null elements
+    //      (prefix == null) implies (segments != null && segments.length == length) &&
+    //      (prefix != null) implies (last != null && length == prefix.length + 1 &&
+    //                                prefix.start == start) &&
+    //      (length > 0) == (last != null) &&
+    //      no element of segments is null &&
+    //      listHash == the List hash code of the segments in order
+
+    // Gson serializes the non-transient fields, cost, start and path, which make up the JSON
+    // form of a path: {"cost": ..., "start": ..., "path": [segment, ...]}.
 
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private T start;
+    private final T start;
+
+    /**
+     * A read-only list view of the segments of this path, in order.
+     */
+    private final List<Segment> path;
+
+    /**
+     * The path this path extends by one segment, or null if this path holds its segments
+     * in an array of its own.
+     */
+    private final transient Path<T> prefix;
+
+    /**
+     * The final segment of this path, or null if this path has no segments.
+     */
+    private final transient Segment last;
+
+    /**
+     * The number of segments in this path.
+     */
+    private final transient int length;
+
+    /**
+     * The List hash code of this path's segments, as if they were in a java.util.List.
+     */
+    private final transient int listHash;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * The segments of this path in order, or null until they are first needed. Once set, it
+     * never changes.
      */
-    private List<Segment> path;
+    private transient volatile Segment[] segments;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -61,16 +102,71 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
     public Path(T start) {
         this.start = start;
         this.cost = 0;
-        this.path = new ArrayList<>();
+        this.path = new SegmentList();
+        this.prefix = null;
+        this.last = null;
+        this.length = 0;
+        this.listHash = 1;
+        this.segments = newSegmentArray(0);
         checkRep();
     }
 
+    /**
+     * Creates a new path from the start point through each of the given points in order. The
+     * result is equal to, and has exactly the same cost as, the path built by calling
+     * Path#extend once per point, but the segments are stored in a single array.
+     *
+     * @param start        The starting point of the path.
+     * @param points       The points visited after start, in order.
+     * @param segmentCosts segmentCosts[i] is the cost of the segment ending at points.get(i).
+     * @throws IllegalArgumentException if points and segmentCosts have different lengths.
+     */
+    public Path(T start, List<T> points, double[] segmentCosts) {
+        if (points.size() != segmentCosts.length) {
+            throw new IllegalArgumentException("Each point needs exactly one segment cost.");
+        }
+        Segment[] ordered = newSegmentArray(segmentCosts.length);
+        double total = 0;
+        int hash = 1;
+        T previous = start;
+        for (int i = 0; i < segmentCosts.length; i++) {
+            T next = points.get(i);
+            ordered[i] = new Segment(previous, next, segmentCosts[i]);
+            total = total + segmentCosts[i];
+            hash = 31 * hash + ordered[i].hashCode();
+            previous = next;
+        }
+        this.start = start;
+        this.cost = total;
+        this.path = new SegmentList();
+        this.prefix = null;
+        this.last = ordered.length == 0 ? null : ordered[ordered.length - 1];
+        this.length = ordered.length;
+        this.listHash = hash;
+        this.segments = ordered;
+        checkRep();
+    }
+
+    /**
+     * Creates the path that follows prefix and then one more segment.
+     */
+    private Path(Path<T> prefix, Segment last) {
+        this.start = prefix.start;
+        this.cost = prefix.cost + last.getCost();
+        this.path = new SegmentList();
+        this.prefix = prefix;
+        this.last = last;
+        this.length = prefix.length + 1;
+        this.listHash = 31 * prefix.listHash + last.hashCode();
+        this.segments = null;
+    }
+
     /**
      * Appends a new single segment to the end of this path, originating at the current last point
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
      * to the existing path is {@code segmentCost}. Thus, the returned Path represents a path
      * from {@code this.getStart()} to {@code newEnd}, with a cost of {@code this.getCost() +
-     * segmentCost}.
+     * segmentCost}. This takes constant time: the new path shares this path's segments.
      *
      * @param newEnd      The point being added at the end of the segment being appended to this path
      * @param segmentCost The cost of the segment being added to the end of this path.
@@ -79,10 +175,7 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
     public Path<T> extend(T newEnd, double segmentCost) {
         checkRep();
         //
-        Path<T> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
+        Path<T> extendedPath = new Path<>(this, new Segment(this.getEnd(), newEnd, segmentCost));
         //
         extendedPath.checkRep();
         checkRep();
@@ -90,6 +183,25 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
         return extendedPath;
     }
 
+    /**
+     * Returns the path that visits the points of this path in the opposite order, from
+     * {@code this.getEnd()} back to {@code this.getStart()}, with each segment keeping its cost.
+     * This is only a valid route if every segment can be travelled in both directions at the
+     * same cost.
+     *
+     * @return A new path representing this path walked backwards.
+     */
+    public Path<T> reversed() {
+        Segment[] ordered = segments();
+        List<T> points = new ArrayList<>(ordered.length);
+        double[] segmentCosts = new double[ordered.length];
+        for (int i = ordered.length - 1, j = 0; i >= 0; i--, j++) {
+            points.add(ordered[i].getStart());
+            segmentCosts[j] = ordered[i].getCost();
+        }
+        return new Path<>(getEnd(), points, segmentCosts);
+    }
+
     /**
      * @return The total cost along this path.
      */
@@ -109,10 +221,17 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
      * contains no segments (i.e. this path is from the start point to itself).
      */
     public T getEnd() {
-        if(path.size() == 0) {
+        if(last == null) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return last.getEnd();
+    }
+
+    /**
+     * @return The number of segments in this path.
+     */
+    public int size() {
+        return length;
     }
 
     /**
@@ -127,16 +246,20 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
         // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
         return new Iterator<>() {
 
-            private Iterator<Segment> backingIterator = path.iterator();
+            private final Segment[] ordered = segments();
+            private int next = 0;
 
             @Override
             public boolean hasNext() {
-                return backingIterator.hasNext();
+                return next < ordered.length;
             }
 
             @Override
             public Path<T>.Segment next() {
-                return backingIterator.next();
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ordered[next++];
             }
 
             @Override
@@ -146,17 +269,51 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
         };
     }
 
+    /**
+     * Returns the segments of this path in order, laying them out the first time they are
+     * needed. The walk back along the prefixes stops at the first path that has already laid
+     * out its own segments, and copies those.
+     *
+     * @return The segments of this path in order. Callers must not modify the array.
+     */
+    private Segment[] segments() {
+        Segment[] ordered = segments;
+        if (ordered != null) {
+            return ordered;
+        }
+        ordered = newSegmentArray(length);
+        Path<T> at = this;
+        while (at.segments == null) {
+            ordered[at.length - 1] = at.last;
+            at = at.prefix;
+        }
+        System.arraycopy(at.segments, 0, ordered, 0, at.length);
+        // Other threads may lay out the same segments at the same time; every copy is equal.
+        segments = ordered;
+        return ordered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Segment[] newSegmentArray(int size) {
+        return (Segment[]) new Path<?>.Segment[size];
+    }
+
     /**
      * Ensures that the representation invariant has not been violated. Returns normally if
-     * there is no violation.
+     * there is no violation. Only the parts of the invariant that this path adds on top of
+     * its prefix are checked, so this takes constant time.
      */
     private void checkRep() {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
         assert path != null;
-        for(Segment segment : path) {
-            assert segment != null;
+        assert (length > 0) == (last != null);
+        if(prefix == null) {
+            assert segments != null && segments.length == length;
+        } else {
+            assert length == prefix.length + 1;
+            assert prefix.start == start;
         }
     }
 
@@ -176,31 +333,46 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
         if(!(obj instanceof Path)) {
             return false;
         }
-        Path other = (Path) obj;
-        if(this.path.size() != other.path.size()) {
+        Path<?> other = (Path<?>) obj;
+        if(this.length != other.length || this.listHash != other.listHash) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
+        if(this.length == 0 && !this.start.equals(other.start)) {
             return false;
         }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
+        // Walk both paths backwards, stopping early where they share a prefix.
+        Path<?> a = this;
+        Path<?> b = other;
+        while(a != b && a.length > 0) {
+            if(a.prefix == null || b.prefix == null) {
+                Object[] aSegments = a.segments();
+                Object[] bSegments = b.segments();
+                for(int i = 0; i < a.length; i++) {
+                    if(!aSegments[i].equals(bSegments[i])) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if(!a.last.equals(b.last)) {
                 return false;
             }
+            a = a.prefix;
+            b = b.prefix;
         }
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (31 * start.hashCode()) + path.hashCode();
+        return (31 * start.hashCode()) + listHash;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(start.toString());
-        for(Segment segment : path) {
+        for(Segment segment : this) {
             sb.append(" =(");
             sb.append(String.format("%.3f", segment.getCost()));
             sb.append(")=> ");
@@ -214,6 +386,28 @@ public class Path<T> implements Iterable<Path<T>.Segment>, Comparable<Path<T>> {
         return Double.compare(this.cost, o.cost);
     }
 
+    /**
+     * A read-only List view of the segments of the enclosing path, so that the path field
+     * serializes as a JSON array of segments.
+     */
+    private final class SegmentList extends AbstractList<Segment> {
+
+        @Override
+        public Segment get(int index) {
+            return segments()[index];
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        @Override
+        public Iterator<Segment> iterator() {
+            return Path.this.iterator();
+        }
+    }
+
     /**
      * Segment represents a single segment as part of a longer, more complex path between points.
      * Segments are immutable parts of a larger path that cannot be instantiated directly, and
@@ -35,6 +35,12 @@ public class Point {
      */
     private final double y;
 
+    /**
+     * The hash code of this point, computed once since points are used as map keys in every
+     * graph lookup. Transient so that Gson leaves it out of the JSON form of a point.
+     */
+    private final transient int hash;
+
     /**
      * Constructs a new ordered pair using the provided coordinates. Neither coordinate
      * may be NaN or infinite.
@@ -49,6 +55,7 @@ public class Point {
         }
         this.x = x;
         this.y = y;
+        this.hash = (31 * Double.hashCode(x)) + Double.hashCode(y);
         // checkRep not necessary, the representation fields are final and immutable.
     }
 
@@ -66,6 +73,14 @@ public class Point {
         return y;
     }
 
+    /**
+     * @param other Another point.
+     * @return The straight-line (Euclidean) distance between this point and other.
+     */
+    public double distanceTo(Point other) {
+        return Math.hypot(this.x - other.x, this.y - other.y);
+    }
+
     /**
      * @param obj An object to compare {@code this} to for equality.
      * @return {@literal true} if and only if {@code obj} is a point representing the same
@@ -73,6 +88,9 @@ public class Point {
      */
     @Override
     public boolean equals(Object obj) {
+        if(this == obj) {
+            return true;
+        }
         if(!(obj instanceof Point)) {
             return false;
         }
@@ -87,6 +105,6 @@ public class Point {
 
     @Override
     public int hashCode() {
-        return (31 * Double.hashCode(x)) + Double.hashCode(y);
+        return hash;
     }
 }
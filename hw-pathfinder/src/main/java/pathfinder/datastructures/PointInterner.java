@@ -0,0 +1,213 @@
+package pathfinder.datastructures;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out one shared Point per location, so that a graph built from many records that
+ * repeat the same coordinates holds each location once, and equal points are usually the same
+ * object. Points are found through a primitive open-addressing table of long keys, with no
+ * entry or boxed objects.
+ *
+ * <p>By default a key mixes the raw bits of both coordinates. With a fixed-point resolution,
+ * each coordinate is instead rounded to a multiple of 10^-fractionDigits and the two results
+ * are packed as ints into one long, which is cheaper to compute and keeps nearby points in
+ * nearby keys. Either way a key only finds a candidate: its coordinates are compared exactly,
+ * so two points that share a key are never merged. Such points, and points outside the int
+ * range of the fixed-point encoding, are kept in an ordinary map instead.
+ */
+public final class PointInterner {
+
+    // AF(this) = the shared point for location (x, y) => the point p in points with
+    //            p.getX() == x and p.getY() == y, if there is one, and otherwise
+    //            overflow.get(new Point(x, y))
+    //
+    // RI: keys.length == points.length, a power of two, size < points.length / 2 + 1,
+    //     size == the number of non-null elements of points, keys[i] == key of points[i]
+    //     for every non-null points[i], no two points in points or overflow are equal,
+    //     scale == 0 or scale == 10^fractionDigits
+
+    /**
+     * The most fraction digits a fixed-point key can keep.
+     */
+    public static final int MAX_FRACTION_DIGITS = 9;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The key of locations that only overflow holds. A fixed-point key never takes this
+     * value, since it would need y's int to be -1 and x's to be Integer.MIN_VALUE, which is
+     * out of range; a mixed key that does is treated the same way.
+     */
+    private static final long OUT_OF_RANGE = Long.MIN_VALUE | 0xFFFFFFFFL;
+
+    private final double scale;
+    private long[] keys;
+    private Point[] points;
+    private int size;
+    private final Map<Point, Point> overflow;
+
+    /**
+     * Creates an interner whose keys mix the exact bits of each point's coordinates.
+     */
+    public PointInterner() {
+        this(0.0);
+    }
+
+    /**
+     * Creates an interner whose keys are fixed-point encodings of each point's coordinates,
+     * in units of 10^-fractionDigits.
+     *
+     * @param fractionDigits The number of decimal places the keys keep.
+     * @throws IllegalArgumentException if fractionDigits is negative or more than
+     *                                  MAX_FRACTION_DIGITS.
+     */
+    public PointInterner(int fractionDigits) {
+        this(scaleFor(fractionDigits));
+    }
+
+    private PointInterner(double scale) {
+        this.scale = scale;
+        this.keys = new long[INITIAL_CAPACITY];
+        this.points = new Point[INITIAL_CAPACITY];
+        this.overflow = new HashMap<>();
+    }
+
+    private static double scaleFor(int fractionDigits) {
+        if (fractionDigits < 0 || fractionDigits > MAX_FRACTION_DIGITS) {
+            throw new IllegalArgumentException("fractionDigits must be in [0, "
+                    + MAX_FRACTION_DIGITS + "].");
+        }
+        return Math.pow(10, fractionDigits);
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The shared point at (x, y), which is made by this call if there is none yet.
+     * @throws IllegalArgumentException if x or y are NaN or infinite.
+     * @spec.modifies this
+     * @spec.effects adds a point at (x, y) if there is none
+     */
+    public Point intern(double x, double y) {
+        Point found = find(x, y, null);
+        return found != null ? found : add(x, y, new Point(x, y));
+    }
+
+    /**
+     * @param point A point.
+     * @return The shared point equal to point, which is point itself if there was none yet.
+     * @spec.requires point != null
+     * @spec.modifies this
+     * @spec.effects adds point if no equal point was shared yet
+     */
+    public Point intern(Point point) {
+        Point found = find(point.getX(), point.getY(), point);
+        return found != null ? found : add(point.getX(), point.getY(), point);
+    }
+
+    /**
+     * @return The number of distinct points shared so far.
+     */
+    public int size() {
+        return size + overflow.size();
+    }
+
+    /**
+     * Looks up the shared point at (x, y). A point whose key is taken by another location is
+     * looked up, and added if absent, in overflow instead.
+     *
+     * @param point The point to add to overflow if the location belongs there and has no
+     *              shared point yet, or null to make one.
+     * @return The shared point, or null if the location belongs in the table and has none.
+     */
+    private Point find(double x, double y, Point point) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            throw new IllegalArgumentException("x and y cannot be NaN or infinite.");
+        }
+        long key = key(x, y);
+        if (key == OUT_OF_RANGE) {
+            return overflow.computeIfAbsent(point != null ? point : new Point(x, y), p -> p);
+        }
+        int mask = points.length - 1;
+        for (int slot = mix(key) & mask; points[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                Point candidate = points[slot];
+                if (Double.compare(candidate.getX(), x) == 0
+                        && Double.compare(candidate.getY(), y) == 0) {
+                    return candidate;
+                }
+                return overflow.computeIfAbsent(point != null ? point : new Point(x, y),
+                        p -> p);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds point, which is at (x, y), to the table. Its key must not be in the table yet.
+     */
+    private Point add(double x, double y, Point point) {
+        if (2 * (size + 1) > points.length) {
+            grow();
+        }
+        insert(key(x, y), point);
+        size++;
+        checkRep();
+        return point;
+    }
+
+    private void insert(long key, Point point) {
+        int mask = points.length - 1;
+        int slot = mix(key) & mask;
+        while (points[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        points[slot] = point;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Point[] oldPoints = points;
+        keys = new long[2 * oldKeys.length];
+        points = new Point[2 * oldPoints.length];
+        for (int i = 0; i < oldPoints.length; i++) {
+            if (oldPoints[i] != null) {
+                insert(oldKeys[i], oldPoints[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The key of (x, y): two fixed-point ints packed into a long if this interner has
+     * a resolution, the mixed bits of the coordinates otherwise, or OUT_OF_RANGE if the
+     * location cannot have a key.
+     */
+    private long key(double x, double y) {
+        if (scale == 0.0) {
+            return Double.doubleToLongBits(x) * 0x9E3779B97F4A7C15L
+                    + Double.doubleToLongBits(y);
+        }
+        double fx = Math.rint(x * scale);
+        double fy = Math.rint(y * scale);
+        if (Math.abs(fx) >= Integer.MAX_VALUE || Math.abs(fy) >= Integer.MAX_VALUE) {
+            return OUT_OF_RANGE;
+        }
+        return ((long) fx << 32) | ((long) fy & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Spreads the bits of a key over its low bits, which pick the slot.
+     */
+    private static int mix(long key) {
+        long h = key * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29) ^ (h >>> 47));
+    }
+
+    private void checkRep() {
+        assert keys.length == points.length && Integer.bitCount(points.length) == 1;
+        assert 2 * size <= points.length;
+        assert scale >= 0.0;
+    }
+}
@@ -0,0 +1,241 @@
+package pathfinder.parser;
+
+import graph.CsrGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser.ParserException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The campus graph and building table compiled into one binary file, which loads without
+ * parsing any text. The file is little-endian and laid out as follows, with the doubles first
+ * so that every one of them is 8-byte aligned:
+ *
+ * <pre>
+ * int      MAGIC
+ * int      FORMAT_VERSION
+ * int      n, the number of nodes
+ * int      m, the number of edges
+ * int      b, the number of buildings
+ * int      0, reserved
+ * double[n] the x coordinate of each node, in order of node id
+ * double[n] the y coordinate of each node
+ * double[m] the weight of each edge, grouped by the node it leaves
+ * int[n+1]  the CSR offsets: the edges leaving node i are [offsets[i], offsets[i+1])
+ * int[m]    the id of the node each edge points to
+ * b times:  double x, double y, then the short and the long name, each an int byte count
+ *           followed by that many bytes of UTF-8
+ * </pre>
+ *
+ * A file is read through a memory-mapped FileChannel, with a bulk copy of each array; the
+ * only objects made are one Point per node and one CampusBuilding per building.
+ */
+public final class CampusGraphFile {
+
+    // AF(this) = the campus graph => graph
+    //            the campus buildings => buildings
+    //
+    // RI: graph != null && buildings != null
+
+    /**
+     * The first four bytes of every campus graph file: "CPGF" in ASCII.
+     */
+    public static final int MAGIC = 0x43504746;
+
+    /**
+     * The version of the layout written by write. Files of any other version are rejected,
+     * so a change to the layout must change this.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    private final CsrGraph<Point> graph;
+    private final List<CampusBuilding> buildings;
+
+    private CampusGraphFile(CsrGraph<Point> graph, List<CampusBuilding> buildings) {
+        this.graph = graph;
+        this.buildings = Collections.unmodifiableList(buildings);
+        checkRep();
+    }
+
+    /**
+     * @return The campus graph stored in the file.
+     */
+    public CsrGraph<Point> graph() {
+        return graph;
+    }
+
+    /**
+     * @return The buildings stored in the file, in the order they were written.
+     */
+    public List<CampusBuilding> buildings() {
+        return buildings;
+    }
+
+    /**
+     * Writes a campus graph and its buildings to a file, replacing it if it exists.
+     *
+     * @param file      Where to write.
+     * @param graph     The campus graph.
+     * @param buildings The campus buildings.
+     * @throws ParserException if the file cannot be written.
+     * @spec.requires no argument is null
+     */
+    public static void write(Path file, CsrGraph<Point> graph, List<CampusBuilding> buildings) {
+        int n = graph.size();
+        int m = graph.edgeCount();
+        List<byte[]> names = new ArrayList<>(2 * buildings.size());
+        long size = HEADER_BYTES + 8L * (2L * n + m) + 4L * (n + 1L + m);
+        for (CampusBuilding building : buildings) {
+            byte[] shortName = building.getShortName().getBytes(StandardCharsets.UTF_8);
+            byte[] longName = building.getLongName().getBytes(StandardCharsets.UTF_8);
+            names.add(shortName);
+            names.add(longName);
+            size += 2 * Double.BYTES + 2 * Integer.BYTES + shortName.length + longName.length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new ParserException("The campus graph is too large for one file.");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(m).putInt(buildings.size())
+                .putInt(0);
+        for (int id = 0; id < n; id++) {
+            out.putDouble(graph.node(id).getX());
+        }
+        for (int id = 0; id < n; id++) {
+            out.putDouble(graph.node(id).getY());
+        }
+        for (int id = 0; id < n; id++) {
+            for (int i = 0; i < graph.outDegree(id); i++) {
+                out.putDouble(graph.weight(id, i));
+            }
+        }
+        int offset = 0;
+        for (int id = 0; id < n; id++) {
+            out.putInt(offset);
+            offset += graph.outDegree(id);
+        }
+        out.putInt(offset);
+        for (int id = 0; id < n; id++) {
+            for (int i = 0; i < graph.outDegree(id); i++) {
+                out.putInt(graph.child(id, i));
+            }
+        }
+        for (int i = 0; i < buildings.size(); i++) {
+            out.putDouble(buildings.get(i).getX()).putDouble(buildings.get(i).getY());
+            for (byte[] name : names.subList(2 * i, 2 * i + 2)) {
+                out.putInt(name.length).put(name);
+            }
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            throw new ParserException("Cannot write " + file, e);
+        }
+    }
+
+    /**
+     * Loads a file written by write.
+     *
+     * @param file The file to load.
+     * @return The graph and buildings stored in the file.
+     * @throws ParserException if the file cannot be read, is not a campus graph file, is of
+     *                         another format version, or is truncated or malformed.
+     * @spec.requires file != null
+     */
+    public static CampusGraphFile read(Path file) {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // One buffer can map at most 2 GiB, and write never makes a larger file.
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ParserException(file + " is too large to be a campus graph file.");
+            }
+            // The mapping stays valid after the channel is closed.
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ParserException("Cannot read " + file, e);
+        }
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new ParserException(file + " is not a campus graph file.");
+            }
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new ParserException(file + " has format version " + version
+                        + ", expected " + FORMAT_VERSION + ".");
+            }
+            int n = in.getInt();
+            int m = in.getInt();
+            int b = in.getInt();
+            in.getInt();
+            if (n < 0 || m < 0 || b < 0 || HEADER_BYTES + 8L * (2L * n + m)
+                    + 4L * (n + 1L + m) > in.limit()) {
+                throw new ParserException(file + " is truncated.");
+            }
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            double[] weights = new double[m];
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            in.asDoubleBuffer().get(xs).get(ys).get(weights);
+            in.position(in.position() + 8 * (2 * n + m));
+            in.asIntBuffer().get(offsets).get(targets);
+            in.position(in.position() + 4 * (n + 1 + m));
+            List<Point> nodes = new ArrayList<>(n);
+            for (int id = 0; id < n; id++) {
+                nodes.add(new Point(xs[id], ys[id]));
+            }
+            CsrGraph<Point> graph = CsrGraph.fromArrays(nodes, offsets, targets, weights);
+            List<CampusBuilding> buildings = new ArrayList<>(b);
+            for (int i = 0; i < b; i++) {
+                double x = in.getDouble();
+                double y = in.getDouble();
+                String shortName = readString(in);
+                String longName = readString(in);
+                buildings.add(new CampusBuilding(shortName, longName, x, y));
+            }
+            if (in.hasRemaining()) {
+                throw new ParserException(file + " has bytes after its last building.");
+            }
+            return new CampusGraphFile(graph, buildings);
+        } catch (BufferUnderflowException e) {
+            throw new ParserException(file + " is truncated.", e);
+        } catch (IllegalArgumentException e) {
+            throw new ParserException(file + " is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads an int byte count and then that many bytes of UTF-8.
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkRep() {
+        assert graph != null && buildings != null;
+    }
+}
@@ -12,10 +12,17 @@
 package pathfinder.parser;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +31,29 @@ import java.util.stream.Collectors;
  */
 public class CampusPathsParser {
 
+    /**
+     * The initial size of the buffer streamCampusPaths reads into. It grows if a single line
+     * is longer.
+     */
+    private static final int STREAM_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * The smallest chunk parseCampusPathsInParallel hands to a thread. Smaller files are
+     * parsed on the calling thread.
+     */
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * How many chunks parseCampusPathsInParallel aims to give each thread of its pool, so
+     * that threads that finish early can take over the remaining chunks.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * A rough size of one line of a campus paths file, used to size chunk buffers.
+     */
+    private static final int BYTES_PER_PATH_ESTIMATE = 40;
+
     /**
      * Parses the campus buildings file (in src/main/resources/data/) and
      * returns a list of objects containing all the data in that file.
@@ -34,8 +64,28 @@ public class CampusPathsParser {
      * @throws ParserException if the file cannot be found or parsed as expected
      */
     public static List<CampusBuilding> parseCampusBuildings(String file) {
+        return parseBuildingLines(readLines(file));
+    }
+
+    /**
+     * Parses a campus buildings file anywhere on the filesystem, as
+     * parseCampusBuildings(String) parses one on the classpath.
+     *
+     * @param file The path of a campus buildings file to parse.
+     * @return A {@link List} of {@link CampusBuilding} objects, one for each
+     * line in the parsed file, containing the data contained within that line.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     */
+    public static List<CampusBuilding> parseCampusBuildings(Path file) {
+        try {
+            return parseBuildingLines(Files.readAllLines(file, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ParserException("Cannot read " + file, e);
+        }
+    }
+
+    private static List<CampusBuilding> parseBuildingLines(List<String> lines) {
         List<CampusBuilding> buildings = new ArrayList<>();
-        List<String> lines = readLines(file);
         //
         for (String line : lines) {
             String[] fields = line.split(",");
@@ -69,28 +119,355 @@ public class CampusPathsParser {
      */
     public static List<CampusPath> parseCampusPaths(String file) {
         List<CampusPath> paths = new ArrayList<>();
-        List<String> lines = readLines(file);
-        //
-        for (String line : lines) {
-            String[] fields = line.split(",");
-            if (fields.length != 5) {
-                throw new ParserException("Wrong number of fields in line");
+        streamCampusPaths(file, (x1, y1, x2, y2, distance) ->
+                paths.add(new CampusPath(x1, y1, x2, y2, distance)));
+        return paths;
+    }
+
+    /**
+     * Parses the campus paths file (in src/main/resources/data/) as it is read, passing each
+     * line's fields to sink before the next line is parsed. No objects are made per line.
+     *
+     * @param file The simple filename of a campus paths file to parse.
+     * @param sink Receives the fields of each line, in file order.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static void streamCampusPaths(String file, PathSink sink) {
+        InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + file);
+        if (stream == null) {
+            throw new ParserException("No such file: " + file);
+        }
+        try (InputStream in = stream) {
+            streamCampusPaths(in, sink);
+        } catch (IOException e) {
+            throw new ParserException("Cannot read " + file, e);
+        }
+    }
+
+    /**
+     * Parses campus paths, in the format of the campus paths file, as they are read from a
+     * stream. The bytes are scanned in place: each line is split at its commas and its
+     * numbers are parsed without making a String, to the same values Double.parseDouble
+     * gives. Lines end with a line feed, optionally preceded by a carriage return.
+     *
+     * @param in   The stream to read, which is read to its end but not closed.
+     * @param sink Receives the fields of each line, in stream order.
+     * @throws ParserException if a line does not have five numeric fields; the message
+     *                         includes the line's number, counting from 1.
+     * @throws IOException     if in cannot be read.
+     */
+    public static void streamCampusPaths(InputStream in, PathSink sink) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_BYTES];
+        int[] commas = new int[4];
+        int start = 0;
+        int end = 0;
+        long lineNumber = 0;
+        boolean eof = false;
+        while (true) {
+            int newline = -1;
+            for (int i = start; i < end; i++) {
+                if (buffer[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            if (newline == -1 && !eof) {
+                // Move the partial line to the front, growing the buffer for very long lines.
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+                if (end == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                }
+                int read = in.read(buffer, end, buffer.length - end);
+                if (read == -1) {
+                    eof = true;
+                } else {
+                    end += read;
+                }
+                continue;
+            }
+            if (newline == -1 && start == end) {
+                return;
             }
-            double x1, x2, y1, y2, distance;
+            lineNumber++;
             try {
-                x1 = Double.parseDouble(fields[0]);
-                y1 = Double.parseDouble(fields[1]);
-                x2 = Double.parseDouble(fields[2]);
-                y2 = Double.parseDouble(fields[3]);
-                distance = Double.parseDouble(fields[4]);
-            } catch (NumberFormatException e) {
-                throw new ParserException("Cannot parse x/y coordinates as numbers", e);
+                parsePathLine(buffer, start, lineEnd(buffer, start, newline == -1 ? end : newline),
+                        commas, sink);
+            } catch (LineFailure e) {
+                throw e.at(lineNumber);
+            }
+            start = newline == -1 ? end : newline + 1;
+        }
+    }
+
+    /**
+     * Parses the campus paths file (in src/main/resources/data/) on a fork-join pool, and
+     * passes each line's fields to sink on the calling thread, in file order, exactly as
+     * streamCampusPaths would.
+     *
+     * @param file The simple filename of a campus paths file to parse.
+     * @param sink Receives the fields of each line, in file order.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static void parseCampusPathsInParallel(String file, PathSink sink) {
+        InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + file);
+        if (stream == null) {
+            throw new ParserException("No such file: " + file);
+        }
+        byte[] bytes;
+        try (InputStream in = stream) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new ParserException("Cannot read " + file, e);
+        }
+        parseCampusPathsInParallel(bytes, ForkJoinPool.commonPool(), sink);
+    }
+
+    /**
+     * Parses a campus paths file anywhere on the filesystem on a fork-join pool, as
+     * parseCampusPathsInParallel(String, PathSink) parses one on the classpath.
+     *
+     * @param file The path of a campus paths file to parse.
+     * @param sink Receives the fields of each line, in file order.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     */
+    public static void parseCampusPathsInParallel(Path file, PathSink sink) {
+        parseCampusPathsInParallel(file, ForkJoinPool.commonPool(), sink);
+    }
+
+    /**
+     * Parses a campus paths file anywhere on the filesystem on the given fork-join pool, as
+     * parseCampusPathsInParallel(Path, PathSink) does on the common pool.
+     *
+     * @param file The path of a campus paths file to parse.
+     * @param pool Parses the chunks.
+     * @param sink Receives the fields of each line, in file order.
+     * @throws ParserException if the file cannot be read or parsed as expected
+     */
+    public static void parseCampusPathsInParallel(Path file, ForkJoinPool pool,
+                                                  PathSink sink) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new ParserException("Cannot read " + file, e);
+        }
+        parseCampusPathsInParallel(bytes, pool, sink);
+    }
+
+    /**
+     * Parses campus paths, in the format of the campus paths file, in parallel. The bytes are
+     * split into chunks at line boundaries, and pool parses each chunk into a buffer of its
+     * own. The calling thread passes the buffered fields of each chunk to sink, in order, as
+     * soon as that chunk is done, so sink needs no locking and sees the lines in the same
+     * order streamCampusPaths would give them. Input of one chunk or less is parsed on the
+     * calling thread alone.
+     *
+     * @param bytes The contents of a campus paths file. They must not change until this
+     *              returns.
+     * @param pool  Parses the chunks.
+     * @param sink  Receives the fields of each line, in order.
+     * @throws ParserException if a line does not have five numeric fields. If several do,
+     *                         the exception is the one streamCampusPaths would throw, for the
+     *                         first of them, with the same line number.
+     */
+    public static void parseCampusPathsInParallel(byte[] bytes, ForkJoinPool pool,
+                                                  PathSink sink) {
+        int chunkBytes = Math.max(MIN_CHUNK_BYTES,
+                bytes.length / (CHUNKS_PER_THREAD * pool.getParallelism()) + 1);
+        if (bytes.length <= chunkBytes) {
+            PathChunk only = new PathChunk(bytes, 0, bytes.length);
+            only.parse(sink);
+            only.rethrow(0);
+            return;
+        }
+        List<PathChunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < bytes.length) {
+            int end = Math.min(bytes.length, start + chunkBytes);
+            while (end < bytes.length && bytes[end - 1] != '\n') {
+                end++;
+            }
+            chunks.add(new PathChunk(bytes, start, end));
+            start = end;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+        for (PathChunk chunk : chunks) {
+            tasks.add(pool.submit(chunk::parseIntoBuffer));
+        }
+        long linesBefore = 0;
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                tasks.get(i).join();
+                PathChunk chunk = chunks.get(i);
+                chunk.drainTo(sink);
+                chunk.rethrow(linesBefore);
+                linesBefore += chunk.lines;
+            }
+        } finally {
+            for (ForkJoinTask<?> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Splits one line of the campus paths file at its commas and passes its fields to sink.
+     *
+     * @throws LineFailure if the line is malformed.
+     */
+    private static void parsePathLine(byte[] bytes, int start, int end, int[] commas,
+                                      PathSink sink) throws LineFailure {
+        int found = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == ',') {
+                if (found == commas.length) {
+                    throw new LineFailure("Wrong number of fields in line", null);
+                }
+                commas[found++] = i;
+            }
+        }
+        if (found != commas.length) {
+            throw new LineFailure("Wrong number of fields in line", null);
+        }
+        double x1, x2, y1, y2, distance;
+        try {
+            x1 = FastDoubleParser.parse(bytes, start, commas[0]);
+            y1 = FastDoubleParser.parse(bytes, commas[0] + 1, commas[1]);
+            x2 = FastDoubleParser.parse(bytes, commas[1] + 1, commas[2]);
+            y2 = FastDoubleParser.parse(bytes, commas[2] + 1, commas[3]);
+            distance = FastDoubleParser.parse(bytes, commas[3] + 1, end);
+        } catch (NumberFormatException e) {
+            throw new LineFailure("Cannot parse x/y coordinates as numbers", e);
+        }
+        sink.accept(x1, y1, x2, y2, distance);
+    }
+
+    /**
+     * @return The index one past the last byte of the line [start, newline), leaving out a
+     * carriage return before the newline.
+     */
+    private static int lineEnd(byte[] bytes, int start, int newline) {
+        return newline > start && bytes[newline - 1] == '\r' ? newline - 1 : newline;
+    }
+
+    /**
+     * The problem with one malformed line, before its line number is known.
+     */
+    private static final class LineFailure extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private LineFailure(String problem, Throwable cause) {
+            super(problem, cause);
+        }
+
+        /**
+         * @return The ParserException reporting this problem on the given line.
+         */
+        private ParserException at(long lineNumber) {
+            return new ParserException("Line " + lineNumber + ": " + getMessage(), getCause());
+        }
+    }
+
+    /**
+     * A run of whole lines of a campus paths file, and the fields parsed from them. Only the
+     * thread parsing a chunk touches it until the task that parses it is joined.
+     */
+    private static final class PathChunk implements PathSink {
+
+        private final byte[] bytes;
+        private final int start;
+        private final int end;
+
+        /**
+         * The fields of the parsed lines, five per line.
+         */
+        private double[] fields = new double[0];
+        private int size;
+
+        /**
+         * The number of lines parsed, including a malformed one.
+         */
+        private long lines;
+
+        /**
+         * The first malformed line, which is line number lines of this chunk, or null.
+         */
+        private LineFailure failure;
+
+        private PathChunk(byte[] bytes, int start, int end) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses every line of this chunk into fields, or up to the first malformed one.
+         */
+        private void parseIntoBuffer() {
+            fields = new double[Math.max(10, (end - start) / BYTES_PER_PATH_ESTIMATE * 5)];
+            parse(this);
+        }
+
+        /**
+         * Parses every line of this chunk into the given sink, or up to the first malformed
+         * one.
+         */
+        private void parse(PathSink sink) {
+            int[] commas = new int[4];
+            int lineStart = start;
+            while (lineStart < end) {
+                int newline = lineStart;
+                while (newline < end && bytes[newline] != '\n') {
+                    newline++;
+                }
+                lines++;
+                try {
+                    parsePathLine(bytes, lineStart, lineEnd(bytes, lineStart, newline), commas,
+                            sink);
+                } catch (LineFailure e) {
+                    failure = e;
+                    return;
+                }
+                lineStart = newline + 1;
+            }
+        }
+
+        @Override
+        public void accept(double x1, double y1, double x2, double y2, double distance) {
+            if (size + 5 > fields.length) {
+                fields = Arrays.copyOf(fields, 2 * fields.length);
+            }
+            fields[size++] = x1;
+            fields[size++] = y1;
+            fields[size++] = x2;
+            fields[size++] = y2;
+            fields[size++] = distance;
+        }
+
+        /**
+         * Passes the parsed fields to sink and releases them.
+         */
+        private void drainTo(PathSink sink) {
+            for (int i = 0; i < size; i += 5) {
+                sink.accept(fields[i], fields[i + 1], fields[i + 2], fields[i + 3],
+                        fields[i + 4]);
+            }
+            fields = null;
+        }
+
+        /**
+         * Throws the ParserException for this chunk's malformed line, if it has one.
+         *
+         * @param linesBefore The number of lines in the file before this chunk.
+         */
+        private void rethrow(long linesBefore) {
+            if (failure != null) {
+                throw failure.at(linesBefore + lines);
             }
-            //
-            paths.add(new CampusPath(x1, y1, x2, y2, distance));
         }
-        //
-        return paths;
     }
 
     /**
@@ -110,6 +487,24 @@ public class CampusPathsParser {
         return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
     }
 
+    /**
+     * Receives the fields of each line of a campus paths file as it is parsed.
+     */
+    @FunctionalInterface
+    public interface PathSink {
+
+        /**
+         * Accepts one path.
+         *
+         * @param x1       The x coordinate of the path's start.
+         * @param y1       The y coordinate of the path's start.
+         * @param x2       The x coordinate of the path's end.
+         * @param y2       The y coordinate of the path's end.
+         * @param distance The length of the path.
+         */
+        void accept(double x1, double y1, double x2, double y2, double distance);
+    }
+
     /**
      * An Exception class representing an error during parsing.
      */
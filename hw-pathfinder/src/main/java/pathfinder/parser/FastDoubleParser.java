@@ -0,0 +1,186 @@
+package pathfinder.parser;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses decimal numbers straight from ASCII bytes, to exactly the double that
+ * Double.parseDouble returns for the same text, without making a String. Plain decimals such
+ * as "-12.5" or "3.1e-4" with at most 19 significant digits are converted with the
+ * Eisel-Lemire algorithm; anything else, and the rare inputs that algorithm cannot round with
+ * certainty, is handed to Double.parseDouble.
+ */
+final class FastDoubleParser {
+
+    // This class does not represent an ADT.
+
+    private static final int MIN_EXPONENT = -342;
+    private static final int MAX_EXPONENT = 308;
+
+    /**
+     * The most significant 128 bits of each power of ten from 10^MIN_EXPONENT to
+     * 10^MAX_EXPONENT, rounded down, as a high and a low unsigned long.
+     */
+    private static final long[] POWER_HI = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POWER_LO = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    static {
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+            BigInteger power;
+            if (e >= 0) {
+                power = BigInteger.TEN.pow(e);
+            } else {
+                BigInteger divisor = BigInteger.TEN.pow(-e);
+                power = BigInteger.ONE.shiftLeft(divisor.bitLength() + 129).divide(divisor);
+            }
+            int shift = power.bitLength() - 128;
+            power = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            POWER_HI[e - MIN_EXPONENT] = power.shiftRight(64).longValue();
+            POWER_LO[e - MIN_EXPONENT] = power.and(mask).longValue();
+        }
+    }
+
+    private FastDoubleParser() {
+    }
+
+    /**
+     * @param bytes The bytes holding the number.
+     * @param start The index of its first byte.
+     * @param end   One past the index of its last byte.
+     * @return The double that Double.parseDouble returns for those bytes read as ASCII.
+     * @throws NumberFormatException if Double.parseDouble would.
+     */
+    static double parse(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        for (; i < end && isDigit(bytes[i]); i++) {
+            anyDigit = true;
+            if (digits > 0 || bytes[i] != '0') {
+                mantissa = 10 * mantissa + (bytes[i] - '0');
+                digits++;
+            }
+        }
+        if (i < end && bytes[i] == '.') {
+            for (i++; i < end && isDigit(bytes[i]); i++) {
+                anyDigit = true;
+                if (digits > 0 || bytes[i] != '0') {
+                    mantissa = 10 * mantissa + (bytes[i] - '0');
+                    digits++;
+                }
+                exponent--;
+            }
+        }
+        if (i < end && (bytes[i] == 'e' || bytes[i] == 'E') && anyDigit) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int written = 0;
+            boolean anyExponentDigit = false;
+            for (; i < end && isDigit(bytes[i]); i++) {
+                anyExponentDigit = true;
+                // Exponents this large are out of range either way; stop before overflowing.
+                if (written < 10000) {
+                    written = 10 * written + (bytes[i] - '0');
+                }
+            }
+            if (!anyExponentDigit) {
+                return fallback(bytes, start, end);
+            }
+            exponent += negativeExponent ? -written : written;
+        }
+        if (i != end || !anyDigit || digits > 19) {
+            return fallback(bytes, start, end);
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        long bits = eiselLemire(mantissa, exponent);
+        if (bits == -1) {
+            return fallback(bytes, start, end);
+        }
+        return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static double fallback(byte[] bytes, int start, int end) {
+        return Double.parseDouble(new String(bytes, start, end - start,
+                StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Rounds mantissa * 10^exponent to the nearest double.
+     *
+     * @return The bits of that positive double, or -1 if the product cannot be rounded with
+     * certainty from 128 bits of the power of ten, or is subnormal or out of range.
+     * @spec.requires mantissa != 0, read as an unsigned long
+     */
+    private static long eiselLemire(long mantissa, int exponent) {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            return -1;
+        }
+        int zeros = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << zeros;
+        // floor(exponent * log2(10)) + 64 + the exponent bias, less the normalizing shift.
+        long exp2 = ((217706L * exponent) >> 16) + 64 + 1023 - zeros;
+        int index = exponent - MIN_EXPONENT;
+
+        long hi = multiplyHighUnsigned(man, POWER_HI[index]);
+        long lo = man * POWER_HI[index];
+        if ((hi & 0x1FF) == 0x1FF && Long.compareUnsigned(lo + man, man) < 0) {
+            // The 64-bit product is too close to a rounding boundary; widen it to 128 bits.
+            long yHi = multiplyHighUnsigned(man, POWER_LO[index]);
+            long yLo = man * POWER_LO[index];
+            long mergedHi = hi;
+            long mergedLo = lo + yHi;
+            if (Long.compareUnsigned(mergedLo, lo) < 0) {
+                mergedHi++;
+            }
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0
+                    && Long.compareUnsigned(yLo + man, man) < 0) {
+                return -1;
+            }
+            hi = mergedHi;
+            lo = mergedLo;
+        }
+
+        long msb = hi >>> 63;
+        long result = hi >>> (msb + 9);
+        exp2 -= 1 ^ msb;
+        if (lo == 0 && (hi & 0x1FF) == 0 && (result & 3) == 1) {
+            // Exactly halfway between two doubles, which 128 bits cannot settle.
+            return -1;
+        }
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0) {
+            result >>>= 1;
+            exp2++;
+        }
+        if (exp2 <= 0 || exp2 >= 0x7FF) {
+            return -1;
+        }
+        return exp2 << 52 | (result & 0x000FFFFFFFFFFFFFL);
+    }
+
+    /**
+     * @return The high 64 bits of the 128-bit product of a and b, both read as unsigned.
+     */
+    private static long multiplyHighUnsigned(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
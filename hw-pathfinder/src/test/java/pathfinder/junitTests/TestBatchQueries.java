@@ -0,0 +1,95 @@
+package pathfinder.junitTests;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestBatchQueries {
+
+    private static CampusMap map;
+    private static List<String> buildings;
+
+    @BeforeClass
+    public static void loadCampus() {
+        map = new CampusMap(RoutingEngine.ASTAR);
+        buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+    }
+
+    @Test
+    public void testResultsInRequestOrder() {
+        List<Map.Entry<String, String>> pairs = new ArrayList<>();
+        for (int i = 0; i < buildings.size(); i++) {
+            pairs.add(Map.entry(buildings.get(i), buildings.get(buildings.size() - 1 - i)));
+        }
+        List<Path<Point>> paths = map.findShortestPaths(pairs);
+        assertEquals(pairs.size(), paths.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            Map.Entry<String, String> pair = pairs.get(i);
+            assertEquals(map.findShortestPath(pair.getKey(), pair.getValue()), paths.get(i));
+        }
+    }
+
+    @Test
+    public void testRepeatedPairsShareOneResult() {
+        Map.Entry<String, String> pair = Map.entry(buildings.get(0), buildings.get(1));
+        List<Path<Point>> paths = map.findShortestPaths(List.of(pair, pair, pair));
+        assertEquals(3, paths.size());
+        assertSame(paths.get(0), paths.get(1));
+        assertSame(paths.get(0), paths.get(2));
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertTrue(map.findShortestPaths(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testInvalidNameDeliversNothing() {
+        List<Path<Point>> delivered = new ArrayList<>();
+        try {
+            map.findShortestPaths(List.of(Map.entry(buildings.get(0), buildings.get(1)),
+                    Map.entry(buildings.get(0), "NOT A BUILDING")), delivered::add);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(delivered.isEmpty());
+        }
+    }
+
+    @Test
+    public void testDistanceMatrixMatchesPathCosts() {
+        List<String> starts = buildings.subList(0, 10);
+        double[][] costs = map.findShortestDistances(starts, buildings);
+        assertEquals(starts.size(), costs.length);
+        for (int i = 0; i < starts.size(); i++) {
+            assertEquals(buildings.size(), costs[i].length);
+            for (int j = 0; j < buildings.size(); j++) {
+                Path<Point> path = map.findShortestPath(starts.get(i), buildings.get(j));
+                assertEquals(path.getCost(), costs[i][j], 0);
+            }
+        }
+    }
+
+    @Test
+    public void testDistanceMatrixRepeatedStarts() {
+        String start = buildings.get(3);
+        double[][] costs = map.findShortestDistances(List.of(start, start), buildings);
+        assertArrayEquals(costs[0], costs[1], 0);
+        assertNotSame(costs[0], costs[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistanceMatrixInvalidName() {
+        map.findShortestDistances(List.of(buildings.get(0)), List.of("NOT A BUILDING"));
+    }
+}
@@ -0,0 +1,92 @@
+package pathfinder.junitTests;
+
+import org.junit.Test;
+import pathfinder.CampusGraphCompiler;
+import pathfinder.CampusMap;
+import pathfinder.RoutingEngine;
+import pathfinder.parser.CampusGraphFile;
+import pathfinder.parser.CampusPathsParser.ParserException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RouteAssertions.assertSameRoutes;
+
+/**
+ * Checks that a campus map loaded from a compiled graph file answers like one loaded from the
+ * CSV files, and that damaged files are rejected.
+ */
+public class TestCampusGraphFile {
+
+    private static Path compile() throws IOException {
+        Path file = Files.createTempFile("campus_graph", ".bin");
+        file.toFile().deleteOnExit();
+        CampusGraphCompiler.main(new String[] {file.toString()});
+        return file;
+    }
+
+    @Test
+    public void testSameRoutesAsCsv() throws IOException {
+        Path file = compile();
+        for (RoutingEngine engine : List.of(RoutingEngine.ASTAR, RoutingEngine.ROUTE_TABLE)) {
+            assertSameRoutes(new CampusMap(engine), new CampusMap(engine, 0, file));
+        }
+    }
+
+    @Test
+    public void testGraphMatchesCompiledCounts() throws IOException {
+        CampusGraphFile file = CampusGraphFile.read(compile());
+        CampusMap fromCsv = new CampusMap(RoutingEngine.DIJKSTRA);
+        assertEquals(fromCsv.buildingNames().size(), file.buildings().size());
+        assertEquals(fromCsv.currentGraph().edgeCount(), file.graph().edgeCount());
+        assertEquals(fromCsv.currentGraph().getNodes().size(), file.graph().size());
+    }
+
+    @Test(expected = ParserException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("not_a_graph", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, "x1,y1,x2,y2,distance\n".getBytes());
+        CampusGraphFile.read(file);
+    }
+
+    @Test(expected = ParserException.class)
+    public void testRejectsOtherVersions() throws IOException {
+        Path file = compile();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(4, CampusGraphFile.FORMAT_VERSION + 1);
+        Files.write(file, bytes);
+        CampusGraphFile.read(file);
+    }
+
+    @Test(expected = ParserException.class)
+    public void testRejectsFilesTooLargeToMap() throws IOException {
+        Path file = Files.createTempFile("huge_graph", ".bin");
+        file.toFile().deleteOnExit();
+        // A sparse file, so no disk space is used.
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(3L << 30);
+        }
+        try {
+            CampusGraphFile.read(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void testRejectsTruncatedFiles() throws IOException {
+        Path file = compile();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        CampusGraphFile.read(file);
+    }
+}
@@ -0,0 +1,157 @@
+package pathfinder.junitTests;
+
+import graph.ConcurrentWeightedGraph;
+import org.junit.Test;
+import pathfinder.AStarAlg;
+import pathfinder.BidirectionalAlg;
+import pathfinder.IndexedDijkstraAlg;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs route queries on a ConcurrentWeightedGraph while other threads add and remove edges.
+ * The graph is a grid whose edges are never removed, plus shortcut edges that the writers keep
+ * toggling, so every query must find a path no longer than the route along the grid, made only
+ * of edges that exist at some point.
+ */
+public class TestConcurrentGraph {
+
+    private static final int SIDE = 20;
+    private static final int WRITERS = 2;
+    private static final int READERS = 4;
+    private static final int QUERIES = 200;
+
+    private static Point point(int x, int y) {
+        return new Point(x, y);
+    }
+
+    private static void addBothWays(ConcurrentWeightedGraph<Point> g, Point a, Point b) {
+        g.addEdge(a, b, a.distanceTo(b));
+        g.addEdge(b, a, a.distanceTo(b));
+    }
+
+    @Test
+    public void testQueriesDuringEdits() throws InterruptedException {
+        ConcurrentWeightedGraph<Point> g = new ConcurrentWeightedGraph<>();
+        for (int x = 0; x < SIDE; x++) {
+            for (int y = 0; y < SIDE; y++) {
+                g.addNode(point(x, y));
+                if (x > 0) {
+                    addBothWays(g, point(x - 1, y), point(x, y));
+                }
+                if (y > 0) {
+                    addBothWays(g, point(x, y - 1), point(x, y));
+                }
+            }
+        }
+        int gridEdges = g.edgeCount();
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        // Diagonal shortcuts never collide with grid edges, so removing one
+                        // never removes a grid edge.
+                        int x = random.nextInt(SIDE - 1);
+                        int y = random.nextInt(SIDE - 1);
+                        Point a = point(x, y);
+                        Point b = point(x + 1, y + 1);
+                        if (g.isEdge(a, b)) {
+                            g.removeEdges(a, b);
+                            g.removeEdges(b, a);
+                        } else {
+                            addBothWays(g, a, b);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < READERS; t++) {
+            Random random = new Random(100 + t);
+            readers.add(new Thread(() -> {
+                try {
+                    for (int q = 0; q < QUERIES; q++) {
+                        Point start = point(random.nextInt(SIDE), random.nextInt(SIDE));
+                        Point end = point(random.nextInt(SIDE), random.nextInt(SIDE));
+                        double gridCost = Math.abs(start.getX() - end.getX())
+                                + Math.abs(start.getY() - end.getY());
+                        checkPath(start, end, gridCost,
+                                IndexedDijkstraAlg.findMinCostPath(start, end, g));
+                        checkPath(start, end, gridCost,
+                                AStarAlg.findMinCostPath(start, end, g, end::distanceTo));
+                        checkPath(start, end, gridCost,
+                                BidirectionalAlg.findMinCostPath(start, end, g));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        threads.addAll(readers);
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.peek());
+        }
+
+        int out = 0;
+        int in = 0;
+        int shortcuts = 0;
+        for (Point node : g.getNodes()) {
+            out += g.outDegree(node);
+            in += g.inDegree(node);
+            int[] diagonal = new int[1];
+            g.forEachEdge(node, (child, weight) -> {
+                if (child.getX() != node.getX() && child.getY() != node.getY()) {
+                    diagonal[0]++;
+                }
+            });
+            shortcuts += diagonal[0];
+        }
+        assertEquals(g.edgeCount(), out);
+        assertEquals(g.edgeCount(), in);
+        assertEquals(gridEdges + shortcuts, g.edgeCount());
+    }
+
+    /**
+     * Checks that path goes from start to end, costs no more than the grid route, and only
+     * takes steps that are grid edges or diagonal shortcuts.
+     */
+    private static void checkPath(Point start, Point end, double gridCost, Path<Point> path) {
+        assertNotNull(start + " -> " + end, path);
+        assertEquals(start, path.getStart());
+        assertEquals(end, path.getEnd());
+        assertTrue(path.getCost() <= gridCost + 1e-9);
+        double total = 0;
+        for (Path<Point>.Segment segment : path) {
+            double dx = Math.abs(segment.getStart().getX() - segment.getEnd().getX());
+            double dy = Math.abs(segment.getStart().getY() - segment.getEnd().getY());
+            assertTrue(dx <= 1 && dy <= 1 && dx + dy > 0);
+            total += segment.getCost();
+        }
+        assertEquals(path.getCost(), total, 1e-9);
+    }
+}
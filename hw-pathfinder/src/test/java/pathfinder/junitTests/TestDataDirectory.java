@@ -0,0 +1,94 @@
+package pathfinder.junitTests;
+
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RoutingEngine;
+import pathfinder.parser.CampusPathsParser.ParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static pathfinder.testUtils.RouteAssertions.assertSameRoutes;
+
+/**
+ * Checks that a campus map loaded from data files on the filesystem answers like one loaded
+ * from the classpath, and that it sees changes made to the files.
+ */
+public class TestDataDirectory {
+
+    /**
+     * Copies the classpath data files into a new temporary directory.
+     */
+    private static Path copyData() throws IOException {
+        Path directory = Files.createTempDirectory("campus_data");
+        directory.toFile().deleteOnExit();
+        for (String name : List.of(CampusMap.BUILDINGS_FILE, CampusMap.PATHS_FILE)) {
+            Path file = directory.resolve(name);
+            try (InputStream in = TestDataDirectory.class.getResourceAsStream("/data/" + name)) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            file.toFile().deleteOnExit();
+        }
+        return directory;
+    }
+
+    private static CampusMap load(Path directory) {
+        return new CampusMap(RoutingEngine.ASTAR, 0, directory.resolve(CampusMap.BUILDINGS_FILE),
+                directory.resolve(CampusMap.PATHS_FILE));
+    }
+
+    @Test
+    public void testSameRoutesAsClasspath() throws IOException {
+        assertSameRoutes(new CampusMap(RoutingEngine.ASTAR), load(copyData()));
+    }
+
+    @Test
+    public void testSeesEditedFiles() throws IOException {
+        Path directory = copyData();
+        Path buildingsFile = directory.resolve(CampusMap.BUILDINGS_FILE);
+        List<String> lines = new ArrayList<>(Files.readAllLines(buildingsFile));
+        String[] first = lines.get(1).split(",");
+        lines.add("NEW,New Building," + first[2] + "," + first[3]);
+        Files.write(buildingsFile, lines, StandardCharsets.UTF_8);
+        CampusMap map = load(directory);
+        assertTrue(map.shortNameExists("NEW"));
+        assertEquals(0.0, map.findShortestPath("NEW", first[0]).getCost(), 0.0);
+    }
+
+    @Test
+    public void testPreprocessesOnGivenPool() throws IOException {
+        AtomicInteger workers = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(2, p -> {
+            workers.incrementAndGet();
+            return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+        }, null, false);
+        try {
+            Path directory = copyData();
+            CampusMap map = new CampusMap(RoutingEngine.ROUTE_TABLE, 0,
+                    directory.resolve(CampusMap.BUILDINGS_FILE),
+                    directory.resolve(CampusMap.PATHS_FILE), pool);
+            assertTrue(workers.get() > 0);
+            CampusMap expected = new CampusMap(RoutingEngine.ASTAR);
+            assertEquals(expected.findShortestPath("BAG", "CSE").getCost(),
+                    map.findShortestPath("BAG", "CSE").getCost(), 1e-9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void testMissingFile() throws IOException {
+        Path directory = copyData();
+        Files.delete(directory.resolve(CampusMap.PATHS_FILE));
+        load(directory);
+    }
+}
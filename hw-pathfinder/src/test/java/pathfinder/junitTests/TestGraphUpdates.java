@@ -0,0 +1,164 @@
+package pathfinder.junitTests;
+
+import graph.GraphSnapshot;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that edits to a CampusMap's graph become visible as a new version, and leave the
+ * previous version unchanged.
+ */
+public class TestGraphUpdates {
+
+    /**
+     * Closes a segment of a route, in both directions, and checks that the route found
+     * afterwards avoids it and is no shorter. The segment is one between two junctions, so
+     * closing it leaves the buildings connected.
+     */
+    private static void assertClosureAvoided(RoutingEngine engine) {
+        CampusMap map = new CampusMap(engine, 16);
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+        String start = buildings.get(0);
+        String end = buildings.get(buildings.size() - 1);
+        Path<Point> before = map.findShortestPath(start, end);
+        GraphSnapshot<Point> old = map.currentGraph();
+        Path<Point>.Segment closed = null;
+        for (Path<Point>.Segment segment : before) {
+            if (closed == null && old.outDegree(segment.getStart()) >= 3
+                    && old.outDegree(segment.getEnd()) >= 3) {
+                closed = segment;
+            }
+        }
+        assertNotNull(closed);
+        Path<Point>.Segment removed = closed;
+
+        GraphSnapshot<Point> next = map.updateGraph(editor -> {
+            editor.removeEdges(removed.getStart(), removed.getEnd());
+            editor.removeEdges(removed.getEnd(), removed.getStart());
+        });
+
+        assertSame(next, map.currentGraph());
+        assertEquals(old.version() + 1, next.version());
+        assertTrue(old.isEdge(closed.getStart(), closed.getEnd()));
+        assertFalse(next.isEdge(closed.getStart(), closed.getEnd()));
+        Path<Point> after = map.findShortestPath(start, end);
+        assertNotNull(after);
+        assertTrue(after.getCost() >= before.getCost());
+        for (Path<Point>.Segment segment : after) {
+            assertFalse(segment.getStart().equals(closed.getStart())
+                    && segment.getEnd().equals(closed.getEnd()));
+        }
+    }
+
+    @Test
+    public void testDijkstraSeesNewVersion() {
+        assertClosureAvoided(RoutingEngine.DIJKSTRA);
+    }
+
+    @Test
+    public void testAStarSeesNewVersion() {
+        assertClosureAvoided(RoutingEngine.ASTAR);
+    }
+
+    @Test
+    public void testRouteTableSeesNewVersion() {
+        assertClosureAvoided(RoutingEngine.ROUTE_TABLE);
+    }
+
+    @Test
+    public void testEmptyUpdateKeepsRoutes() {
+        CampusMap map = new CampusMap(RoutingEngine.ASTAR);
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+        Path<Point> before = map.findShortestPath(buildings.get(1), buildings.get(2));
+        map.updateGraph(editor -> { });
+        assertEquals(before, map.findShortestPath(buildings.get(1), buildings.get(2)));
+    }
+
+    @Test
+    public void testClosureKeepsUnaffectedRoutes() {
+        CampusMap map = new CampusMap(RoutingEngine.ROUTE_TABLE, 4096);
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        Collections.sort(buildings);
+        String end = buildings.get(0);
+        List<Path<Point>> routes = new ArrayList<>();
+        for (String start : buildings) {
+            routes.add(map.findShortestPath(start, end));
+        }
+        Path<Point>.Segment closed = routes.get(1).iterator().next();
+        int affected = 0;
+        for (Path<Point> route : routes) {
+            for (Path<Point>.Segment segment : route) {
+                if (segment.getStart().equals(closed.getStart())
+                        && segment.getEnd().equals(closed.getEnd())) {
+                    affected++;
+                    break;
+                }
+            }
+        }
+        int cachedBefore = map.routeCacheStats().getSize();
+
+        map.updateGraph(editor -> {
+            editor.removeEdges(closed.getStart(), closed.getEnd());
+            editor.removeEdges(closed.getEnd(), closed.getStart());
+        });
+
+        assertTrue(affected > 0);
+        assertEquals(cachedBefore - affected, map.routeCacheStats().getSize());
+        assertEquals(affected, map.routeCacheStats().getInvalidations());
+        for (int i = 0; i < buildings.size(); i++) {
+            if (!RouteCache.edgesOf(routes.get(i)).contains(
+                    Map.entry(closed.getStart(), closed.getEnd()))) {
+                assertSame(routes.get(i), map.findShortestPath(buildings.get(i), end));
+            }
+        }
+    }
+
+    /**
+     * Cuts every edge into and out of a building's entrance, and checks that each engine
+     * then finds no route to or from it, and no distance.
+     */
+    @Test
+    public void testIsolatedBuildingHasNoRoute() {
+        for (RoutingEngine engine : RoutingEngine.values()) {
+            CampusMap map = new CampusMap(engine, 16);
+            List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+            Collections.sort(buildings);
+            String start = buildings.get(0);
+            String end = buildings.get(buildings.size() - 1);
+            Point entrance = map.findShortestPath(start, end).getStart();
+            GraphSnapshot<Point> old = map.currentGraph();
+            List<Point> neighbors = new ArrayList<>();
+            old.forEachEdge(entrance, (child, weight) -> neighbors.add(child));
+            old.forEachIncomingEdge(entrance, (parent, weight) -> neighbors.add(parent));
+
+            map.updateGraph(editor -> {
+                for (Point neighbor : neighbors) {
+                    editor.removeEdges(entrance, neighbor);
+                    editor.removeEdges(neighbor, entrance);
+                }
+            });
+
+            assertNull(engine.toString(), map.findShortestPath(start, end));
+            assertNull(engine.toString(), map.findShortestPath(end, start));
+            assertNotNull(engine.toString(), map.findShortestPath(start, start));
+            double[][] costs = map.findShortestDistances(List.of(start, end),
+                    List.of(start, end));
+            assertEquals(0, costs[0][0], 0);
+            assertTrue(Double.isInfinite(costs[0][1]));
+            assertTrue(Double.isInfinite(costs[1][0]));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import graph.GraphSnapshot;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestRouteCache {
+
+    @Test
+    public void testHitAfterPut() {
+        RouteCache<String> cache = new RouteCache<>(4);
+        assertNull(cache.get("A", "B"));
+        cache.put("A", "B", "A-B");
+        assertEquals("A-B", cache.get("A", "B"));
+        assertNull(cache.get("B", "A"));
+        RouteCache.Stats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        RouteCache<String> cache = new RouteCache<>(2);
+        cache.put("A", "B", "A-B");
+        cache.put("A", "C", "A-C");
+        cache.put("A", "D", "A-D");
+        cache.put("A", "E", "A-E");
+        RouteCache.Stats stats = cache.stats();
+        assertTrue(stats.getSize() <= 2);
+        assertEquals(4 - stats.getSize(), stats.getEvictions());
+    }
+
+    @Test
+    public void testLruOrderWithinOneSegment() {
+        RouteCache<String> cache = new RouteCache<>(1);
+        cache.put("A", "B", "A-B");
+        cache.put("A", "C", "A-C");
+        assertNull(cache.get("A", "B"));
+        assertEquals("A-C", cache.get("A", "C"));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    public void testNeverHoldsMoreThanCapacity() {
+        RouteCache<String> cache = new RouteCache<>(1000);
+        for (int i = 0; i < 20000; i++) {
+            cache.put("S" + i, "E" + i, "route " + i);
+            assertTrue(cache.stats().getSize() <= 1000);
+        }
+        // Every segment is full by now, and together they hold exactly the capacity.
+        assertEquals(1000, cache.stats().getSize());
+        assertEquals(19000, cache.stats().getEvictions());
+    }
+
+    @Test
+    public void testZeroCapacityCachesNothing() {
+        RouteCache<String> cache = new RouteCache<>(0);
+        cache.put("A", "B", "A-B");
+        assertNull(cache.get("A", "B"));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    public void testReverseHit() {
+        RouteCache<String> cache = new RouteCache<>(4,
+                s -> new StringBuilder(s).reverse().toString());
+        cache.put("A", "B", "A-B");
+        assertEquals("B-A", cache.get("B", "A"));
+        assertEquals(1, cache.stats().getReverseHits());
+        assertEquals(0, cache.stats().getMisses());
+    }
+
+    @Test
+    public void testInvalidateDropsOnlyDependents() {
+        RouteCache<String> cache = new RouteCache<>(64);
+        cache.put("A", "B", "A-x-B", List.of("x"));
+        cache.put("A", "C", "A-x-y-C", List.of("x", "y"));
+        cache.put("B", "C", "B-z-C", List.of("z"));
+        cache.put("C", "D", "C-D");
+        assertEquals(2, cache.invalidate(List.of("x")));
+        assertNull(cache.get("A", "B"));
+        assertNull(cache.get("A", "C"));
+        assertEquals("B-z-C", cache.get("B", "C"));
+        assertEquals("C-D", cache.get("C", "D"));
+        assertEquals(0, cache.invalidate(List.of("x", "y")));
+        assertEquals(2, cache.stats().getInvalidations());
+    }
+
+    @Test
+    public void testReplacedAndEvictedRoutesLeaveIndex() {
+        RouteCache<String> cache = new RouteCache<>(1);
+        cache.put("A", "B", "A-x-B", List.of("x"));
+        cache.put("A", "B", "A-y-B", List.of("y"));
+        assertEquals(0, cache.invalidate(List.of("x")));
+        cache.put("A", "C", "A-z-C", List.of("z"));
+        assertEquals(0, cache.invalidate(List.of("y")));
+        assertEquals(1, cache.invalidate(List.of("z")));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    public void testInvalidateVersion() {
+        Graph<String, Double> g = new Graph<>();
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("B", "C", 1.0);
+        GraphSnapshot<String> base = GraphSnapshot.of(g);
+        RouteCache<String> cache = new RouteCache<>(64);
+        cache.put("A", "B", "A-B", List.of(Map.entry("A", "B")));
+        cache.put("C", "B", "C-B", List.of(Map.entry("C", "B")));
+
+        GraphSnapshot.Editor<String> raise = base.edit();
+        raise.setWeight("B", "C", 5.0);
+        assertEquals(1, cache.invalidate(raise.build()));
+        assertNull(cache.get("C", "B"));
+        assertEquals("A-B", cache.get("A", "B"));
+
+        GraphSnapshot.Editor<String> lower = base.edit();
+        lower.addEdge("A", "C", 1.0);
+        assertEquals(1, cache.invalidate(lower.build()));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCapacity() {
+        new RouteCache<String>(-1);
+    }
+
+    @Test
+    public void testCampusMapServesReversedRoutes() {
+        CampusMap reference = new CampusMap(RoutingEngine.ASTAR);
+        CampusMap cached = new CampusMap(RoutingEngine.ASTAR, 8);
+        List<String> buildings = new ArrayList<>(reference.buildingNames().keySet());
+        Collections.sort(buildings);
+        String a = buildings.get(0);
+        String b = buildings.get(buildings.size() - 1);
+        Path<Point> forward = cached.findShortestPath(a, b);
+        assertEquals(reference.findShortestPath(a, b), forward);
+        assertSame(forward, cached.findShortestPath(a, b));
+        assertEquals(reference.findShortestPath(b, a), cached.findShortestPath(b, a));
+        RouteCache.Stats stats = cached.routeCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getReverseHits());
+        assertEquals(1, stats.getMisses());
+    }
+}
@@ -0,0 +1,132 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.GraphSnapshot;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RouteTable;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that a RouteTable repaired for an edited graph routes exactly as well as a table
+ * built from scratch on that graph.
+ */
+public class TestRouteTableRepair {
+
+    private static GraphSnapshot<Point> campus;
+    private static List<Point> nodes;
+    private static List<Point> sources;
+
+    @BeforeClass
+    public static void loadCampus() {
+        campus = new CampusMap(RoutingEngine.ASTAR).currentGraph();
+        nodes = new ArrayList<>(campus.getNodes());
+        nodes.sort(Comparator.comparingDouble(Point::getX).thenComparingDouble(Point::getY));
+        sources = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i += 50) {
+            sources.add(nodes.get(i));
+        }
+    }
+
+    /**
+     * Compares every route out of every source of repaired to the same route in a table built
+     * from scratch on graph.
+     */
+    private static void assertSameCosts(RouteTable<Point> repaired, CsrGraph<Point> graph) {
+        RouteTable<Point> fresh = new RouteTable<>(graph, sources);
+        for (Point source : sources) {
+            for (int i = 0; i < nodes.size(); i += 7) {
+                Path<Point> expected = fresh.findMinCostPath(source, nodes.get(i));
+                Path<Point> actual = repaired.findMinCostPath(source, nodes.get(i));
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertNotNull(actual);
+                    assertEquals(expected.getCost(), actual.getCost(), 1e-9);
+                    for (Path<Point>.Segment segment : actual) {
+                        assertTrue(graph.idOf(segment.getStart()) != -1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRepairAfterRandomEdits() {
+        Random random = new Random(331);
+        GraphSnapshot<Point> graph = campus;
+        CsrGraph<Point> csr = new CsrGraph<>(graph);
+        RouteTable<Point> table = new RouteTable<>(csr, sources);
+        for (int round = 0; round < 5; round++) {
+            GraphSnapshot.Editor<Point> editor = graph.edit();
+            for (int edit = 0; edit < 20; edit++) {
+                Point parent = nodes.get(random.nextInt(nodes.size()));
+                List<Point> children = new ArrayList<>();
+                graph.forEachEdge(parent, (child, weight) -> children.add(child));
+                if (children.isEmpty()) {
+                    continue;
+                }
+                Point child = children.get(random.nextInt(children.size()));
+                switch (edit % 4) {
+                    case 0:
+                        editor.removeEdges(parent, child);
+                        editor.removeEdges(child, parent);
+                        break;
+                    case 1:
+                        editor.setWeight(parent, child, 10 * parent.distanceTo(child) + 100);
+                        break;
+                    case 2:
+                        editor.setWeight(parent, child, parent.distanceTo(child) / 2);
+                        break;
+                    default:
+                        Point far = nodes.get(random.nextInt(nodes.size()));
+                        editor.addEdge(parent, far, parent.distanceTo(far));
+                        break;
+                }
+            }
+            graph = editor.build();
+            csr = new CsrGraph<>(graph, csr);
+            table = table.repair(csr, graph.changedEdges());
+            assertSameCosts(table, csr);
+        }
+    }
+
+    @Test
+    public void testSingleClosureSearchesLittle() {
+        CsrGraph<Point> csr = new CsrGraph<>(campus);
+        RouteTable<Point> table = new RouteTable<>(csr, sources);
+        Point parent = nodes.get(nodes.size() / 2);
+        List<Point> children = new ArrayList<>();
+        campus.forEachEdge(parent, (child, weight) -> children.add(child));
+        GraphSnapshot.Editor<Point> editor = campus.edit();
+        for (Point child : children) {
+            editor.removeEdges(parent, child);
+            editor.removeEdges(child, parent);
+        }
+        GraphSnapshot<Point> closed = editor.build();
+        CsrGraph<Point> next = new CsrGraph<>(closed, csr);
+        RouteTable<Point> repaired = table.repair(next, closed.changedEdges());
+        assertSameCosts(repaired, next);
+        assertTrue(repaired.repairedNodes() < (long) sources.size() * csr.size());
+        assertNull(repaired.findMinCostPath(sources.get(0), parent));
+    }
+
+    @Test
+    public void testNoChangesSearchesNothing() {
+        CsrGraph<Point> csr = new CsrGraph<>(campus);
+        RouteTable<Point> table = new RouteTable<>(csr, sources);
+        GraphSnapshot<Point> same = campus.edit().build();
+        RouteTable<Point> repaired = table.repair(new CsrGraph<>(same, csr), same.changedEdges());
+        assertEquals(0, repaired.repairedNodes());
+    }
+}
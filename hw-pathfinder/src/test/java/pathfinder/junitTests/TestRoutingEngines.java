@@ -0,0 +1,149 @@
+package pathfinder.junitTests;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.WeightedGraph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.AStarAlg;
+import pathfinder.BidirectionalAlg;
+import pathfinder.CampusMap;
+import pathfinder.ContractionHierarchy;
+import pathfinder.DijkstraAlg;
+import pathfinder.IndexedDijkstraAlg;
+import pathfinder.RoutingEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.testUtils.RouteAssertions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that every RoutingEngine returns exactly the routes the original DijkstraAlg does.
+ */
+public class TestRoutingEngines {
+
+    private static CampusMap reference;
+
+    @BeforeClass
+    public static void loadCampus() {
+        reference = new CampusMap(RoutingEngine.DIJKSTRA);
+    }
+
+    /**
+     * Compares every route out of every fifth building against the reference engine.
+     */
+    private static void assertSameRoutes(RoutingEngine engine) {
+        RouteAssertions.assertSameRoutes(reference, new CampusMap(engine), 5, 1);
+    }
+
+    /**
+     * Builds a graph whose direct edge A -> B costs more than the way round through C and D,
+     * so that an engine which stops at the first path it finds returns the wrong route.
+     */
+    private static Graph<String, Double> smallGraph() {
+        Graph<String, Double> g = new Graph<>();
+        g.addEdge("A", "B", 10.0);
+        g.addEdge("A", "C", 1.0);
+        g.addEdge("C", "D", 1.0);
+        g.addEdge("D", "B", 1.0);
+        return g;
+    }
+
+    @Test
+    public void testIndexedDijkstraMatchesDijkstra() {
+        assertSameRoutes(RoutingEngine.INDEXED_DIJKSTRA);
+    }
+
+    @Test
+    public void testAStarMatchesDijkstra() {
+        assertSameRoutes(RoutingEngine.ASTAR);
+    }
+
+    @Test
+    public void testAStarWithZeroHeuristic() {
+        Graph<String, Double> g = new Graph<>();
+        g.addEdge("A", "B", 10.0);
+        g.addEdge("A", "C", 1.0);
+        g.addEdge("C", "B", 1.0);
+        Path<String> path = AStarAlg.findMinCostPath("A", "B", g, node -> 0.0);
+        assertEquals(2.0, path.getCost(), 0.0);
+    }
+
+    @Test
+    public void testBidirectionalMatchesDijkstra() {
+        assertSameRoutes(RoutingEngine.BIDIRECTIONAL);
+    }
+
+    @Test
+    public void testBidirectionalSmallGraph() {
+        Graph<String, Double> g = smallGraph();
+        g.addEdge("B", "E", 2.0);
+        Path<String> path = BidirectionalAlg.findMinCostPath("A", "E", g);
+        assertEquals(DijkstraAlg.findMinCostPath("A", "E", g), path);
+        assertEquals(5.0, path.getCost(), 0.0);
+        assertNull(BidirectionalAlg.findMinCostPath("E", "A", g));
+        assertEquals(0.0, BidirectionalAlg.findMinCostPath("A", "A", g).getCost(), 0.0);
+    }
+
+    @Test
+    public void testContractionHierarchiesMatchesDijkstra() {
+        assertSameRoutes(RoutingEngine.CONTRACTION_HIERARCHIES);
+    }
+
+    @Test
+    public void testRouteTableMatchesDijkstra() {
+        assertSameRoutes(RoutingEngine.ROUTE_TABLE);
+    }
+
+    @Test
+    public void testContractionHierarchyDirectedGraph() {
+        Graph<String, Double> g = smallGraph();
+        g.addEdge("B", "E", 2.0);
+        g.addEdge("E", "C", 4.0);
+        ContractionHierarchy<String> ch = new ContractionHierarchy<>(new CsrGraph<>(g));
+        for (String start : g.getNodes()) {
+            for (String end : g.getNodes()) {
+                Path<String> expected = IndexedDijkstraAlg.findMinCostPath(start, end, g);
+                assertEquals(start + " -> " + end, expected, ch.findMinCostPath(start, end));
+            }
+        }
+        assertNull(ch.findMinCostPath("B", "A"));
+    }
+
+    @Test
+    public void testIndexedDijkstraSmallGraph() {
+        Graph<String, Double> g = smallGraph();
+        Path<String> path = IndexedDijkstraAlg.findMinCostPath("A", "B", g);
+        assertEquals(DijkstraAlg.findMinCostPath("A", "B", g), path);
+        assertEquals(3.0, path.getCost(), 0.0);
+    }
+
+    @Test
+    public void testIndexedDijkstraUnreachable() {
+        Graph<String, Double> g = new Graph<>();
+        g.addEdge("A", "B", 1.0);
+        g.addNode("C");
+        assertNull(IndexedDijkstraAlg.findMinCostPath("A", "C", g));
+    }
+
+    @Test
+    public void testEnginesOnWeightedGraph() {
+        Graph<String, Double> g = smallGraph();
+        g.addEdge("B", "E", 2.0);
+        g.addNode("F");
+        WeightedGraph<String> w = WeightedGraph.copyOf(g);
+        for (String start : g.getNodes()) {
+            for (String end : g.getNodes()) {
+                Path<String> expected = IndexedDijkstraAlg.findMinCostPath(start, end, g);
+                String pair = start + " -> " + end;
+                assertEquals(pair, expected, IndexedDijkstraAlg.findMinCostPath(start, end, w));
+                assertEquals(pair, expected, AStarAlg.findMinCostPath(start, end, w, n -> 0.0));
+                assertEquals(pair, expected, BidirectionalAlg.findMinCostPath(start, end, w));
+                if (expected != null) {
+                    assertEquals(pair, expected, DijkstraAlg.findMinCostPath(start, end, w));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package pathfinder.junitTests;
+
+import org.junit.Test;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.ParserException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that streamCampusPaths parses the same values as String.split and
+ * Double.parseDouble, and reports malformed lines with their line numbers.
+ */
+public class TestStreamingParser {
+
+    private static List<double[]> stream(String text) throws IOException {
+        List<double[]> records = new ArrayList<>();
+        CampusPathsParser.streamCampusPaths(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                (x1, y1, x2, y2, distance) -> records.add(new double[] {x1, y1, x2, y2,
+                        distance}));
+        return records;
+    }
+
+    @Test
+    public void testMatchesParseDouble() throws IOException {
+        List<double[]> expected = new ArrayList<>();
+        InputStream in = getClass().getResourceAsStream("/data/campus_paths.csv");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                double[] record = new double[fields.length];
+                for (int i = 0; i < fields.length; i++) {
+                    record[i] = Double.parseDouble(fields[i]);
+                }
+                expected.add(record);
+            }
+        }
+        List<double[]> actual = new ArrayList<>();
+        CampusPathsParser.streamCampusPaths("campus_paths.csv",
+                (x1, y1, x2, y2, distance) -> actual.add(new double[] {x1, y1, x2, y2,
+                        distance}));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), 0);
+        }
+    }
+
+    @Test
+    public void testLineEndings() throws IOException {
+        List<double[]> records = stream("1,2,3,4,5\r\n-1.5,2e3,.25,4.,0\n6,7,8,9,10");
+        assertEquals(3, records.size());
+        assertArrayEquals(new double[] {-1.5, 2000, 0.25, 4, 0}, records.get(1), 0);
+        assertArrayEquals(new double[] {6, 7, 8, 9, 10}, records.get(2), 0);
+    }
+
+    @Test
+    public void testLineLongerThanBuffer() throws IOException {
+        StringBuilder digits = new StringBuilder("0.");
+        for (int i = 0; i < 100000; i++) {
+            digits.append('0');
+        }
+        digits.append('1');
+        List<double[]> records = stream("1,2,3,4,5\n" + digits + ",2,3,4,5\n");
+        assertEquals(2, records.size());
+        assertEquals(0, records.get(1)[0], 0);
+    }
+
+    @Test
+    public void testWrongFieldCountReportsLine() throws IOException {
+        try {
+            stream("1,2,3,4,5\n1,2,3,4\n");
+            fail("A line with four fields was accepted.");
+        } catch (ParserException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2:"));
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void testBadNumber() throws IOException {
+        stream("1,2,3,4,five\n");
+    }
+
+    /**
+     * Builds a paths file of the given number of lines, large enough to be split into
+     * several chunks.
+     */
+    private static StringBuilder largeFile(int lines) {
+        Random random = new Random(331);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            for (int j = 0; j < 4; j++) {
+                text.append(random.nextDouble() * 3000).append(',');
+            }
+            text.append(random.nextDouble() * 100).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        return text;
+    }
+
+    private static List<double[]> parallel(CharSequence text) {
+        List<double[]> records = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CampusPathsParser.parseCampusPathsInParallel(
+                    text.toString().getBytes(StandardCharsets.UTF_8), pool,
+                    (x1, y1, x2, y2, distance) -> records.add(new double[] {x1, y1, x2, y2,
+                            distance}));
+        } finally {
+            pool.shutdown();
+        }
+        return records;
+    }
+
+    @Test
+    public void testParallelMatchesStream() throws IOException {
+        String text = largeFile(100000).toString();
+        List<double[]> expected = stream(text);
+        List<double[]> actual = parallel(text);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), 0);
+        }
+    }
+
+    @Test
+    public void testParallelReportsFirstBadLine() {
+        StringBuilder text = largeFile(100000);
+        int second = text.indexOf("\n", text.length() / 2) + 1;
+        text.insert(second, "1,2,3\n");
+        int first = text.indexOf("\n", text.length() / 4) + 1;
+        text.insert(first, "1,2,3,4,x\n");
+        int firstLine = 1;
+        for (int i = 0; i < first; i++) {
+            if (text.charAt(i) == '\n') {
+                firstLine++;
+            }
+        }
+        try {
+            parallel(text);
+            fail("Malformed lines were accepted.");
+        } catch (ParserException e) {
+            assertEquals("Line " + firstLine + ": Cannot parse x/y coordinates as numbers",
+                    e.getMessage());
+        }
+    }
+}
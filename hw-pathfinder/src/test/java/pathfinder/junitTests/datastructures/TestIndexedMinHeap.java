@@ -0,0 +1,74 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedMinHeap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Test
+    public void testRemovesInKeyOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.insertOrDecrease(0, 4.0);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 3.0);
+        heap.insertOrDecrease(3, 2.0);
+        assertEquals(4, heap.size());
+        assertEquals(1, heap.removeMin());
+        assertEquals(3, heap.removeMin());
+        assertEquals(2, heap.removeMin());
+        assertEquals(0, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testDecreaseKeyMovesIdForward() {
+        IndexedMinHeap heap = new IndexedMinHeap(3);
+        heap.insertOrDecrease(0, 1.0);
+        heap.insertOrDecrease(1, 5.0);
+        heap.insertOrDecrease(2, 3.0);
+        assertTrue(heap.insertOrDecrease(1, 0.5));
+        assertEquals(3, heap.size());
+        assertEquals(0.5, heap.minKey(), EPSILON);
+        assertEquals(1, heap.removeMin());
+    }
+
+    @Test
+    public void testLargerKeyIsIgnored() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.insertOrDecrease(0, 1.0);
+        assertFalse(heap.insertOrDecrease(0, 2.0));
+        assertEquals(1.0, heap.keyOf(0), EPSILON);
+    }
+
+    @Test
+    public void testContainsAfterRemove() {
+        IndexedMinHeap heap = new IndexedMinHeap(2);
+        heap.insertOrDecrease(1, 1.0);
+        assertTrue(heap.contains(1));
+        heap.removeMin();
+        assertFalse(heap.contains(1));
+        assertFalse(heap.contains(0));
+    }
+
+    @Test
+    public void testEnsureCapacity() {
+        IndexedMinHeap heap = new IndexedMinHeap(1);
+        heap.ensureCapacity(10);
+        heap.insertOrDecrease(9, 2.0);
+        heap.insertOrDecrease(0, 3.0);
+        assertEquals(9, heap.removeMin());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmptyHeap() {
+        new IndexedMinHeap(1).removeMin();
+    }
+}
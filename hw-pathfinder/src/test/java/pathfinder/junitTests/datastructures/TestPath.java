@@ -5,7 +5,13 @@ import org.junit.Test;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -106,4 +112,78 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testBranchesShareAPrefix() {
+        Path<Point> prefix = new Path<>(new Point(0.0, 0.0)).extend(new Point(1.0, 0.0), 1.0D);
+        Path<Point> left = prefix.extend(new Point(1.0, 1.0), 1.0D);
+        Path<Point> right = prefix.extend(new Point(1.0, -1.0), 2.0D);
+        assertEquals(1, prefix.size());
+        assertEquals(2, left.size());
+        assertEquals(2, right.size());
+        assertEquals(new Point(1.0, 1.0), left.getEnd());
+        assertEquals(new Point(1.0, -1.0), right.getEnd());
+        assertEquals(3.0D, right.getCost(), EPSILON);
+        assertNotEquals(left, right);
+        List<Point> ends = new ArrayList<>();
+        for (Path<Point>.Segment segment : right) {
+            ends.add(segment.getEnd());
+        }
+        assertEquals(List.of(new Point(1.0, 0.0), new Point(1.0, -1.0)), ends);
+    }
+
+    @Test
+    public void testExtendedPathEqualsPathFromPoints() {
+        Path<Point> extended = new Path<>(new Point(0.0, 0.0))
+                .extend(new Point(1.0, 0.0), 1.0D)
+                .extend(new Point(2.0, 0.0), 1.5D)
+                .extend(new Point(2.0, 3.0), 3.0D);
+        Path<Point> fromPoints = new Path<>(new Point(0.0, 0.0),
+                List.of(new Point(1.0, 0.0), new Point(2.0, 0.0), new Point(2.0, 3.0)),
+                new double[]{1.0D, 1.5D, 3.0D});
+        assertEquals(extended, fromPoints);
+        assertEquals(fromPoints, extended);
+        assertEquals(extended.hashCode(), fromPoints.hashCode());
+        assertEquals(extended.getCost(), fromPoints.getCost(), 0);
+        assertEquals(extended.toString(), fromPoints.toString());
+        // Extending a path built from points shares its segments the same way.
+        assertEquals(extended.extend(new Point(0.0, 0.0), 2.0D),
+                fromPoints.extend(new Point(0.0, 0.0), 2.0D));
+    }
+
+    @Test
+    public void testReversed() {
+        Path<Point> path = new Path<>(new Point(0.0, 0.0))
+                .extend(new Point(1.0, 0.0), 1.0D)
+                .extend(new Point(1.0, 2.0), 2.0D);
+        Path<Point> reversed = path.reversed();
+        assertEquals(new Point(1.0, 2.0), reversed.getStart());
+        assertEquals(new Point(0.0, 0.0), reversed.getEnd());
+        assertEquals(path.getCost(), reversed.getCost(), EPSILON);
+        assertEquals(path, reversed.reversed());
+    }
+
+    /**
+     * The fields Gson serializes: every declared field that is not static, transient or
+     * synthetic.
+     */
+    private static Set<String> serializedFields(Class<?> type) {
+        Set<String> names = new HashSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+                    && !field.isSynthetic()) {
+                names.add(field.getName());
+            }
+        }
+        return names;
+    }
+
+    // The JSON form of a path is part of the server's API, so its fields must not change.
+    @Test
+    public void testSerializedFields() {
+        assertEquals(Set.of("cost", "start", "path"), serializedFields(Path.class));
+        assertEquals(Set.of("start", "end", "cost"), serializedFields(Path.Segment.class));
+        assertEquals(Set.of("x", "y"), serializedFields(Point.class));
+    }
 }
@@ -0,0 +1,68 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointInterner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TestPointInterner {
+
+    @Test
+    public void testSharesEqualPoints() {
+        for (PointInterner interner : List.of(new PointInterner(), new PointInterner(3))) {
+            Point a = interner.intern(1536.287, 1786.613);
+            assertSame(a, interner.intern(1536.287, 1786.613));
+            assertSame(a, interner.intern(new Point(1536.287, 1786.613)));
+            Point b = new Point(2.5, -4.0);
+            assertSame(b, interner.intern(b));
+            assertEquals(2, interner.size());
+        }
+    }
+
+    @Test
+    public void testSharedKeyDoesNotMerge() {
+        // Both round to the same fixed-point key at one decimal place.
+        PointInterner interner = new PointInterner(1);
+        Point a = interner.intern(1.0, 2.0);
+        Point b = interner.intern(1.01, 2.0);
+        assertNotSame(a, b);
+        assertEquals(new Point(1.01, 2.0), b);
+        assertSame(b, interner.intern(1.01, 2.0));
+        assertSame(a, interner.intern(1.0, 2.0));
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void testOutOfFixedPointRange() {
+        PointInterner interner = new PointInterner(9);
+        Point far = interner.intern(1e12, 0);
+        assertSame(far, interner.intern(1e12, 0));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void testManyPoints() {
+        PointInterner interner = new PointInterner(3);
+        Random random = new Random(331);
+        List<Point> first = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            first.add(interner.intern(random.nextInt(100000) / 1000.0,
+                    random.nextInt(100000) / 1000.0));
+        }
+        for (Point point : first) {
+            assertSame(point, interner.intern(point.getX(), point.getY()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyDigits() {
+        new PointInterner(PointInterner.MAX_FRACTION_DIGITS + 1);
+    }
+}
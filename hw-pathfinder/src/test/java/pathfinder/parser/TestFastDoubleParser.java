@@ -0,0 +1,121 @@
+package pathfinder.parser;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks FastDoubleParser against Double.parseDouble, bit for bit, on seeded random inputs
+ * chosen to reach every branch of the conversion: long mantissas, extreme exponents,
+ * subnormals and values exactly halfway between two doubles. This test is in the parser's
+ * package because FastDoubleParser is package-private.
+ */
+public class TestFastDoubleParser {
+
+    private static final int SAMPLES = 20000;
+
+    /**
+     * Parses text from the middle of a larger array, so that parse must respect its bounds,
+     * and checks that it gives exactly what Double.parseDouble gives.
+     */
+    private static void assertParsesExactly(String text) {
+        byte[] bytes = ("9," + text + ",9").getBytes(StandardCharsets.ISO_8859_1);
+        double expected = Double.parseDouble(text);
+        double actual = FastDoubleParser.parse(bytes, 2, bytes.length - 2);
+        assertEquals(text, Double.doubleToRawLongBits(expected),
+                Double.doubleToRawLongBits(actual));
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        sb.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < count; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testLongMantissas() {
+        Random random = new Random(331);
+        for (int i = 0; i < SAMPLES; i++) {
+            int count = 15 + random.nextInt(5);
+            String mantissa = digits(random, count);
+            int point = random.nextInt(count + 1);
+            String text = mantissa.substring(0, point) + "." + mantissa.substring(point);
+            assertParsesExactly((random.nextBoolean() ? "-" : "") + text
+                    + "e" + (random.nextInt(80) - 40));
+        }
+        assertParsesExactly("9999999999999999999");
+        assertParsesExactly("1844674407370955161.5");
+        assertParsesExactly("00000000000000000000001.25");
+    }
+
+    @Test
+    public void testExtremeExponents() {
+        Random random = new Random(332);
+        for (int i = 0; i < SAMPLES; i++) {
+            String mantissa = digits(random, 1 + random.nextInt(19));
+            int exponent = random.nextBoolean()
+                    ? 290 + random.nextInt(30) - mantissa.length()
+                    : -360 + random.nextInt(40) - mantissa.length();
+            assertParsesExactly(mantissa + "e" + exponent);
+        }
+        for (String text : new String[] {"1e308", "1.7976931348623157e308", "1.8e308",
+                "1e-342", "1e-343", "2.2250738585072014e-308", "4.9e-324", "2.4e-324",
+                "2.5e-324", "1e309", "1e-400", "1e99999999999"}) {
+            assertParsesExactly(text);
+        }
+    }
+
+    @Test
+    public void testSubnormals() {
+        Random random = new Random(333);
+        for (int i = 0; i < SAMPLES; i++) {
+            double subnormal = Double.longBitsToDouble(random.nextLong() & 0x000FFFFFFFFFFFFFL);
+            assertParsesExactly(Double.toString(subnormal));
+            assertParsesExactly(new BigDecimal(subnormal).round(
+                    new java.math.MathContext(1 + random.nextInt(19))).toString());
+        }
+    }
+
+    @Test
+    public void testHalfwayCases() {
+        Random random = new Random(334);
+        for (int i = 0; i < SAMPLES; i++) {
+            // A 53-bit significand followed by a single one bit is exactly halfway between two
+            // doubles, and has at most 19 digits while it fits in a long.
+            long significand = (1L << 52) | (random.nextLong() & ((1L << 52) - 1));
+            int shift = 1 + random.nextInt(10);
+            long halfway = (significand << shift) | (1L << (shift - 1));
+            assertParsesExactly(Long.toString(halfway));
+            assertParsesExactly(Long.toString(halfway) + "e" + (random.nextInt(40) - 20));
+            // The exact decimal midpoint of two arbitrary neighbors, which needs many digits
+            // and is slow to build, so fewer are tried.
+            double d = Math.abs(Double.longBitsToDouble(random.nextLong()));
+            if (i % 10 == 0 && Double.isFinite(d) && Double.isFinite(Math.nextUp(d))) {
+                BigDecimal midpoint = new BigDecimal(d).add(new BigDecimal(Math.nextUp(d)))
+                        .divide(BigDecimal.valueOf(2));
+                assertParsesExactly(midpoint.toString());
+            }
+        }
+        assertParsesExactly(new BigInteger("9007199254740993").toString());
+    }
+
+    @Test
+    public void testRandomDoubles() {
+        Random random = new Random(335);
+        for (int i = 0; i < SAMPLES; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isFinite(d)) {
+                assertParsesExactly(Double.toString(d));
+            }
+            assertParsesExactly(Double.toString(random.nextDouble() * 4000));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package pathfinder.testUtils;
+
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Assertions shared by the tests that check one campus map answers exactly like another.
+ */
+public final class RouteAssertions {
+
+    // This class does not represent an ADT.
+
+    private RouteAssertions() {
+    }
+
+    /**
+     * Checks that two maps have the same buildings, and return equal routes, with equal
+     * segments, for a sample of the pairs of buildings: every fifth start building, in sorted
+     * order, with every seventh end building.
+     *
+     * @param expected The map whose routes are correct.
+     * @param actual   The map under test.
+     */
+    public static void assertSameRoutes(CampusMap expected, CampusMap actual) {
+        assertSameRoutes(expected, actual, 5, 7);
+    }
+
+    /**
+     * Checks that two maps have the same buildings, and return equal routes, with equal
+     * segments, for every startStep-th start building and every endStep-th end building, in
+     * sorted order.
+     *
+     * @param expected  The map whose routes are correct.
+     * @param actual    The map under test.
+     * @param startStep How many start buildings to advance between samples.
+     * @param endStep   How many end buildings to advance between samples.
+     */
+    public static void assertSameRoutes(CampusMap expected, CampusMap actual, int startStep,
+                                        int endStep) {
+        assertEquals(expected.buildingNames(), actual.buildingNames());
+        List<String> buildings = new ArrayList<>(expected.buildingNames().keySet());
+        Collections.sort(buildings);
+        for (int i = 0; i < buildings.size(); i += startStep) {
+            String start = buildings.get(i);
+            for (int j = 0; j < buildings.size(); j += endStep) {
+                String end = buildings.get(j);
+                Path<Point> expectedPath = expected.findShortestPath(start, end);
+                Path<Point> actualPath = actual.findShortestPath(start, end);
+                assertEquals(start + " -> " + end, expectedPath, actualPath);
+                assertEquals(String.valueOf(expectedPath), String.valueOf(actualPath));
+            }
+        }
+    }
+}